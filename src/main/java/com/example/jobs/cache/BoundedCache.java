@@ -0,0 +1,247 @@
+package com.example.jobs.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Cache holding at most a maximum number of entries, each for at most a fixed time after it was written. The entries
+ * are split by the hash of their keys into segments, each with its own lock and its own share of the maximum size, so
+ * gets of different keys rarely wait for each other. When a segment is full its least recently used entry is evicted.
+ * Hits, misses, evictions and the size are published as the cache.gets, cache.evictions and cache.size metrics, tagged
+ * with the name of the cache.
+ *
+ * <p>A value loaded while its key is invalidated is not cached, so a change is never hidden by a value read before it.
+ * Loads of other keys are not affected.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class BoundedCache<K, V> {
+
+  private static final int MAX_SEGMENTS = 16;
+
+  private static final int MIN_SEGMENT_SIZE = 64;
+
+  private final long expireAfterWriteNanos;
+
+  private final LongSupplier ticker;
+
+  private final Segment<K, V>[] segments;
+
+  private final Counter hits;
+
+  private final Counter misses;
+
+  private final Counter evictions;
+
+  /**
+   * Create a cache.
+   *
+   * @param name The name of the cache, used as the tag of its metrics.
+   * @param maximumSize The maximum number of entries.
+   * @param expireAfterWriteMillis How long an entry is kept after it was written.
+   * @param meterRegistry The registry of the metrics.
+   */
+  public BoundedCache(String name, int maximumSize, long expireAfterWriteMillis, MeterRegistry meterRegistry) {
+    this(name, maximumSize, expireAfterWriteMillis, meterRegistry, System::nanoTime);
+  }
+
+  @SuppressWarnings("unchecked")
+  BoundedCache(String name, int maximumSize, long expireAfterWriteMillis, MeterRegistry meterRegistry,
+      LongSupplier ticker) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Maximum size must be at least 1.");
+    }
+    this.expireAfterWriteNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMillis);
+    this.ticker = ticker;
+    hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit").register(meterRegistry);
+    misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+    evictions = Counter.builder("cache.evictions").tag("cache", name).register(meterRegistry);
+    // A power of two, so a segment is picked by masking the hash. Small caches keep a single, exact LRU order.
+    int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maximumSize / MIN_SEGMENT_SIZE)));
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment<>(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0), evictions);
+    }
+    Gauge.builder("cache.size", this, BoundedCache::size).tag("cache", name).register(meterRegistry);
+  }
+
+  private Segment<K, V> segmentFor(Object key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  /**
+   * Get the value of a key.
+   *
+   * @param key The key.
+   * @return The value, or null if the key is not cached or its entry expired.
+   */
+  public V get(K key) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      Entry<V> entry = segment.entries.get(key);
+      if (entry != null && ticker.getAsLong() - entry.writtenAt >= expireAfterWriteNanos) {
+        segment.entries.remove(key);
+        evictions.increment();
+        entry = null;
+      }
+      if (entry == null) {
+        misses.increment();
+        return null;
+      }
+      hits.increment();
+      return entry.value;
+    }
+  }
+
+  /**
+   * Get the value of a key, loading and caching it if it is not cached. The loader runs without holding a lock of the
+   * cache, so concurrent misses of the same key may load it more than once. Concurrent loads of a key share a load
+   * token, which an invalidation of the key withdraws, so their values are then not cached.
+   *
+   * @param key The key.
+   * @param loader Loads the value of the key, or returns null if it has none. Null values are not cached.
+   * @return The value, or null if the loader returned null.
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    Segment<K, V> segment = segmentFor(key);
+    LoadToken token;
+    synchronized (segment) {
+      token = segment.loads.computeIfAbsent(key, x -> new LoadToken());
+      token.loaders++;
+    }
+    try {
+      value = loader.apply(key);
+    } finally {
+      synchronized (segment) {
+        boolean valid = segment.loads.get(key) == token;
+        if (valid && value != null) {
+          segment.entries.put(key, new Entry<>(value, ticker.getAsLong()));
+        }
+        if (--token.loaders == 0 && valid) {
+          segment.loads.remove(key);
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Cache the value of a key, replacing the previous value.
+   *
+   * @param key The key.
+   * @param value The value.
+   */
+  public void put(K key, V value) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      segment.entries.put(key, new Entry<>(value, ticker.getAsLong()));
+    }
+  }
+
+  /**
+   * Remove the value of a key, and discard the values of its loads still running.
+   *
+   * @param key The key.
+   */
+  public void invalidate(K key) {
+    Segment<K, V> segment = segmentFor(key);
+    synchronized (segment) {
+      segment.loads.remove(key);
+      segment.entries.remove(key);
+    }
+  }
+
+  /**
+   * Remove all values, and discard the values of loads still running.
+   */
+  public void invalidateAll() {
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.loads.clear();
+        segment.entries.clear();
+      }
+    }
+  }
+
+  /**
+   * Remove the values of all keys matching a predicate, and discard the values of their loads still running.
+   *
+   * @param predicate Selects the keys to be removed.
+   */
+  public void invalidateAll(Predicate<? super K> predicate) {
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        segment.loads.keySet().removeIf(predicate);
+        segment.entries.keySet().removeIf(predicate);
+      }
+    }
+  }
+
+  /**
+   * Get the number of cached entries, including expired ones not yet removed.
+   *
+   * @return The number of entries.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      synchronized (segment) {
+        size += segment.entries.size();
+      }
+    }
+    return size;
+  }
+
+  private static final class Segment<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final Map<K, LoadToken> loads = new HashMap<>();
+
+    private Segment(int maximumSize, Counter evictions) {
+      entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+          if (size() <= maximumSize) {
+            return false;
+          }
+          evictions.increment();
+          return true;
+        }
+      };
+    }
+  }
+
+  private static final class LoadToken {
+
+    private int loaders;
+  }
+
+  private static final class Entry<V> {
+
+    private final V value;
+
+    private final long writtenAt;
+
+    private Entry(V value, long writtenAt) {
+      this.value = value;
+      this.writtenAt = writtenAt;
+    }
+  }
+
+}
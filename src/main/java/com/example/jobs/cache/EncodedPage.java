@@ -0,0 +1,20 @@
+package com.example.jobs.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Page of a list response already encoded as UTF-8 JSON, together with the headers describing it, so it can be written
+ * to any number of responses without being queried, assembled or serialized again.
+ */
+@Getter
+@AllArgsConstructor
+public class EncodedPage {
+
+  private final byte[] body;
+
+  private final String etag;
+
+  private final String nextCursor;
+
+}
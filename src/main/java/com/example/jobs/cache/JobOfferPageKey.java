@@ -0,0 +1,23 @@
+package com.example.jobs.cache;
+
+import com.example.jobs.domain.enums.JobOfferStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Key of a page of job offers in the page cache, made of the parameters of the request.
+ */
+@Data
+@AllArgsConstructor
+public class JobOfferPageKey {
+
+  private JobOfferStatus status;
+
+  private int limit;
+
+  private int offset;
+
+  private String cursor;
+
+}
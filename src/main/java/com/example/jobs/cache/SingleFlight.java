@@ -0,0 +1,100 @@
+package com.example.jobs.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Coalesces concurrent loads of the same key into one. The first caller of a key runs the load, and every caller
+ * arriving while it runs waits for it and gets the same result. A failed load throws its exception to the first
+ * caller, and a new CompletionException caused by it to every waiting caller, so no two callers share an exception
+ * instance. Nothing is kept once the load completed. Leading and coalesced calls are counted by the singleflight.calls
+ * metric, tagged with the name of the flight and the result leader or coalesced.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+  private final Counter leaders;
+
+  private final Counter coalesced;
+
+  /**
+   * Create a single flight.
+   *
+   * @param name The name of the flight, used as the tag of its metrics.
+   * @param meterRegistry The registry of the metrics.
+   */
+  public SingleFlight(String name, MeterRegistry meterRegistry) {
+    leaders = Counter.builder("singleflight.calls").tag("flight", name).tag("result", "leader")
+        .register(meterRegistry);
+    coalesced = Counter.builder("singleflight.calls").tag("flight", name).tag("result", "coalesced")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Load the value of a key, or wait for the load of the key already running.
+   *
+   * @param key The key.
+   * @param loader Loads the value of the key.
+   * @return The value returned by the loader.
+   * @throws CompletionException If the load of another caller was joined and failed.
+   */
+  public V load(K key, Function<? super K, ? extends V> loader) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+    if (running != null) {
+      coalesced.increment();
+      return await(running);
+    }
+    leaders.increment();
+    try {
+      V value = loader.apply(key);
+      flight.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(key, flight);
+    }
+  }
+
+  /**
+   * Stop sharing the running load of a key, so callers arriving from now on start a new load. Callers already waiting
+   * still get its result.
+   *
+   * @param key The key.
+   */
+  public void forget(K key) {
+    flights.remove(key);
+  }
+
+  /**
+   * Stop sharing the running loads of all keys matching a predicate.
+   *
+   * @param predicate Selects the keys to be forgotten.
+   */
+  public void forgetAll(Predicate<? super K> predicate) {
+    flights.keySet().removeIf(predicate);
+  }
+
+  private static <V> V await(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      // Callers may add suppressed exceptions or log the exception, so each one gets its own.
+      throw new CompletionException(e.getCause());
+    }
+  }
+
+}
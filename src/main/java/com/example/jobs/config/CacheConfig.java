@@ -0,0 +1,94 @@
+package com.example.jobs.config;
+
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.cache.EncodedPage;
+import com.example.jobs.cache.JobOfferPageKey;
+import com.example.jobs.cache.SingleFlight;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.UUID;
+
+@Configuration
+public class CacheConfig {
+
+  /**
+   * Cache of job offers by UUID, in front of the job offer lookups.
+   *
+   * @param properties The cache settings.
+   * @param meterRegistry The registry of the cache metrics.
+   * @return The job offer cache.
+   */
+  @Bean
+  public BoundedCache<UUID, JobOffer> jobOfferCache(CacheProperties properties, MeterRegistry meterRegistry) {
+    return new BoundedCache<>("jobOffers", properties.getJobOfferMaximumSize(),
+        properties.getJobOfferExpireAfterWriteMillis(), meterRegistry);
+  }
+
+  /**
+   * Cache of the encoded pages of the job offer list, in front of the list endpoint.
+   *
+   * @param properties The cache settings.
+   * @param meterRegistry The registry of the cache metrics.
+   * @return The job offer page cache.
+   */
+  @Bean
+  public BoundedCache<JobOfferPageKey, EncodedPage> jobOfferPageCache(CacheProperties properties,
+      MeterRegistry meterRegistry) {
+    return new BoundedCache<>("jobOfferPages", properties.getJobOfferPageMaximumSize(),
+        properties.getJobOfferPageExpireAfterWriteMillis(), meterRegistry);
+  }
+
+  /**
+   * Coalesces concurrent loads of the same job offer.
+   *
+   * @param meterRegistry The registry of the coalescing metrics.
+   * @return The single flight of job offer loads.
+   */
+  @Bean
+  public SingleFlight<UUID, JobOffer> jobOfferLoads(MeterRegistry meterRegistry) {
+    return new SingleFlight<>("jobOffers", meterRegistry);
+  }
+
+  /**
+   * Coalesces concurrent queries of the same job offer page.
+   *
+   * @param meterRegistry The registry of the coalescing metrics.
+   * @return The single flight of job offer page queries.
+   */
+  @Bean
+  public SingleFlight<JobOfferPageKey, List<JobOfferSummary>> jobOfferPageLoads(MeterRegistry meterRegistry) {
+    return new SingleFlight<>("jobOfferPages", meterRegistry);
+  }
+
+  /**
+   * Cache of the UUIDs known to have no job offer, answering repeated lookups of them without a query.
+   *
+   * @param properties The cache settings.
+   * @param meterRegistry The registry of the cache metrics.
+   * @return The cache of missing job offer UUIDs.
+   */
+  @Bean
+  public BoundedCache<UUID, Boolean> missingJobOffers(CacheProperties properties, MeterRegistry meterRegistry) {
+    return new BoundedCache<>("missingJobOffers", properties.getMissingIdMaximumSize(),
+        properties.getMissingIdExpireAfterWriteMillis(), meterRegistry);
+  }
+
+  /**
+   * Cache of the UUIDs known to have no job application, answering repeated lookups of them without a query.
+   *
+   * @param properties The cache settings.
+   * @param meterRegistry The registry of the cache metrics.
+   * @return The cache of missing job application UUIDs.
+   */
+  @Bean
+  public BoundedCache<UUID, Boolean> missingJobApplications(CacheProperties properties, MeterRegistry meterRegistry) {
+    return new BoundedCache<>("missingJobApplications", properties.getMissingIdMaximumSize(),
+        properties.getMissingIdExpireAfterWriteMillis(), meterRegistry);
+  }
+
+}
@@ -0,0 +1,46 @@
+package com.example.jobs.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Settings of the in-process caches, bound from the cache.* properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+  /**
+   * Maximum number of job offers kept by the job offer cache. The least recently used job offer is evicted first.
+   */
+  private int jobOfferMaximumSize = 10000;
+
+  /**
+   * How long a job offer is kept after it was loaded. Bounds how long a change made by another instance goes unseen.
+   */
+  private long jobOfferExpireAfterWriteMillis = 60000;
+
+  /**
+   * Maximum number of encoded job offer pages kept by the page cache. The least recently used page is evicted first.
+   */
+  private int jobOfferPageMaximumSize = 256;
+
+  /**
+   * How long an encoded job offer page is kept after it was rendered.
+   */
+  private long jobOfferPageExpireAfterWriteMillis = 5000;
+
+  /**
+   * Maximum number of UUIDs remembered as missing, separately for job offers and job applications.
+   */
+  private int missingIdMaximumSize = 50000;
+
+  /**
+   * How long a UUID is remembered as missing. Bounds how long an entity created by another instance stays unseen.
+   */
+  private long missingIdExpireAfterWriteMillis = 60000;
+
+}
@@ -0,0 +1,126 @@
+package com.example.jobs.config;
+
+import com.example.jobs.notification.BackpressurePolicy;
+import com.example.jobs.notification.PayloadEncoding;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Settings of the notification publisher, bound from the notification.* properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification")
+public class NotificationProperties {
+
+  /**
+   * Whether events are handed to a drain thread instead of being shipped on the calling thread. Cannot be combined
+   * with the outbox.
+   */
+  private boolean async = false;
+
+  /**
+   * Capacity of the event buffer. Rounded up to the next power of two.
+   */
+  private int bufferSize = 1024;
+
+  /**
+   * Maximum number of events shipped to the sink at once.
+   */
+  private int batchSize = 100;
+
+  /**
+   * How long the drain thread waits for new events when the buffer is empty.
+   */
+  private long drainIntervalMillis = 10;
+
+  /**
+   * What to do when the buffer is full.
+   */
+  private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+  /**
+   * How long the BLOCK policy waits for room in the buffer before the events are rejected like with FAIL.
+   */
+  private long blockTimeoutMillis = 1000;
+
+  /**
+   * Whether events are written to the outbox table in the caller's transaction and relayed after commit. Cannot be
+   * combined with the asynchronous mode.
+   */
+  private boolean outbox = false;
+
+  /**
+   * Maximum number of outbox events relayed to the sink at once.
+   */
+  private int relayBatchSize = 500;
+
+  /**
+   * Pause between two relay runs.
+   */
+  private long relayIntervalMillis = 200;
+
+  /**
+   * How long delivered outbox events are kept before they are deleted.
+   */
+  private long outboxRetentionHours = 24;
+
+  /**
+   * Whether events are appended to the local event journal instead of being logged.
+   */
+  private boolean journal = false;
+
+  /**
+   * Directory of the journal segment files.
+   */
+  private String journalDirectory = "journal";
+
+  /**
+   * Size of a journal segment file in bytes.
+   */
+  private int journalSegmentSize = 64 * 1024 * 1024;
+
+  /**
+   * Pause between two writes of the journal to disk.
+   */
+  private long journalFsyncIntervalMillis = 1000;
+
+  /**
+   * Number of bytes of the most recent events kept in the journal. Older segments are deleted once all of their events
+   * are past the retention.
+   */
+  private long journalRetentionBytes = 1024L * 1024 * 1024;
+
+  /**
+   * How the payload of an event is encoded into its event data.
+   */
+  private PayloadEncoding payloadEncoding = PayloadEncoding.JSON;
+
+  /**
+   * Maximum number of events queued for an event stream subscriber before it is evicted.
+   */
+  private int streamBufferSize = 256;
+
+  /**
+   * Number of recent events kept for event stream subscribers resuming after a reconnect.
+   */
+  private int streamReplaySize = 1024;
+
+  /**
+   * Number of threads writing events to the event stream subscribers.
+   */
+  private int streamThreads = 2;
+
+  /**
+   * How long an event stream subscription stays open before the client has to reconnect.
+   */
+  private long streamTimeoutMillis = 30 * 60 * 1000;
+
+  /**
+   * Pause between two heartbeats sent to idle event stream subscribers.
+   */
+  private long streamHeartbeatMillis = 15000;
+
+}
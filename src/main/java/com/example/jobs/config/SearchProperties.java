@@ -0,0 +1,23 @@
+package com.example.jobs.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Settings of the job offer search index, bound from the search.* properties. The refresh interval is read by the
+ * scheduler from search.refresh-interval-millis.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "search")
+public class SearchProperties {
+
+  /**
+   * How long, by the clock of the database, a change has to be old before a refresh moves past it. Changes of the last
+   * moment are read again by the next refresh, so one committing late with an earlier update time is not skipped.
+   */
+  private long settleMillis = 1000;
+
+}
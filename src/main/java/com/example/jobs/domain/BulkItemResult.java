@@ -0,0 +1,44 @@
+package com.example.jobs.domain;
+
+import com.example.jobs.domain.enums.BulkItemStatus;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item of a bulk request. The index is the position of the item in the request body.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResult {
+
+  private int index;
+
+  private UUID id;
+
+  private BulkItemStatus status;
+
+  private String message;
+
+  /**
+   * Build the result of an item which was rejected.
+   *
+   * @param index The position of the item in the request.
+   * @param message The reason of the rejection.
+   * @return The result.
+   */
+  public static BulkItemResult rejected(int index, String message) {
+    return new BulkItemResult(index, null, BulkItemStatus.REJECTED, message);
+  }
+
+}
@@ -0,0 +1,67 @@
+package com.example.jobs.domain;
+
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.projection.JobApplicationChange;
+import com.example.jobs.domain.projection.JobOfferSummary;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changed job offer or job application in the change feed. Exactly one of the two views is set.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Change {
+
+  private EventType eventType;
+
+  private JobOfferSummary jobOffer;
+
+  private JobApplicationChange jobApplication;
+
+  /**
+   * Build the change of a job offer.
+   *
+   * @param jobOffer The changed job offer.
+   * @return The change.
+   */
+  public static Change of(JobOfferSummary jobOffer) {
+    return Change.builder().eventType(EventType.JOB_OFFER).jobOffer(jobOffer).build();
+  }
+
+  /**
+   * Build the change of a job application.
+   *
+   * @param jobApplication The changed job application.
+   * @return The change.
+   */
+  public static Change of(JobApplicationChange jobApplication) {
+    return Change.builder().eventType(EventType.JOB_APPLICATION).jobApplication(jobApplication).build();
+  }
+
+  /**
+   * Get the time of the change.
+   *
+   * @return The update time of the changed job offer or job application.
+   */
+  public Date getUpdatedTime() {
+    return jobOffer != null ? jobOffer.getUpdatedTime() : jobApplication.getUpdatedTime();
+  }
+
+  /**
+   * Get the internal id of the changed job offer or job application.
+   *
+   * @return The internal id.
+   */
+  public Long getInternalId() {
+    return jobOffer != null ? jobOffer.getInternalId() : jobApplication.getInternalId();
+  }
+
+}
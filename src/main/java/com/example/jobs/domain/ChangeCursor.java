@@ -0,0 +1,84 @@
+package com.example.jobs.domain;
+
+import com.example.jobs.domain.enums.EventType;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position in the change feed. Job offers and job applications are read from separate tables, so the cursor keeps one
+ * (updated time, internal id) position per table. Clients only ever see the opaque encoded form.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeCursor {
+
+  private static final String SEPARATOR = ".";
+
+  private PageCursor jobOffers;
+
+  private PageCursor jobApplications;
+
+  /**
+   * Build the cursor pointing at the start of the change feed.
+   *
+   * @return The cursor.
+   */
+  public static ChangeCursor start() {
+    return new ChangeCursor(PageCursor.of(new Date(0), 0L), PageCursor.of(new Date(0), 0L));
+  }
+
+  /**
+   * Build the cursor pointing right after the given changes.
+   *
+   * @param changes The changes returned for this cursor, in order.
+   * @return The cursor.
+   */
+  public ChangeCursor after(List<Change> changes) {
+    ChangeCursor cursor = new ChangeCursor(jobOffers, jobApplications);
+    for (Change change : changes) {
+      PageCursor position = PageCursor.of(change.getUpdatedTime(), change.getInternalId());
+      if (change.getEventType() == EventType.JOB_OFFER) {
+        cursor.jobOffers = position;
+      } else {
+        cursor.jobApplications = position;
+      }
+    }
+    return cursor;
+  }
+
+  /**
+   * Encode the cursor into an opaque URL safe string.
+   *
+   * @return The encoded cursor.
+   */
+  public String encode() {
+    return jobOffers.encode() + SEPARATOR + jobApplications.encode();
+  }
+
+  /**
+   * Decode an opaque cursor. Throws Bad Request Exception if the cursor is malformed.
+   *
+   * @param cursor The encoded cursor.
+   * @return The decoded cursor, or the start of the change feed if the cursor is empty.
+   */
+  public static ChangeCursor decode(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return start();
+    }
+    int index = cursor.indexOf(SEPARATOR);
+    if (index < 1 || index == cursor.length() - 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The specified cursor is not valid.");
+    }
+    return new ChangeCursor(PageCursor.decode(cursor.substring(0, index)),
+        PageCursor.decode(cursor.substring(index + 1)));
+  }
+
+}
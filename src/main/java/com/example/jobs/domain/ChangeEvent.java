@@ -0,0 +1,37 @@
+package com.example.jobs.domain;
+
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.enums.PublishStatus;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change of a job offer or application as streamed to the subscribers of the event stream.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEvent {
+
+  private UUID id;
+
+  private EventType eventType;
+
+  private PublishStatus status;
+
+  private Date txnTime;
+
+  private EventPayload payload;
+
+}
@@ -0,0 +1,95 @@
+package com.example.jobs.domain;
+
+import com.example.jobs.domain.enums.PublishStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Structured data of an event. It only carries the identifiers and the fields set by the change, all other fields are
+ * null. Consumers should check the schema version before reading the fields.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventPayload {
+
+  public static final int SCHEMA_VERSION = 1;
+
+  private int schemaVersion;
+
+  private UUID id;
+
+  private UUID jobOfferId;
+
+  private String status;
+
+  private String candidateEmail;
+
+  private String jobTitle;
+
+  private String location;
+
+  private String startDate;
+
+  private Integer vacancies;
+
+  private Long time;
+
+  /**
+   * Build the payload of an event about a job application.
+   *
+   * @param application The created or updated job application.
+   * @param status Whether the job application was created or updated.
+   * @return The payload.
+   */
+  public static EventPayload of(JobApplication application, PublishStatus status) {
+    EventPayload.EventPayloadBuilder builder = EventPayload.builder()
+        .schemaVersion(SCHEMA_VERSION)
+        .id(application.getId())
+        .jobOfferId(application.getJobOffer() == null ? null : application.getJobOffer().getId())
+        .status(application.getApplicationStatus() == null ? null : application.getApplicationStatus().name());
+    if (status == PublishStatus.CREATED) {
+      return builder
+          .candidateEmail(application.getCandidateEmail())
+          .time(toMillis(application.getCreatedTime()))
+          .build();
+    }
+    return builder.time(toMillis(application.getUpdatedTime())).build();
+  }
+
+  /**
+   * Build the payload of an event about a job offer.
+   *
+   * @param offer The created or updated job offer.
+   * @param status Whether the job offer was created or updated.
+   * @return The payload.
+   */
+  public static EventPayload of(JobOffer offer, PublishStatus status) {
+    EventPayload.EventPayloadBuilder builder = EventPayload.builder()
+        .schemaVersion(SCHEMA_VERSION)
+        .id(offer.getId())
+        .status(offer.getJobOfferStatus() == null ? null : offer.getJobOfferStatus().name());
+    if (status == PublishStatus.CREATED) {
+      return builder
+          .jobTitle(offer.getJobTitle())
+          .location(offer.getLocation())
+          .startDate(offer.getStartDate())
+          .vacancies(offer.getVacancies())
+          .time(toMillis(offer.getCreatedTime()))
+          .build();
+    }
+    return builder.time(toMillis(offer.getUpdatedTime())).build();
+  }
+
+  private static Long toMillis(Date date) {
+    return date == null ? null : date.getTime();
+  }
+
+}
@@ -22,6 +22,7 @@ import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -45,7 +46,9 @@ public class JobApplication {
 
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_applications_generator")
-  @SequenceGenerator(name = "job_applications_generator", sequenceName = "job_applications_seq")
+  // Pooled ids: the sequence is incremented by the allocation size, see job_applications_seq in Liquibase.
+  @SequenceGenerator(name = "job_applications_generator", sequenceName = "job_applications_seq", initialValue = 100,
+      allocationSize = 50)
   @Column(name = "internal_id", updatable = false, nullable = false)
   private Long internalId;
 
@@ -76,4 +79,9 @@ public class JobApplication {
   @JsonIgnore
   private Date updatedTime;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  @JsonIgnore
+  private Long version;
+
 }
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import javax.persistence.Column;
@@ -19,10 +20,12 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -46,7 +49,9 @@ public class JobOffer {
 
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_offers_generator")
-  @SequenceGenerator(name = "job_offers_generator", sequenceName = "job_offers_seq")
+  // Pooled ids: the sequence is incremented by the allocation size, see job_offers_seq in Liquibase.
+  @SequenceGenerator(name = "job_offers_generator", sequenceName = "job_offers_seq", initialValue = 100,
+      allocationSize = 50)
   @Column(name = "internal_id", nullable = false)
   private Long internalId;
 
@@ -56,6 +61,10 @@ public class JobOffer {
   @Column(name = "job_title", nullable = false)
   private String jobTitle;
 
+  @Column(name = "job_title_normalized", nullable = false, updatable = false)
+  @JsonIgnore
+  private String normalizedJobTitle;
+
   @Column(name = "job_description", nullable = false)
   private String jobDescription;
 
@@ -72,6 +81,13 @@ public class JobOffer {
   @Column(name = "vacancies", nullable = false)
   private int vacancies;
 
+  // The counters are maintained by atomic updates in the database and are never written back from the entity.
+  @Column(name = "applications_count", nullable = false, updatable = false)
+  private int applicationsCount;
+
+  @Column(name = "hired_count", nullable = false, updatable = false)
+  private int hiredCount;
+
   @OneToMany(fetch = FetchType.LAZY)
   @JoinColumn(name = "job_offers_internal_id")
   private List<JobApplication> applications;
@@ -86,4 +102,24 @@ public class JobOffer {
   @JsonIgnore
   private Date updatedTime;
 
+  @Version
+  @Column(name = "version", nullable = false)
+  @JsonIgnore
+  private Long version;
+
+  /**
+   * Normalize a job title for the case insensitive uniqueness check.
+   *
+   * @param jobTitle The job title.
+   * @return The normalized job title.
+   */
+  public static String normalizeJobTitle(String jobTitle) {
+    return jobTitle == null ? null : jobTitle.trim().toLowerCase(Locale.ROOT);
+  }
+
+  @PrePersist
+  private void prePersist() {
+    normalizedJobTitle = normalizeJobTitle(jobTitle);
+  }
+
 }
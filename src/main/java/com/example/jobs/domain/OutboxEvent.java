@@ -0,0 +1,101 @@
+package com.example.jobs.domain;
+
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.enums.PublishStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event written in the same transaction as the change it describes, and relayed to the notification sink after the
+ * transaction committed.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_generator")
+  @SequenceGenerator(name = "outbox_events_generator", sequenceName = "outbox_events_seq", allocationSize = 50)
+  @Column(name = "internal_id", updatable = false, nullable = false)
+  private Long internalId;
+
+  @Column(name = "event_id", updatable = false, nullable = false)
+  private UUID eventId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "publish_status", updatable = false, nullable = false)
+  private PublishStatus status;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "event_type", updatable = false, nullable = false)
+  private EventType eventType;
+
+  @Column(name = "event_data", updatable = false)
+  private String eventData;
+
+  @Column(name = "txn_time", updatable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date txnTime;
+
+  @Column(name = "created_time", updatable = false, nullable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date createdTime;
+
+  @Column(name = "delivered_time")
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date deliveredTime;
+
+  /**
+   * Build the outbox row of an event.
+   *
+   * @param event The event to be relayed.
+   * @return The outbox event.
+   */
+  public static OutboxEvent of(PublishEvent event) {
+    return OutboxEvent.builder()
+        .eventId(event.getId())
+        .status(event.getStatus())
+        .eventType(event.getEventType())
+        .eventData(event.getEventData())
+        .txnTime(event.getTxnTime())
+        .createdTime(new Date())
+        .build();
+  }
+
+  /**
+   * Convert the outbox row back to the event it holds.
+   *
+   * @return The event.
+   */
+  public PublishEvent toPublishEvent() {
+    return PublishEvent.builder()
+        .id(eventId)
+        .status(status)
+        .eventType(eventType)
+        .eventData(eventData)
+        .txnTime(txnTime)
+        .build();
+  }
+
+}
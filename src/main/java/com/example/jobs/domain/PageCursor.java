@@ -0,0 +1,71 @@
+package com.example.jobs.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position in a list ordered by (timestamp, internal id). Clients only ever see the opaque encoded form.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageCursor {
+
+  private static final String SEPARATOR = ":";
+
+  private Date timestamp;
+
+  private Long internalId;
+
+  /**
+   * Build the cursor pointing right after the given row.
+   *
+   * @param timestamp The ordering timestamp of the row.
+   * @param internalId The internal id of the row.
+   * @return The cursor.
+   */
+  public static PageCursor of(Date timestamp, Long internalId) {
+    return new PageCursor(timestamp, internalId);
+  }
+
+  /**
+   * Encode the cursor into an opaque URL safe string.
+   *
+   * @return The encoded cursor.
+   */
+  public String encode() {
+    String value = timestamp.getTime() + SEPARATOR + internalId;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode an opaque cursor. Throws Bad Request Exception if the cursor is malformed.
+   *
+   * @param cursor The encoded cursor.
+   * @return The decoded cursor, or null if the cursor is empty.
+   */
+  public static PageCursor decode(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int index = value.indexOf(SEPARATOR);
+      return new PageCursor(new Date(Long.parseLong(value.substring(0, index))),
+          Long.valueOf(value.substring(index + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The specified cursor is not valid.");
+    }
+  }
+
+}
@@ -3,6 +3,7 @@ package com.example.jobs.domain;
 import com.example.jobs.domain.enums.EventType;
 import com.example.jobs.domain.enums.PublishStatus;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.Date;
@@ -29,6 +30,12 @@ public class PublishEvent {
 
   private String eventData;
 
+  /**
+   * Structured data of the event, encoded into the event data by the publisher.
+   */
+  @JsonIgnore
+  private EventPayload payload;
+
   private Date txnTime;
 
 }
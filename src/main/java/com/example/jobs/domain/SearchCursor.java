@@ -0,0 +1,77 @@
+package com.example.jobs.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position in a list of search results ordered by descending score and ascending internal id. The scores depend on the
+ * job offers in the index, so the cursor keeps the generation of the index the first page was scored in, and the next
+ * pages are scored in the same one. Clients only ever see the opaque encoded form.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchCursor {
+
+  private static final String SEPARATOR = ":";
+
+  private double score;
+
+  private Long internalId;
+
+  private int generation;
+
+  /**
+   * Build the cursor pointing right after the given search result.
+   *
+   * @param score The score of the search result.
+   * @param internalId The internal id of the job offer found.
+   * @param generation The generation of the index the score was computed in.
+   * @return The cursor.
+   */
+  public static SearchCursor of(double score, Long internalId, int generation) {
+    return new SearchCursor(score, internalId, generation);
+  }
+
+  /**
+   * Encode the cursor into an opaque URL safe string.
+   *
+   * @return The encoded cursor.
+   */
+  public String encode() {
+    // The exact bits of the score are kept, so the result the cursor was taken from compares equal to it.
+    String value = Long.toHexString(Double.doubleToLongBits(score)) + SEPARATOR + generation + SEPARATOR + internalId;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decode an opaque cursor. Throws Bad Request Exception if the cursor is malformed.
+   *
+   * @param cursor The encoded cursor.
+   * @return The decoded cursor, or null if the cursor is empty.
+   */
+  public static SearchCursor decode(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int first = value.indexOf(SEPARATOR);
+      int last = value.lastIndexOf(SEPARATOR);
+      return new SearchCursor(Double.longBitsToDouble(Long.parseUnsignedLong(value.substring(0, first), 16)),
+          Long.valueOf(value.substring(last + 1)), Integer.parseInt(value.substring(first + 1, last)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The specified cursor is not valid.");
+    }
+  }
+
+}
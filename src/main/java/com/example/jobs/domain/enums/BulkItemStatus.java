@@ -0,0 +1,7 @@
+package com.example.jobs.domain.enums;
+
+public enum BulkItemStatus {
+
+  CREATED, UPDATED, REJECTED
+
+}
@@ -0,0 +1,27 @@
+package com.example.jobs.domain.projection;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read only view of the version of an entity, enough to validate a cached representation of it without loading the
+ * entity itself.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntityVersion {
+
+  private UUID id;
+
+  private Long version;
+
+  private Date updatedTime;
+
+}
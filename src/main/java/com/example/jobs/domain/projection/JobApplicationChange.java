@@ -0,0 +1,37 @@
+package com.example.jobs.domain.projection;
+
+import com.example.jobs.domain.enums.JobApplicationStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read only view of a changed job application, including the job offer it belongs to. Selected with a constructor
+ * expression, so it is never tracked by the persistence context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobApplicationChange {
+
+  private Long internalId;
+
+  private UUID id;
+
+  private UUID jobOfferId;
+
+  private String candidateEmail;
+
+  private String resumeText;
+
+  private JobApplicationStatus applicationStatus;
+
+  private Date updatedTime;
+
+}
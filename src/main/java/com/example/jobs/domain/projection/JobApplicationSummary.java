@@ -0,0 +1,39 @@
+package com.example.jobs.domain.projection;
+
+import com.example.jobs.domain.enums.JobApplicationStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read only view of a job application holding exactly the columns needed to render it. Selected with a constructor
+ * expression, so it is never tracked by the persistence context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobApplicationSummary {
+
+  private Long internalId;
+
+  private UUID id;
+
+  private String candidateEmail;
+
+  private String resumeText;
+
+  private JobApplicationStatus applicationStatus;
+
+  private Date createdTime;
+
+  private Date updatedTime;
+
+  private Long version;
+
+}
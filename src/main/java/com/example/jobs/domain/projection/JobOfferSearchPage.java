@@ -0,0 +1,29 @@
+package com.example.jobs.domain.projection;
+
+import com.example.jobs.domain.SearchCursor;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page of job offers found by a search, with the cursor of the next page. The cursor is taken from the last hit of the
+ * index, so a job offer found in the index but not in the database doesn't end the paging early.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobOfferSearchPage {
+
+  private List<JobOfferSearchResult> results;
+
+  /**
+   * The position after the last hit of a full page, or null if there are no more hits.
+   */
+  private SearchCursor nextCursor;
+
+}
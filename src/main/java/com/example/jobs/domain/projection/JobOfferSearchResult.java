@@ -0,0 +1,21 @@
+package com.example.jobs.domain.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Job offer found by a search, together with the score it was ranked by.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobOfferSearchResult {
+
+  private JobOfferSummary jobOffer;
+
+  private double score;
+
+}
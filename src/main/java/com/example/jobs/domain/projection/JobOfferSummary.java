@@ -0,0 +1,47 @@
+package com.example.jobs.domain.projection;
+
+import com.example.jobs.domain.enums.JobOfferStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read only view of a job offer holding exactly the columns needed to render it. Selected with a constructor
+ * expression, so it is never tracked by the persistence context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobOfferSummary {
+
+  private Long internalId;
+
+  private UUID id;
+
+  private String jobTitle;
+
+  private String jobDescription;
+
+  private String location;
+
+  private JobOfferStatus jobOfferStatus;
+
+  private String startDate;
+
+  private int vacancies;
+
+  private int applicationsCount;
+
+  private Date createdTime;
+
+  private Date updatedTime;
+
+  private Long version;
+
+}
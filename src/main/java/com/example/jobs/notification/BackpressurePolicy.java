@@ -0,0 +1,23 @@
+package com.example.jobs.notification;
+
+/**
+ * What the asynchronous publisher does when its buffer is full.
+ */
+public enum BackpressurePolicy {
+
+  /**
+   * Wait until the drain thread makes room.
+   */
+  BLOCK,
+
+  /**
+   * Discard the event and count it as dropped.
+   */
+  DROP,
+
+  /**
+   * Reject the event, which fails the calling request.
+   */
+  FAIL
+
+}
@@ -0,0 +1,149 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.EventPayload;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Encodes payloads as binary records: the schema version, a bit set of the fields present and then the present fields
+ * in a fixed order. UUIDs take 16 bytes and strings are written as length-prefixed UTF-8.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification", name = "payload-encoding", havingValue = "BINARY")
+public class BinaryEventPayloadEncoder implements EventPayloadEncoder {
+
+  private static final int ID = 1;
+
+  private static final int JOB_OFFER_ID = 1 << 1;
+
+  private static final int STATUS = 1 << 2;
+
+  private static final int CANDIDATE_EMAIL = 1 << 3;
+
+  private static final int JOB_TITLE = 1 << 4;
+
+  private static final int LOCATION = 1 << 5;
+
+  private static final int START_DATE = 1 << 6;
+
+  private static final int VACANCIES = 1 << 7;
+
+  private static final int TIME = 1 << 8;
+
+  public byte[] encode(EventPayload payload) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(payload.getSchemaVersion());
+      out.writeShort(fieldsOf(payload));
+      if (payload.getId() != null) {
+        writeUuid(out, payload.getId());
+      }
+      if (payload.getJobOfferId() != null) {
+        writeUuid(out, payload.getJobOfferId());
+      }
+      writeString(out, payload.getStatus());
+      writeString(out, payload.getCandidateEmail());
+      writeString(out, payload.getJobTitle());
+      writeString(out, payload.getLocation());
+      writeString(out, payload.getStartDate());
+      if (payload.getVacancies() != null) {
+        out.writeInt(payload.getVacancies());
+      }
+      if (payload.getTime() != null) {
+        out.writeLong(payload.getTime());
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to encode event payload", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  public EventPayload decode(byte[] data) {
+    EventPayload payload = new EventPayload();
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+      payload.setSchemaVersion(in.readUnsignedByte());
+      if (payload.getSchemaVersion() != EventPayload.SCHEMA_VERSION) {
+        throw new IllegalArgumentException("Event payload version " + payload.getSchemaVersion()
+            + " is not supported.");
+      }
+      int fields = in.readUnsignedShort();
+      if ((fields & ID) != 0) {
+        payload.setId(readUuid(in));
+      }
+      if ((fields & JOB_OFFER_ID) != 0) {
+        payload.setJobOfferId(readUuid(in));
+      }
+      if ((fields & STATUS) != 0) {
+        payload.setStatus(in.readUTF());
+      }
+      if ((fields & CANDIDATE_EMAIL) != 0) {
+        payload.setCandidateEmail(in.readUTF());
+      }
+      if ((fields & JOB_TITLE) != 0) {
+        payload.setJobTitle(in.readUTF());
+      }
+      if ((fields & LOCATION) != 0) {
+        payload.setLocation(in.readUTF());
+      }
+      if ((fields & START_DATE) != 0) {
+        payload.setStartDate(in.readUTF());
+      }
+      if ((fields & VACANCIES) != 0) {
+        payload.setVacancies(in.readInt());
+      }
+      if ((fields & TIME) != 0) {
+        payload.setTime(in.readLong());
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Event payload is truncated.", e);
+    }
+    return payload;
+  }
+
+  public String encodeToText(EventPayload payload) {
+    return Base64.getEncoder().encodeToString(encode(payload));
+  }
+
+  public EventPayload decodeText(String text) {
+    return decode(Base64.getDecoder().decode(text));
+  }
+
+  private static int fieldsOf(EventPayload payload) {
+    int fields = 0;
+    fields |= payload.getId() != null ? ID : 0;
+    fields |= payload.getJobOfferId() != null ? JOB_OFFER_ID : 0;
+    fields |= payload.getStatus() != null ? STATUS : 0;
+    fields |= payload.getCandidateEmail() != null ? CANDIDATE_EMAIL : 0;
+    fields |= payload.getJobTitle() != null ? JOB_TITLE : 0;
+    fields |= payload.getLocation() != null ? LOCATION : 0;
+    fields |= payload.getStartDate() != null ? START_DATE : 0;
+    fields |= payload.getVacancies() != null ? VACANCIES : 0;
+    fields |= payload.getTime() != null ? TIME : 0;
+    return fields;
+  }
+
+  private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+    out.writeLong(uuid.getMostSignificantBits());
+    out.writeLong(uuid.getLeastSignificantBits());
+  }
+
+  private static UUID readUuid(DataInputStream in) throws IOException {
+    return new UUID(in.readLong(), in.readLong());
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value != null) {
+      out.writeUTF(value);
+    }
+  }
+
+}
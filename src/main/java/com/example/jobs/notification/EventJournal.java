@@ -0,0 +1,368 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.PublishEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of events, split into memory-mapped segment files. Every record is written as its length, a
+ * CRC32 checksum of the encoded event and the encoded event itself. A record is addressed by its offset, which is the
+ * number of bytes written to the journal before it, so offsets keep growing across segments. A new segment is started
+ * once the next record doesn't fit into the current one anymore. Sealed segments before a given offset are dropped and
+ * their files deleted by truncateBefore, so the journal only grows as far as its retention allows.
+ *
+ * <p>Appends, flushes and truncations are serialized, while any number of threads can replay the journal at the same
+ * time. A replay holds a reference on the segment it reads, and a dropped segment is only unmapped and deleted once
+ * its last reference is released.
+ */
+public class EventJournal implements Closeable {
+
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private static final int HEADER_SIZE = 8;
+
+  private final Path directory;
+
+  private final int segmentSize;
+
+  private final ObjectMapper objectMapper;
+
+  private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+  private volatile Segment active;
+
+  private volatile long flushedOffset;
+
+  /**
+   * Open the journal in the given directory, or create it if it doesn't exist yet. The last segment is scanned to
+   * find the end of the journal, dropping a record which was only partially written.
+   *
+   * @param directory The directory of the segment files.
+   * @param segmentSize The size of a new segment file in bytes.
+   * @param objectMapper The mapper used to encode and decode the events.
+   * @throws IOException If the segment files cannot be opened.
+   */
+  public EventJournal(Path directory, int segmentSize, ObjectMapper objectMapper) throws IOException {
+    if (segmentSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("Segment size must be larger than " + HEADER_SIZE + " bytes.");
+    }
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.objectMapper = objectMapper;
+    Files.createDirectories(directory);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        segments.put(baseOffset, new Segment(baseOffset, file, map(file, 0)));
+      }
+    }
+    if (segments.isEmpty()) {
+      segments.put(0L, new Segment(0, segmentFile(0), map(segmentFile(0), segmentSize)));
+    }
+    // A sealed segment ends where the next one starts, only the last one has to be scanned.
+    Segment previous = null;
+    for (Segment segment : segments.values()) {
+      if (previous != null) {
+        previous.limit = (int) (segment.baseOffset - previous.baseOffset);
+      }
+      previous = segment;
+    }
+    previous.limit = recover(previous.buffer);
+    active = previous;
+    flushedOffset = active.end();
+  }
+
+  /**
+   * Append events to the journal, in the given order.
+   *
+   * @param events The events to be appended.
+   * @return The offset after the last appended event.
+   * @throws IOException If an event cannot be encoded or a new segment cannot be created.
+   */
+  public synchronized long append(List<PublishEvent> events) throws IOException {
+    for (PublishEvent event : events) {
+      byte[] payload = objectMapper.writeValueAsBytes(event);
+      int recordSize = HEADER_SIZE + payload.length;
+      if (recordSize > segmentSize) {
+        throw new IllegalArgumentException("Event of " + payload.length + " bytes doesn't fit into a segment.");
+      }
+      Segment segment = active;
+      if (segment.limit + recordSize > segment.buffer.capacity()) {
+        segment = roll();
+      }
+      int position = segment.limit;
+      CRC32 checksum = new CRC32();
+      checksum.update(payload);
+      ByteBuffer view = segment.buffer.duplicate();
+      view.position(position + HEADER_SIZE);
+      view.put(payload);
+      segment.buffer.putInt(position + 4, (int) checksum.getValue());
+      segment.buffer.putInt(position, payload.length);
+      // Publishes the record to the readers.
+      segment.limit = position + recordSize;
+    }
+    return active.end();
+  }
+
+  /**
+   * Read the events from the given offset on, in the order they were appended.
+   *
+   * @param fromOffset The offset of the first event, 0 or an offset returned by a previous call.
+   * @param maxEvents The maximum number of events to be read.
+   * @param consumer Receives every event together with its offset.
+   * @return The offset after the last event read, to continue from.
+   * @throws IOException If a record is corrupt or cannot be decoded.
+   */
+  public long replay(long fromOffset, int maxEvents, ObjLongConsumer<PublishEvent> consumer) throws IOException {
+    Map.Entry<Long, Segment> entry = segments.floorEntry(fromOffset);
+    if (entry == null || fromOffset > entry.getValue().end()) {
+      throw new IllegalArgumentException("Offset " + fromOffset + " is outside of the journal.");
+    }
+    long offset = fromOffset;
+    int count = 0;
+    while (entry != null && count < maxEvents) {
+      Segment segment = entry.getValue();
+      if (!segment.acquire()) {
+        throw new IllegalArgumentException("Offset " + offset + " is no longer in the journal.");
+      }
+      try {
+        int limit = segment.limit;
+        int position = (int) (offset - segment.baseOffset);
+        ByteBuffer view = segment.buffer.duplicate();
+        while (position < limit && count < maxEvents) {
+          int length = view.getInt(position);
+          view.limit(position + HEADER_SIZE + length).position(position + HEADER_SIZE);
+          ByteBuffer payload = view.slice();
+          view.clear();
+          if (checksum(payload.duplicate()) != view.getInt(position + 4)) {
+            throw new IOException("Journal record at offset " + offset + " is corrupt.");
+          }
+          consumer.accept(objectMapper.readValue(new ByteBufferBackedInputStream(payload), PublishEvent.class), offset);
+          position += HEADER_SIZE + length;
+          offset = segment.baseOffset + position;
+          count++;
+        }
+        if (position < limit) {
+          break;
+        }
+      } finally {
+        segment.release();
+      }
+      entry = segments.higherEntry(segment.baseOffset);
+      if (entry != null && entry.getKey() != offset) {
+        throw new IllegalArgumentException("Offset " + offset + " is no longer in the journal.");
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Write the appended events to disk if there are any since the last call. Sealed segments are written to disk when
+   * the next segment is started.
+   */
+  public synchronized void flush() {
+    Segment segment = active;
+    long end = segment.end();
+    if (end != flushedOffset) {
+      segment.buffer.force();
+      flushedOffset = end;
+    }
+  }
+
+  /**
+   * Drop the sealed segments which end at or before the given offset, then unmap and delete them. The active segment
+   * is always kept. A segment still read by a replay is unmapped and deleted once the replay is done with it.
+   *
+   * @param offset The offset before which events may be dropped.
+   * @return The number of segments dropped.
+   * @throws IOException If a segment file cannot be deleted.
+   */
+  public synchronized int truncateBefore(long offset) throws IOException {
+    int dropped = 0;
+    for (Segment segment : segments.values()) {
+      if (segment == active || segment.end() > offset) {
+        break;
+      }
+      segments.remove(segment.baseOffset);
+      try {
+        segment.release();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      dropped++;
+    }
+    return dropped;
+  }
+
+  /**
+   * Get the offset of the first event still in the journal.
+   *
+   * @return The offset.
+   */
+  public long getStartOffset() {
+    return segments.firstKey();
+  }
+
+  /**
+   * Get the offset the next event will be appended at.
+   *
+   * @return The offset.
+   */
+  public long getEndOffset() {
+    return active.end();
+  }
+
+  /**
+   * Write the appended events to disk. The segments stay mapped until the journal is garbage collected.
+   */
+  @Override
+  public synchronized void close() {
+    active.buffer.force();
+  }
+
+  private Segment roll() throws IOException {
+    Segment sealed = active;
+    sealed.buffer.force();
+    long baseOffset = sealed.end();
+    Segment segment = new Segment(baseOffset, segmentFile(baseOffset), map(segmentFile(baseOffset), segmentSize));
+    segments.put(baseOffset, segment);
+    active = segment;
+    flushedOffset = baseOffset;
+    return segment;
+  }
+
+  private Path segmentFile(long baseOffset) {
+    return directory.resolve(String.format("%020d%s", baseOffset, SEGMENT_SUFFIX));
+  }
+
+  private static MappedByteBuffer map(Path file, int size) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      // The mapping stays valid after the channel is closed.
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+    }
+  }
+
+  private static int recover(MappedByteBuffer buffer) {
+    int position = 0;
+    while (position + HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(position);
+      if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+        break;
+      }
+      ByteBuffer payload = buffer.duplicate();
+      payload.limit(position + HEADER_SIZE + length).position(position + HEADER_SIZE);
+      if (checksum(payload.slice()) != buffer.getInt(position + 4)) {
+        break;
+      }
+      position += HEADER_SIZE + length;
+    }
+    if (position + 4 <= buffer.capacity() && buffer.getInt(position) != 0) {
+      // Clear the torn record so its remains can't be mistaken for records after the next appends.
+      for (int i = position; i < buffer.capacity(); i++) {
+        buffer.put(i, (byte) 0);
+      }
+      buffer.force();
+    }
+    return position;
+  }
+
+  private static void unmap(MappedByteBuffer buffer) {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+    } catch (NoSuchMethodException e) {
+      // Java 8 exposes the cleaner on the buffer itself.
+      try {
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      } catch (ReflectiveOperationException | RuntimeException ignored) {
+        // The mapping is released once the buffer is garbage collected.
+      }
+    } catch (ReflectiveOperationException | RuntimeException ignored) {
+      // The mapping is released once the buffer is garbage collected.
+    }
+  }
+
+  private static int checksum(ByteBuffer payload) {
+    CRC32 checksum = new CRC32();
+    checksum.update(payload);
+    return (int) checksum.getValue();
+  }
+
+  private static final class Segment {
+
+    private final long baseOffset;
+
+    private final Path file;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The reference of the journal, dropped by truncateBefore, plus one per replay reading the segment.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private volatile int limit;
+
+    private Segment(long baseOffset, Path file, MappedByteBuffer buffer) {
+      this.baseOffset = baseOffset;
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    private boolean acquire() {
+      while (true) {
+        int count = references.get();
+        if (count == 0) {
+          return false;
+        }
+        if (references.compareAndSet(count, count + 1)) {
+          return true;
+        }
+      }
+    }
+
+    private void release() {
+      if (references.decrementAndGet() == 0) {
+        // Nobody can read the buffer anymore, so unmapping it cannot crash a reader.
+        unmap(buffer);
+        try {
+          Files.deleteIfExists(file);
+        } catch (IOException e) {
+          throw new UncheckedIOException("Failed to delete journal segment " + file, e);
+        }
+      }
+    }
+
+    private long end() {
+      return baseOffset + limit;
+    }
+  }
+
+}
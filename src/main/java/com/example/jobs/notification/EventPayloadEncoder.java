@@ -0,0 +1,42 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.EventPayload;
+
+/**
+ * Encoding of event payloads. Implementations hold no state per call, so a single instance is shared by all threads.
+ */
+public interface EventPayloadEncoder {
+
+  /**
+   * Encode a payload.
+   *
+   * @param payload The payload to be encoded.
+   * @return The encoded payload.
+   */
+  byte[] encode(EventPayload payload);
+
+  /**
+   * Decode a payload.
+   *
+   * @param data The encoded payload.
+   * @return The payload.
+   */
+  EventPayload decode(byte[] data);
+
+  /**
+   * Encode a payload into the text carried as the data of an event.
+   *
+   * @param payload The payload to be encoded.
+   * @return The encoded payload.
+   */
+  String encodeToText(EventPayload payload);
+
+  /**
+   * Decode a payload from the data of an event.
+   *
+   * @param text The encoded payload.
+   * @return The payload.
+   */
+  EventPayload decodeText(String text);
+
+}
@@ -0,0 +1,277 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.config.NotificationProperties;
+import com.example.jobs.domain.ChangeEvent;
+import com.example.jobs.domain.EventPayload;
+import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.EventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Streams delivered events to Server-Sent Events subscribers. Every event is numbered and serialized once, kept in a
+ * bounded replay buffer for subscribers resuming after a reconnect, and queued for every subscriber whose filter it
+ * matches. Idle subscribers hold no thread: a small pool writes the queued events, and a subscriber whose queue is
+ * full is evicted, so it has to reconnect and resume from its last event.
+ */
+@Component
+public class EventStream {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventStream.class);
+
+  private static final StreamedEvent HEARTBEAT = new StreamedEvent(-1, null, null, null);
+
+  @Autowired
+  private NotificationProperties properties;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private EventPayloadEncoder payloadEncoder;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  private final Deque<StreamedEvent> replayBuffer = new ArrayDeque<>();
+
+  private long lastSequence;
+
+  private ExecutorService writers;
+
+  private Counter evictedSubscribers;
+
+  @PostConstruct
+  public void start() {
+    AtomicInteger threads = new AtomicInteger();
+    writers = Executors.newFixedThreadPool(properties.getStreamThreads(), runnable -> {
+      Thread thread = new Thread(runnable, "event-stream-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    Gauge.builder("notification.stream.subscribers", subscribers, Set::size)
+        .description("Number of connected event stream subscribers")
+        .register(meterRegistry);
+    evictedSubscribers = Counter.builder("notification.stream.evicted")
+        .description("Subscribers disconnected because they didn't keep up with the events")
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  public void stop() {
+    subscribers.forEach(x -> x.emitter.complete());
+    writers.shutdownNow();
+  }
+
+  /**
+   * Subscribe to the events.
+   *
+   * @param jobOfferId Only stream the events of this job offer and its applications, or all events if null.
+   * @param eventType Only stream events of this type, or all events if null.
+   * @param lastEventId The id of the last event the subscriber received before reconnecting, or null.
+   * @return The emitter of the subscription.
+   */
+  public SseEmitter subscribe(UUID jobOfferId, EventType eventType, Long lastEventId) {
+    SseEmitter emitter = new SseEmitter(properties.getStreamTimeoutMillis());
+    Subscriber subscriber = new Subscriber(emitter, jobOfferId, eventType, properties.getStreamBufferSize());
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(x -> subscribers.remove(subscriber));
+    synchronized (this) {
+      if (lastEventId != null) {
+        List<StreamedEvent> missed = replayBuffer.stream()
+            .filter(x -> x.sequence > lastEventId && subscriber.matches(x))
+            .collect(Collectors.toList());
+        // Only the most recent events fit into the queue of the subscriber.
+        subscriber.queue.addAll(missed.subList(Math.max(0, missed.size() - properties.getStreamBufferSize()),
+            missed.size()));
+      }
+      subscribers.add(subscriber);
+    }
+    schedule(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Queue delivered events for the subscribers. Events which cannot be serialized are skipped.
+   *
+   * @param events The delivered events, in order.
+   */
+  public synchronized void broadcast(List<PublishEvent> events) {
+    for (PublishEvent event : events) {
+      StreamedEvent streamedEvent;
+      try {
+        streamedEvent = toStreamedEvent(event);
+      } catch (RuntimeException | JsonProcessingException e) {
+        LOGGER.warn("Failed to stream event {}", event.getId(), e);
+        continue;
+      }
+      replayBuffer.addLast(streamedEvent);
+      if (replayBuffer.size() > properties.getStreamReplaySize()) {
+        replayBuffer.removeFirst();
+      }
+      for (Subscriber subscriber : subscribers) {
+        if (!subscriber.matches(streamedEvent)) {
+          continue;
+        }
+        if (subscriber.queue.offer(streamedEvent)) {
+          schedule(subscriber);
+        } else {
+          evict(subscriber);
+        }
+      }
+    }
+  }
+
+  /**
+   * Send a comment to idle subscribers, so connections closed by the client or a proxy are noticed.
+   */
+  @Scheduled(fixedDelayString = "${notification.stream-heartbeat-millis:15000}")
+  public void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      // Only idle subscribers get a heartbeat, so it never fills a queue.
+      if (subscriber.queue.isEmpty() && subscriber.queue.offer(HEARTBEAT)) {
+        schedule(subscriber);
+      }
+    }
+  }
+
+  private StreamedEvent toStreamedEvent(PublishEvent event) throws JsonProcessingException {
+    EventPayload payload = event.getPayload();
+    if (payload == null && event.getEventData() != null) {
+      // Events relayed from the outbox only carry the encoded payload.
+      payload = payloadEncoder.decodeText(event.getEventData());
+    }
+    UUID jobOfferId = event.getEventType() == EventType.JOB_OFFER ? event.getId()
+        : payload == null ? null : payload.getJobOfferId();
+    ChangeEvent changeEvent = ChangeEvent.builder()
+        .id(event.getId())
+        .eventType(event.getEventType())
+        .status(event.getStatus())
+        .txnTime(event.getTxnTime())
+        .payload(payload)
+        .build();
+    return new StreamedEvent(++lastSequence, event.getEventType(), jobOfferId,
+        objectMapper.writeValueAsString(changeEvent));
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true)) {
+      writers.execute(() -> write(subscriber));
+    }
+  }
+
+  private void write(Subscriber subscriber) {
+    try {
+      StreamedEvent event;
+      while ((event = subscriber.queue.poll()) != null) {
+        if (event == HEARTBEAT) {
+          subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+          subscriber.emitter.send(SseEmitter.event()
+              .id(Long.toString(event.sequence))
+              .name(event.eventType.name())
+              .data(event.json));
+        }
+      }
+    } catch (IOException | IllegalStateException e) {
+      // The client went away, or the emitter was completed by an eviction.
+      subscribers.remove(subscriber);
+      return;
+    } finally {
+      subscriber.scheduled.set(false);
+    }
+    // Events queued while the last send was in progress.
+    schedule(subscriber);
+  }
+
+  private void evict(Subscriber subscriber) {
+    if (subscribers.remove(subscriber)) {
+      evictedSubscribers.increment();
+      subscriber.queue.clear();
+      subscriber.emitter.complete();
+    }
+  }
+
+  /**
+   * Get the number of connected subscribers.
+   *
+   * @return The number of subscribers.
+   */
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  private static final class StreamedEvent {
+
+    private final long sequence;
+
+    private final EventType eventType;
+
+    private final UUID jobOfferId;
+
+    private final String json;
+
+    private StreamedEvent(long sequence, EventType eventType, UUID jobOfferId, String json) {
+      this.sequence = sequence;
+      this.eventType = eventType;
+      this.jobOfferId = jobOfferId;
+      this.json = json;
+    }
+  }
+
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+
+    private final UUID jobOfferId;
+
+    private final EventType eventType;
+
+    private final BlockingQueue<StreamedEvent> queue;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private Subscriber(SseEmitter emitter, UUID jobOfferId, EventType eventType, int bufferSize) {
+      this.emitter = emitter;
+      this.jobOfferId = jobOfferId;
+      this.eventType = eventType;
+      this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    private boolean matches(StreamedEvent event) {
+      return (jobOfferId == null || jobOfferId.equals(event.jobOfferId))
+          && (eventType == null || eventType == event.eventType);
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.config.NotificationProperties;
+import com.example.jobs.domain.PublishEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Sink appending every event to the local event journal, from where it can be replayed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification", name = "journal", havingValue = "true")
+public class JournalNotificationSink implements NotificationSink {
+
+  @Autowired
+  private NotificationProperties properties;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private EventJournal journal;
+
+  @PostConstruct
+  public void open() throws IOException {
+    journal = new EventJournal(Paths.get(properties.getJournalDirectory()), properties.getJournalSegmentSize(),
+        objectMapper);
+  }
+
+  @PreDestroy
+  public void close() {
+    journal.close();
+  }
+
+  /**
+   * Append the events to the journal. They are written to disk by the next flush.
+   *
+   * @param events The events to be shipped.
+   */
+  public void publish(List<PublishEvent> events) {
+    try {
+      journal.append(events);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to append events to the journal", e);
+    }
+  }
+
+  /**
+   * Write the events appended since the last flush to disk, and delete the segments past the retention.
+   */
+  @Scheduled(fixedDelayString = "${notification.journal-fsync-interval-millis:1000}")
+  public void flush() {
+    journal.flush();
+    try {
+      journal.truncateBefore(journal.getEndOffset() - properties.getJournalRetentionBytes());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete journal segments past the retention", e);
+    }
+  }
+
+  /**
+   * Read the journaled events from the given offset on.
+   *
+   * @param fromOffset The offset of the first event, 0 or an offset returned by a previous call.
+   * @param maxEvents The maximum number of events to be read.
+   * @param consumer Receives every event together with its offset.
+   * @return The offset after the last event read, to continue from.
+   */
+  public long replay(long fromOffset, int maxEvents, ObjLongConsumer<PublishEvent> consumer) {
+    try {
+      return journal.replay(fromOffset, maxEvents, consumer);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to replay the journal", e);
+    }
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.EventPayload;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Encodes payloads as JSON objects. The fields are written and read one by one with the streaming API, so no
+ * reflection is involved.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification", name = "payload-encoding", havingValue = "JSON", matchIfMissing = true)
+public class JsonEventPayloadEncoder implements EventPayloadEncoder {
+
+  private final JsonFactory factory = new JsonFactory();
+
+  public byte[] encode(EventPayload payload) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+    try (JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeNumberField("schemaVersion", payload.getSchemaVersion());
+      writeField(generator, "id", payload.getId());
+      writeField(generator, "jobOfferId", payload.getJobOfferId());
+      writeField(generator, "status", payload.getStatus());
+      writeField(generator, "candidateEmail", payload.getCandidateEmail());
+      writeField(generator, "jobTitle", payload.getJobTitle());
+      writeField(generator, "location", payload.getLocation());
+      writeField(generator, "startDate", payload.getStartDate());
+      if (payload.getVacancies() != null) {
+        generator.writeNumberField("vacancies", payload.getVacancies());
+      }
+      if (payload.getTime() != null) {
+        generator.writeNumberField("time", payload.getTime());
+      }
+      generator.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to encode event payload", e);
+    }
+    return out.toByteArray();
+  }
+
+  public EventPayload decode(byte[] data) {
+    EventPayload payload = new EventPayload();
+    try (JsonParser parser = factory.createParser(data)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalArgumentException("Event payload is not a JSON object.");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        parser.nextToken();
+        switch (field) {
+          case "schemaVersion":
+            payload.setSchemaVersion(parser.getIntValue());
+            break;
+          case "id":
+            payload.setId(UUID.fromString(parser.getText()));
+            break;
+          case "jobOfferId":
+            payload.setJobOfferId(UUID.fromString(parser.getText()));
+            break;
+          case "status":
+            payload.setStatus(parser.getText());
+            break;
+          case "candidateEmail":
+            payload.setCandidateEmail(parser.getText());
+            break;
+          case "jobTitle":
+            payload.setJobTitle(parser.getText());
+            break;
+          case "location":
+            payload.setLocation(parser.getText());
+            break;
+          case "startDate":
+            payload.setStartDate(parser.getText());
+            break;
+          case "vacancies":
+            payload.setVacancies(parser.getIntValue());
+            break;
+          case "time":
+            payload.setTime(parser.getLongValue());
+            break;
+          default:
+            // Unknown fields are skipped.
+            parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Event payload is not valid JSON.", e);
+    }
+    if (payload.getSchemaVersion() != EventPayload.SCHEMA_VERSION) {
+      throw new IllegalArgumentException("Event payload version " + payload.getSchemaVersion() + " is not supported.");
+    }
+    return payload;
+  }
+
+  public String encodeToText(EventPayload payload) {
+    return new String(encode(payload), StandardCharsets.UTF_8);
+  }
+
+  public EventPayload decodeText(String text) {
+    return decode(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void writeField(JsonGenerator generator, String name, Object value) throws IOException {
+    if (value != null) {
+      generator.writeStringField(name, value.toString());
+    }
+  }
+
+}
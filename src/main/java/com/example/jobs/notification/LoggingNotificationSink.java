@@ -0,0 +1,29 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.PublishEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "notification", name = "journal", havingValue = "false", matchIfMissing = true)
+public class LoggingNotificationSink implements NotificationSink {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LoggingNotificationSink.class);
+
+  /**
+   * Write every event to the log.
+   *
+   * @param events The events to be shipped.
+   */
+  public void publish(List<PublishEvent> events) {
+    // In a better solution, we should push it to a Kafka Stream for listening
+    // services to consume and take better action related to the events.
+    for (PublishEvent event : events) {
+      LOGGER.info(event.toString());
+    }
+  }
+}
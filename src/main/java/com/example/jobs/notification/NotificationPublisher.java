@@ -1,22 +1,357 @@
 package com.example.jobs.notification;
 
+import com.example.jobs.config.NotificationProperties;
+import com.example.jobs.domain.OutboxEvent;
 import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 @Component
 public class NotificationPublisher {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NotificationPublisher.class);
 
+  @Autowired
+  private NotificationSink sink;
+
+  @Autowired
+  private NotificationProperties properties;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private OutboxEventRepository outboxEventRepository;
+
+  @Autowired
+  private EventPayloadEncoder payloadEncoder;
+
+  @Autowired
+  private EventStream eventStream;
+
+  private RingBuffer<PublishEvent> buffer;
+
+  /**
+   * Number of buffer slots either filled or reserved for the events of a committing transaction.
+   */
+  private final AtomicInteger claimedSlots = new AtomicInteger();
+
+  /**
+   * Monitor the drain thread notifies when it freed slots, while callers wait on it with the BLOCK policy.
+   */
+  private final Object slotsFreed = new Object();
+
+  private final AtomicInteger blockedCallers = new AtomicInteger();
+
+  private Thread drainThread;
+
+  private volatile boolean running;
+
+  private Timer publishLatency;
+
+  private DistributionSummary batchSize;
+
+  private Counter droppedEvents;
+
+  private Counter rejectedEvents;
+
+  private Counter coalescedEvents;
+
+  private Counter failedEvents;
+
   /**
-   * Publisher to publish events related to any event.
+   * Register the metrics and, in asynchronous mode, start the drain thread. Fails when both the asynchronous and the
+   * outbox mode are enabled, since the outbox bypasses the buffer.
+   */
+  @PostConstruct
+  public void start() {
+    if (properties.isAsync() && properties.isOutbox()) {
+      throw new IllegalStateException("notification.async and notification.outbox cannot be enabled together.");
+    }
+    publishLatency = Timer.builder("notification.publish.latency")
+        .description("Time taken by the sink to ship a batch of events")
+        .register(meterRegistry);
+    batchSize = DistributionSummary.builder("notification.batch.size")
+        .description("Number of events shipped to the sink at once")
+        .register(meterRegistry);
+    droppedEvents = Counter.builder("notification.events.dropped").register(meterRegistry);
+    rejectedEvents = Counter.builder("notification.events.rejected").register(meterRegistry);
+    coalescedEvents = Counter.builder("notification.events.coalesced")
+        .description("Events merged into an earlier event about the same entity in the same transaction")
+        .register(meterRegistry);
+    failedEvents = Counter.builder("notification.events.failed")
+        .description("Events of committed transactions which could not be shipped")
+        .register(meterRegistry);
+    if (!properties.isAsync()) {
+      return;
+    }
+    buffer = new RingBuffer<>(properties.getBufferSize());
+    Gauge.builder("notification.queue.depth", buffer, RingBuffer::size)
+        .description("Number of events waiting to be shipped")
+        .register(meterRegistry);
+    running = true;
+    drainThread = new Thread(this::drain, "notification-drain");
+    drainThread.setDaemon(true);
+    drainThread.start();
+  }
+
+  /**
+   * Stop the drain thread after it shipped the events still in the buffer.
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    if (drainThread == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(drainThread);
+    drainThread.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  /**
+   * Publisher to publish events related to any event. Inside a transaction the event is held back until the
+   * transaction commits, and merged with the other events about the same entity. The backpressure policy applies
+   * before the commit, so a FAIL policy rolls the transaction back.
    * @param event The event to be published.
    */
   public void publishEvent(PublishEvent event) {
-    // In a better solution, we should push it to a Kafka Stream for listening
-    // services to consume and take better action related to the events.
-    LOGGER.info(event.toString());
+    publishEvents(Collections.singletonList(event));
+  }
+
+  /**
+   * Publisher to publish a batch of events, in the given order.
+   * @param events The events to be published.
+   */
+  public void publishEvents(List<PublishEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      int reserved = prepare(events);
+      if (isBuffered()) {
+        enqueue(events, reserved);
+      } else if (!properties.isOutbox()) {
+        deliver(events);
+      }
+      return;
+    }
+    PendingEvents pendingEvents = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+    if (pendingEvents == null) {
+      pendingEvents = new PendingEvents(this);
+      TransactionSynchronizationManager.bindResource(this, pendingEvents);
+      TransactionSynchronizationManager.registerSynchronization(pendingEvents);
+    }
+    for (PublishEvent event : events) {
+      if (pendingEvents.add(event)) {
+        coalescedEvents.increment();
+      }
+    }
+  }
+
+  /**
+   * Prepare events for dispatch, inside the transaction publishing them right before it commits. Their payloads are
+   * encoded into the event data on the calling thread. In outbox mode the events are written to the outbox in the
+   * current transaction. In asynchronous mode room is reserved for them in the buffer, and the configured backpressure
+   * policy applies when the buffer is full, so a failure here still rolls the transaction back.
+   *
+   * @param events The events to be prepared.
+   * @return The number of buffer slots reserved for the events.
+   */
+  int prepare(List<PublishEvent> events) {
+    events.forEach(this::encodePayload);
+    if (properties.isOutbox()) {
+      outboxEventRepository.saveAll(events.stream().map(OutboxEvent::of).collect(Collectors.toList()));
+      return 0;
+    }
+    return isBuffered() ? reserve(events.size()) : 0;
+  }
+
+  /**
+   * Dispatch prepared events after the transaction publishing them committed. In asynchronous mode the events are put
+   * into the slots reserved for them, otherwise they are shipped right away. The change is already saved at this
+   * point, so failures are counted and logged instead of failing the request.
+   *
+   * @param events The prepared events.
+   * @param reserved The number of buffer slots reserved for the events.
+   */
+  void dispatchCommitted(List<PublishEvent> events, int reserved) {
+    if (properties.isOutbox()) {
+      return;
+    }
+    try {
+      if (isBuffered()) {
+        enqueue(events, reserved);
+      } else {
+        deliver(events);
+      }
+    } catch (RuntimeException e) {
+      failedEvents.increment(events.size());
+      LOGGER.error("Failed to publish {} events of a committed transaction", events.size(), e);
+    }
+  }
+
+  /**
+   * Give back the buffer slots reserved for the events of a transaction which did not commit.
+   *
+   * @param reserved The number of buffer slots reserved.
+   */
+  void release(int reserved) {
+    claimedSlots.addAndGet(-reserved);
+    signalSlotsFreed();
+  }
+
+  private void signalSlotsFreed() {
+    // Blocked callers register before they check for room, so no notification they wait for is skipped.
+    if (blockedCallers.get() > 0) {
+      synchronized (slotsFreed) {
+        slotsFreed.notifyAll();
+      }
+    }
+  }
+
+  private boolean isBuffered() {
+    return buffer != null && running;
+  }
+
+  private void encodePayload(PublishEvent event) {
+    if (event.getPayload() != null) {
+      event.setEventData(payloadEncoder.encodeToText(event.getPayload()));
+    }
+  }
+
+  /**
+   * Reserve buffer slots for a number of events. All of them are reserved at once, up to the capacity of the buffer.
+   * When the buffer has no room for them, DROP reserves the slots left, FAIL rejects the events and BLOCK waits for
+   * the drain thread to free slots, and rejects the events like FAIL once notification.block-timeout-millis passed.
+   *
+   * @param count The number of events.
+   * @return The number of slots reserved.
+   */
+  private int reserve(int count) {
+    int wanted = Math.min(count, buffer.capacity());
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBlockTimeoutMillis());
+    if (wanted < count && properties.getBackpressure() == BackpressurePolicy.FAIL) {
+      rejectedEvents.increment(count);
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Notification buffer is full.");
+    }
+    while (true) {
+      int claimed = claimedSlots.get();
+      int free = buffer.capacity() - claimed;
+      if (free >= wanted || (free > 0 && properties.getBackpressure() == BackpressurePolicy.DROP)) {
+        int reserved = Math.min(free, wanted);
+        if (claimedSlots.compareAndSet(claimed, claimed + reserved)) {
+          return reserved;
+        }
+        continue;
+      }
+      switch (properties.getBackpressure()) {
+        case DROP:
+          return 0;
+        case FAIL:
+          rejectedEvents.increment(count);
+          throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Notification buffer is full.");
+        default:
+          if (!awaitSlots(wanted, deadline)) {
+            rejectedEvents.increment(count);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Notification buffer is full.");
+          }
+      }
+    }
+  }
+
+  private boolean awaitSlots(int wanted, long deadline) {
+    blockedCallers.incrementAndGet();
+    try {
+      synchronized (slotsFreed) {
+        while (buffer.capacity() - claimedSlots.get() < wanted) {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            return false;
+          }
+          TimeUnit.NANOSECONDS.timedWait(slotsFreed, remaining);
+        }
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      blockedCallers.decrementAndGet();
+    }
+  }
+
+  private void enqueue(List<PublishEvent> events, int reserved) {
+    for (int i = 0; i < events.size(); i++) {
+      // Events beyond the reservation only exist if there are more of them than the buffer holds, or with DROP.
+      if (i >= reserved && reserve(1) == 0) {
+        droppedEvents.increment();
+        LOGGER.warn("Notification buffer is full, dropped event {}", events.get(i).getId());
+        continue;
+      }
+      if (!buffer.offer(events.get(i))) {
+        // Cannot happen while every event holds a claimed slot.
+        throw new IllegalStateException("No room for event " + events.get(i).getId() + " in a claimed slot.");
+      }
+    }
+  }
+
+  private void drain() {
+    List<PublishEvent> batch = new ArrayList<>(properties.getBatchSize());
+    long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getDrainIntervalMillis());
+    while (running || buffer.size() > 0) {
+      int drained = buffer.drainTo(batch, properties.getBatchSize());
+      if (drained == 0) {
+        LockSupport.parkNanos(idleNanos);
+        continue;
+      }
+      claimedSlots.addAndGet(-drained);
+      signalSlotsFreed();
+      try {
+        deliver(batch);
+      } catch (RuntimeException e) {
+        // Nobody waits for the drain thread, so a failing sink must not stop it.
+        LOGGER.error("Failed to publish {} events", batch.size(), e);
+      }
+      batch.clear();
+    }
+  }
+
+  /**
+   * Ship a batch of events to the sink on the calling thread, and then to the event stream subscribers. Failures of
+   * the sink are passed on to the caller.
+   *
+   * @param events The events to be shipped.
+   */
+  void deliver(List<PublishEvent> events) {
+    batchSize.record(events.size());
+    long start = System.nanoTime();
+    try {
+      sink.publish(events);
+    } finally {
+      publishLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    eventStream.broadcast(events);
   }
 }
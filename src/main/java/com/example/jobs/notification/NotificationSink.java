@@ -0,0 +1,19 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.PublishEvent;
+
+import java.util.List;
+
+/**
+ * Destination the publisher ships events to.
+ */
+public interface NotificationSink {
+
+  /**
+   * Ship a batch of events, in the given order.
+   *
+   * @param events The events to be shipped.
+   */
+  void publish(List<PublishEvent> events);
+
+}
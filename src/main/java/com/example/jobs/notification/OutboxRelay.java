@@ -0,0 +1,76 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.config.NotificationProperties;
+import com.example.jobs.domain.OutboxEvent;
+import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Relays committed outbox events to the notification sink in batches, in the order they were written. An event is
+ * only marked delivered after the sink accepted it, so delivery is at least once: a crash between the two steps
+ * delivers the batch again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "notification", name = "outbox", havingValue = "true")
+public class OutboxRelay {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+  @Autowired
+  private OutboxEventRepository repository;
+
+  @Autowired
+  private NotificationPublisher notificationPublisher;
+
+  @Autowired
+  private NotificationProperties properties;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  /**
+   * Relay all pending outbox events, and delete the delivered events which are past the retention.
+   */
+  @Scheduled(fixedDelayString = "${notification.relay-interval-millis:200}")
+  public synchronized void relay() {
+    try {
+      int relayed;
+      do {
+        relayed = relayBatch();
+      } while (relayed == properties.getRelayBatchSize());
+      Date retention = new Date(System.currentTimeMillis()
+          - TimeUnit.HOURS.toMillis(properties.getOutboxRetentionHours()));
+      transactionTemplate.execute(status -> repository.deleteDeliveredBefore(retention));
+    } catch (RuntimeException e) {
+      // The events stay undelivered and are relayed again on the next run.
+      LOGGER.error("Failed to relay outbox events", e);
+    }
+  }
+
+  private int relayBatch() {
+    List<OutboxEvent> events = transactionTemplate.execute(status ->
+        repository.findUndelivered(OffsetPageRequest.of(properties.getRelayBatchSize(), 0)));
+    if (events == null || events.isEmpty()) {
+      return 0;
+    }
+    List<PublishEvent> publishEvents = events.stream().map(OutboxEvent::toPublishEvent).collect(Collectors.toList());
+    notificationPublisher.deliver(publishEvents);
+    List<Long> internalIds = events.stream().map(OutboxEvent::getInternalId).collect(Collectors.toList());
+    transactionTemplate.execute(status -> repository.markDelivered(internalIds, new Date()));
+    return events.size();
+  }
+
+}
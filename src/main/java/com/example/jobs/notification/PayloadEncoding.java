@@ -0,0 +1,18 @@
+package com.example.jobs.notification;
+
+/**
+ * How event payloads are encoded into the event data.
+ */
+public enum PayloadEncoding {
+
+  /**
+   * UTF-8 JSON object, readable by any consumer.
+   */
+  JSON,
+
+  /**
+   * Compact binary record, carried as Base64 in the event data.
+   */
+  BINARY
+
+}
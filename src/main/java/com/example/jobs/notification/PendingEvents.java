@@ -0,0 +1,104 @@
+package com.example.jobs.notification;
+
+import com.example.jobs.domain.EventPayload;
+import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.PublishStatus;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Events published during a transaction. Events about the same entity are coalesced into one. Right before the
+ * transaction commits the events are prepared, which may still fail and roll it back, and once it committed they are
+ * dispatched. They are discarded if it rolls back.
+ */
+class PendingEvents extends TransactionSynchronizationAdapter {
+
+  private final Map<String, PublishEvent> events = new LinkedHashMap<>();
+
+  private final NotificationPublisher publisher;
+
+  private List<PublishEvent> prepared;
+
+  private int reserved;
+
+  /**
+   * Create the pending events of a transaction.
+   *
+   * @param publisher The publisher preparing and dispatching the events. It is also the key the pending events are
+   *     bound to the transaction with, unbound once it completed.
+   */
+  PendingEvents(NotificationPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  /**
+   * Add an event. If there already is an event about the same entity, the event is merged into it: the entity stays
+   * CREATED if it was created in this transaction, and the payload fields set by the later event win.
+   *
+   * @param event The event to be added.
+   * @return True if the event was merged into an earlier one.
+   */
+  boolean add(PublishEvent event) {
+    PublishEvent previous = events.putIfAbsent(event.getEventType() + ":" + event.getId(), event);
+    if (previous == null) {
+      return false;
+    }
+    if (previous.getStatus() != PublishStatus.CREATED || event.getStatus() == PublishStatus.DELETED) {
+      previous.setStatus(event.getStatus());
+    }
+    if (event.getPayload() != null) {
+      previous.setPayload(previous.getPayload() == null ? event.getPayload() : merge(previous.getPayload(),
+          event.getPayload()));
+    } else if (event.getEventData() != null) {
+      previous.setEventData(event.getEventData());
+    }
+    return true;
+  }
+
+  @Override
+  public void beforeCommit(boolean readOnly) {
+    if (!events.isEmpty()) {
+      prepared = new ArrayList<>(events.values());
+      events.clear();
+      reserved = publisher.prepare(prepared);
+    }
+  }
+
+  @Override
+  public void afterCommit() {
+    if (prepared != null) {
+      publisher.dispatchCommitted(prepared, reserved);
+      reserved = 0;
+    }
+  }
+
+  @Override
+  public void afterCompletion(int status) {
+    if (reserved > 0) {
+      // The commit failed after the events were prepared.
+      publisher.release(reserved);
+    }
+    TransactionSynchronizationManager.unbindResourceIfPossible(publisher);
+  }
+
+  private static EventPayload merge(EventPayload earlier, EventPayload later) {
+    return EventPayload.builder()
+        .schemaVersion(later.getSchemaVersion())
+        .id(later.getId() != null ? later.getId() : earlier.getId())
+        .jobOfferId(later.getJobOfferId() != null ? later.getJobOfferId() : earlier.getJobOfferId())
+        .status(later.getStatus() != null ? later.getStatus() : earlier.getStatus())
+        .candidateEmail(later.getCandidateEmail() != null ? later.getCandidateEmail() : earlier.getCandidateEmail())
+        .jobTitle(later.getJobTitle() != null ? later.getJobTitle() : earlier.getJobTitle())
+        .location(later.getLocation() != null ? later.getLocation() : earlier.getLocation())
+        .startDate(later.getStartDate() != null ? later.getStartDate() : earlier.getStartDate())
+        .vacancies(later.getVacancies() != null ? later.getVacancies() : earlier.getVacancies())
+        .time(later.getTime() != null ? later.getTime() : earlier.getTime())
+        .build();
+  }
+
+}
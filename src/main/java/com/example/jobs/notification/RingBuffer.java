@@ -0,0 +1,119 @@
+package com.example.jobs.notification;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Every slot carries a sequence number telling
+ * whether it is free for the producer of a given position or filled for the consumer, so producers only contend on a
+ * compare-and-set of the tail and never wait for each other.
+ *
+ * @param <T> The type of the elements.
+ */
+class RingBuffer<T> {
+
+  private final int mask;
+
+  private final AtomicReferenceArray<T> elements;
+
+  private final AtomicLongArray sequences;
+
+  private final AtomicLong tail = new AtomicLong();
+
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * Create a ring buffer.
+   *
+   * @param capacity The minimum capacity, rounded up to the next power of two.
+   */
+  RingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    mask = size - 1;
+    elements = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Add an element if there is room. Safe to call from any thread.
+   *
+   * @param element The element to be added.
+   * @return True if the element was added, false if the buffer is full.
+   */
+  boolean offer(T element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.set(index, element);
+          // Publishes the element to the consumer.
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (difference < 0) {
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Move up to the given number of elements into the given list. Must only be called from the consumer thread.
+   *
+   * @param target The list the elements are added to.
+   * @param maxElements The maximum number of elements to be moved.
+   * @return The number of elements moved.
+   */
+  int drainTo(List<T> target, int maxElements) {
+    long position = head.get();
+    int count = 0;
+    while (count < maxElements) {
+      int index = (int) (position & mask);
+      if (sequences.get(index) != position + 1) {
+        break;
+      }
+      target.add(elements.get(index));
+      elements.set(index, null);
+      // Frees the slot for the producer one lap ahead.
+      sequences.set(index, position + mask + 1);
+      position++;
+      count++;
+    }
+    head.set(position);
+    return count;
+  }
+
+  /**
+   * Get the approximate number of elements in the buffer.
+   *
+   * @return The number of elements.
+   */
+  int size() {
+    return (int) Math.max(0, tail.get() - head.get());
+  }
+
+  /**
+   * Get the capacity of the buffer.
+   *
+   * @return The capacity.
+   */
+  int capacity() {
+    return mask + 1;
+  }
+
+}
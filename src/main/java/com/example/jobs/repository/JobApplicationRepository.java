@@ -1,13 +1,36 @@
 package com.example.jobs.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import com.example.jobs.domain.JobApplication;
-import org.springframework.data.repository.CrudRepository;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.projection.EntityVersion;
+import com.example.jobs.domain.projection.JobApplicationChange;
+import com.example.jobs.domain.projection.JobApplicationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 @Repository
-public interface JobApplicationRepository extends CrudRepository<JobApplication, Long> {
+public interface JobApplicationRepository extends JpaRepository<JobApplication, Long> {
+
+  String JOB_APPLICATION_SUMMARY_SELECT = "select new com.example.jobs.domain.projection.JobApplicationSummary("
+      + "a.internalId, a.id, a.candidateEmail, a.resumeText, a.applicationStatus, a.createdTime, a.updatedTime, "
+      + "a.version) from JobApplication a ";
 
   /**
    * Find job application by its UUID.
@@ -16,4 +39,145 @@ public interface JobApplicationRepository extends CrudRepository<JobApplication,
    * @return The job application if exists, else null.
    */
   JobApplication findById(UUID id);
+
+  /**
+   * Find the version of a job application without loading the job application.
+   *
+   * @param id The UUID of the job application.
+   * @return The version of the job application if exists, else null.
+   */
+  @Query("select new com.example.jobs.domain.projection.EntityVersion(a.id, a.version, a.updatedTime) "
+      + "from JobApplication a where a.id = ?1")
+  EntityVersion findVersionById(UUID id);
+
+  /**
+   * Check whether a job offer already has an application from the given email. Served by the unique
+   * (job_offers_internal_id, candidate_email) index.
+   *
+   * @param jobOffer The job offer.
+   * @param candidateEmail The email ID of the candidate.
+   * @return True if an application exists, else false.
+   */
+  boolean existsByJobOfferAndCandidateEmail(JobOffer jobOffer, String candidateEmail);
+
+  /**
+   * Find which of the given candidate emails already applied for a job offer.
+   *
+   * @param jobOffer The job offer.
+   * @param candidateEmails The candidate emails to be checked.
+   * @return The candidate emails which already have a job application.
+   */
+  @Query("select a.candidateEmail from JobApplication a where a.jobOffer = ?1 and a.candidateEmail in ?2")
+  List<String> findCandidateEmails(JobOffer jobOffer, Collection<String> candidateEmails);
+
+  /**
+   * Find the job application summaries with the given UUIDs, in a single query on the unique index on id.
+   *
+   * @param ids The UUIDs of the job applications.
+   * @return The job application summaries which exist, in no particular order.
+   */
+  @Query(JOB_APPLICATION_SUMMARY_SELECT + "where a.id in ?1")
+  List<JobApplicationSummary> findJobApplicationSummariesByIdIn(Collection<UUID> ids);
+
+  /**
+   * Find the job applications with the given UUIDs together with their job offers.
+   *
+   * @param ids The UUIDs of the job applications.
+   * @return The job applications which exist.
+   */
+  @Query("select a from JobApplication a join fetch a.jobOffer where a.id in ?1")
+  List<JobApplication> findWithJobOfferByIdIn(Collection<UUID> ids);
+
+  /**
+   * Update the status of the given job applications in a single statement. Only applications which still have the
+   * expected previous status are updated, so the caller can detect concurrent modifications from the returned count.
+   * The persistence context is cleared afterwards, since the loaded applications no longer match the database.
+   *
+   * @param internalIds The internal ids of the job applications.
+   * @param previousStatus The status the job applications are expected to have.
+   * @param status The status to update for the job applications.
+   * @param updatedTime The time of the update.
+   * @return The number of updated job applications.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update JobApplication a set a.applicationStatus = ?3, a.updatedTime = ?4, a.version = a.version + 1 "
+      + "where a.internalId in ?1 and a.applicationStatus = ?2")
+  int updateApplicationStatus(Collection<Long> internalIds, JobApplicationStatus previousStatus,
+      JobApplicationStatus status, Date updatedTime);
+
+  /**
+   * Set the update time of the given job applications. The version is left alone, since the job applications
+   * themselves don't change.
+   *
+   * @param updatedTime The update time, taken from the clock of the database.
+   * @param internalIds The internal ids of the job applications.
+   * @return The number of updated job applications.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "update job_applications set updated_time = ?1 where internal_id in ?2", nativeQuery = true)
+  int stampUpdatedTime(Date updatedTime, Collection<Long> internalIds);
+
+  /**
+   * Find the list of job application summaries of a job offer by a given status, and limit the results with the
+   * specified page request. The results are ordered by creation time so that pages are stable.
+   *
+   * @param jobOfferInternalId The internal id of the job offer.
+   * @param status The status of the job applications.
+   * @param pageable The number of results to be returned and skipped.
+   * @return The list of job application summaries.
+   */
+  @Query(JOB_APPLICATION_SUMMARY_SELECT + "where a.jobOffer.internalId = ?1 and a.applicationStatus = ?2 "
+      + "order by a.createdTime, a.internalId")
+  List<JobApplicationSummary> findJobApplicationSummaries(Long jobOfferInternalId, JobApplicationStatus status,
+      Pageable pageable);
+
+  /**
+   * Find the list of job application summaries of a job offer by a given status that are positioned after the given
+   * creation time and internal id. Seeks directly on the (job_offers_internal_id, application_status, created_time,
+   * internal_id) index instead of skipping rows.
+   *
+   * @param jobOfferInternalId The internal id of the job offer.
+   * @param status The status of the job applications.
+   * @param createdTime The creation time of the last job application already returned.
+   * @param internalId The internal id of the last job application already returned.
+   * @param pageable The number of results to be returned.
+   * @return The list of job application summaries.
+   */
+  @Query(JOB_APPLICATION_SUMMARY_SELECT + "where a.jobOffer.internalId = ?1 and a.applicationStatus = ?2 "
+      + "and (a.createdTime > ?3 or (a.createdTime = ?3 and a.internalId > ?4)) order by a.createdTime, a.internalId")
+  List<JobApplicationSummary> findJobApplicationSummariesAfter(Long jobOfferInternalId, JobApplicationStatus status,
+      Date createdTime, Long internalId, Pageable pageable);
+
+  /**
+   * Stream all job applications of a job offer, ordered by creation time. The rows are read from an open cursor in
+   * chunks of the fetch size, so the stream has to be consumed and closed inside a transaction. The job applications
+   * are loaded read only, and should be detached once processed to keep the persistence context small.
+   *
+   * @param jobOfferInternalId The internal id of the job offer.
+   * @return The stream of job applications.
+   */
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HINT_READONLY, value = "true"),
+      @QueryHint(name = HINT_CACHEABLE, value = "false")
+  })
+  @Query("select a from JobApplication a where a.jobOffer.internalId = ?1 order by a.createdTime, a.internalId")
+  Stream<JobApplication> streamByJobOfferInternalId(Long jobOfferInternalId);
+
+  /**
+   * Find the list of job applications updated after the given update time and internal id, and before the given time.
+   * Seeks directly on the (updated_time, internal_id) index.
+   *
+   * @param updatedTime The update time of the last job application already returned.
+   * @param internalId The internal id of the last job application already returned.
+   * @param until The update time before which the job applications are returned.
+   * @param pageable The number of results to be returned.
+   * @return The list of changed job applications, ordered by update time and internal id.
+   */
+  @Query("select new com.example.jobs.domain.projection.JobApplicationChange(a.internalId, a.id, o.id, "
+      + "a.candidateEmail, a.resumeText, a.applicationStatus, a.updatedTime) from JobApplication a join a.jobOffer o "
+      + "where (a.updatedTime > ?1 or (a.updatedTime = ?1 and a.internalId > ?2)) and a.updatedTime < ?3 "
+      + "order by a.updatedTime, a.internalId")
+  List<JobApplicationChange> findJobApplicationChangesAfter(Date updatedTime, Long internalId, Date until,
+      Pageable pageable);
 }
@@ -1,26 +1,84 @@
 package com.example.jobs.repository;
 
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface JobOfferRepository extends CrudRepository<JobOffer, Long> {
+public interface JobOfferRepository extends JpaRepository<JobOffer, Long> {
+
+  String JOB_OFFER_SUMMARY_SELECT = "select new com.example.jobs.domain.projection.JobOfferSummary(o.internalId, "
+      + "o.id, o.jobTitle, o.jobDescription, o.location, o.jobOfferStatus, o.startDate, o.vacancies, "
+      + "o.applicationsCount, o.createdTime, o.updatedTime, o.version) from JobOffer o ";
 
   /**
-   * Find the list of job offers by a given status, and limit the results with the specified offset.
+   * Find the list of job offer summaries by a given status, and limit the results with the specified page request. The
+   * results are ordered by creation time so that pages are stable.
    *
    * @param status The status of the job offers.
-   * @param limit The number of results to be returned.
-   * @param offset The number of results to be skipped.
-   * @return The list of job offers.
+   * @param pageable The number of results to be returned and skipped.
+   * @return The list of job offer summaries.
+   */
+  @Query(JOB_OFFER_SUMMARY_SELECT + "where o.jobOfferStatus = ?1 order by o.createdTime, o.internalId")
+  List<JobOfferSummary> findJobOfferSummaries(JobOfferStatus status, Pageable pageable);
+
+  /**
+   * Find the list of job offer summaries by a given status that are positioned after the given creation time and
+   * internal id. Seeks directly on the (job_offer_status, created_time, internal_id) index instead of skipping rows.
+   *
+   * @param status The status of the job offers.
+   * @param createdTime The creation time of the last job offer already returned.
+   * @param internalId The internal id of the last job offer already returned.
+   * @param pageable The number of results to be returned.
+   * @return The list of job offer summaries.
+   */
+  @Query(JOB_OFFER_SUMMARY_SELECT + "where o.jobOfferStatus = ?1 and (o.createdTime > ?2 or "
+      + "(o.createdTime = ?2 and o.internalId > ?3)) order by o.createdTime, o.internalId")
+  List<JobOfferSummary> findJobOfferSummariesAfter(JobOfferStatus status, Date createdTime, Long internalId,
+      Pageable pageable);
+
+  /**
+   * Find the list of job offer summaries updated after the given update time and internal id, and before the given
+   * time. Seeks directly on the (updated_time, internal_id) index.
+   *
+   * @param updatedTime The update time of the last job offer already returned.
+   * @param internalId The internal id of the last job offer already returned.
+   * @param until The update time before which the job offers are returned.
+   * @param pageable The number of results to be returned.
+   * @return The list of job offer summaries, ordered by update time and internal id.
+   */
+  @Query(JOB_OFFER_SUMMARY_SELECT + "where (o.updatedTime > ?1 or (o.updatedTime = ?1 and o.internalId > ?2)) "
+      + "and o.updatedTime < ?3 order by o.updatedTime, o.internalId")
+  List<JobOfferSummary> findJobOfferSummariesUpdatedAfter(Date updatedTime, Long internalId, Date until,
+      Pageable pageable);
+
+  /**
+   * Find the job offer summaries with the given UUIDs, in a single query on the unique index on id.
+   *
+   * @param ids The UUIDs of the job offers.
+   * @return The job offer summaries which exist, in no particular order.
    */
-  @Query(value = "select * from job_offers where job_offer_status = ?1 limit ?2 offset ?3", nativeQuery = true)
-  List<JobOffer> findJobOffers(String status, int limit, int offset);
+  @Query(JOB_OFFER_SUMMARY_SELECT + "where o.id in ?1")
+  List<JobOfferSummary> findJobOfferSummariesByIdIn(Collection<UUID> ids);
+
+  /**
+   * Find the internal id of a job offer by its UUID.
+   *
+   * @param id The UUID of the job offer.
+   * @return The internal id if the job offer exists, else null.
+   */
+  @Query("select o.internalId from JobOffer o where o.id = ?1")
+  Long findInternalIdById(UUID id);
 
   /**
    * Find job offer by its UUID.
@@ -31,10 +89,101 @@ public interface JobOfferRepository extends CrudRepository<JobOffer, Long> {
   JobOffer findById(UUID id);
 
   /**
-   * Find job offer by job Title.
-   * @param jobTitle The title of the job.
-   * @return The job offer if exists, else null.
+   * Check whether a job offer with the given normalized job title exists. Served by the unique index on
+   * job_title_normalized.
+   *
+   * @param normalizedJobTitle The normalized title of the job.
+   * @return True if a job offer exists, else false.
+   */
+  boolean existsByNormalizedJobTitle(String normalizedJobTitle);
+
+  /**
+   * Find which of the given normalized job titles are already taken, in a single query on the unique index on
+   * job_title_normalized.
+   *
+   * @param normalizedJobTitles The normalized titles to be checked.
+   * @return The normalized titles which already have a job offer.
+   */
+  @Query("select o.normalizedJobTitle from JobOffer o where o.normalizedJobTitle in ?1")
+  List<String> findNormalizedJobTitles(Collection<String> normalizedJobTitles);
+
+  /**
+   * Atomically add to the number of applications of a job offer.
+   *
+   * @param internalId The internal id of the job offer.
+   * @param delta The number of applications to be added.
+   * @return The number of updated job offers.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "update job_offers set applications_count = applications_count + ?2, version = version + 1, "
+      + "updated_time = localtimestamp where internal_id = ?1", nativeQuery = true)
+  int addToApplicationsCount(Long internalId, int delta);
+
+  /**
+   * Atomically claim vacancies of an ACTIVE job offer. The update only succeeds while the number of HIRED applications
+   * stays within the number of vacancies, so concurrent hires can never exceed the vacancies.
+   *
+   * @param internalId The internal id of the job offer.
+   * @param count The number of vacancies to be claimed.
+   * @return 1 if the vacancies were claimed, 0 if not enough vacancies are left.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "update job_offers set hired_count = hired_count + ?2, version = version + 1, "
+      + "updated_time = localtimestamp where internal_id = ?1 and job_offer_status = 'ACTIVE' "
+      + "and hired_count + ?2 <= vacancies", nativeQuery = true)
+  int claimVacancies(Long internalId, int count);
+
+  /**
+   * Atomically release previously claimed vacancies of a job offer.
+   *
+   * @param internalId The internal id of the job offer.
+   * @param count The number of vacancies to be released.
+   * @return 1 if the vacancies were released, else 0.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "update job_offers set hired_count = hired_count - ?2, version = version + 1, "
+      + "updated_time = localtimestamp where internal_id = ?1 and hired_count >= ?2", nativeQuery = true)
+  int releaseVacancies(Long internalId, int count);
+
+  /**
+   * Find the number of vacancies of a job offer which are not yet claimed.
+   *
+   * @param internalId The internal id of the job offer.
+   * @return The number of remaining vacancies.
+   */
+  @Query("select o.vacancies - o.hiredCount from JobOffer o where o.internalId = ?1")
+  Integer findRemainingVacancies(Long internalId);
+
+  /**
+   * Atomically mark an ACTIVE job offer as INACTIVE. Only one of several concurrent callers succeeds.
+   *
+   * @param internalId The internal id of the job offer.
+   * @param updatedTime The time of the update.
+   * @return 1 if the job offer was marked INACTIVE, 0 if it already was INACTIVE.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "update job_offers set job_offer_status = 'INACTIVE', updated_time = ?2, version = version + 1 "
+      + "where internal_id = ?1 and job_offer_status = 'ACTIVE'", nativeQuery = true)
+  int markInactive(Long internalId, Date updatedTime);
+
+  /**
+   * Set the update time of the given job offers. The version is left alone, since the job offers themselves don't
+   * change.
+   *
+   * @param updatedTime The update time, taken from the clock of the database.
+   * @param internalIds The internal ids of the job offers.
+   * @return The number of updated job offers.
+   */
+  @Modifying(flushAutomatically = true)
+  @Query(value = "update job_offers set updated_time = ?1 where internal_id in ?2", nativeQuery = true)
+  int stampUpdatedTime(Date updatedTime, Collection<Long> internalIds);
+
+  /**
+   * Get the current time of the database, the clock every update time is taken from.
+   *
+   * @return The current time of the database.
    */
-  JobOffer findByJobTitleIgnoreCase(String jobTitle);
+  @Query(value = "values localtimestamp", nativeQuery = true)
+  Date findDatabaseTime();
 
 }
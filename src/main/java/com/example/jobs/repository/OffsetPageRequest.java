@@ -0,0 +1,86 @@
+package com.example.jobs.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Pageable for plain limit and offset paging, where the offset does not need to be a multiple of the page size.
+ */
+@ToString
+@EqualsAndHashCode
+public class OffsetPageRequest implements Pageable, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int limit;
+
+  private final long offset;
+
+  private OffsetPageRequest(int limit, long offset) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Limit must not be less than one.");
+    }
+    if (offset < 0) {
+      throw new IllegalArgumentException("Offset must not be less than zero.");
+    }
+    this.limit = limit;
+    this.offset = offset;
+  }
+
+  /**
+   * Create a page request.
+   *
+   * @param limit The number of results to be returned.
+   * @param offset The number of results to be skipped.
+   * @return The page request.
+   */
+  public static OffsetPageRequest of(int limit, long offset) {
+    return new OffsetPageRequest(limit, offset);
+  }
+
+  @Override
+  public int getPageNumber() {
+    return (int) (offset / limit);
+  }
+
+  @Override
+  public int getPageSize() {
+    return limit;
+  }
+
+  @Override
+  public long getOffset() {
+    return offset;
+  }
+
+  @Override
+  public Sort getSort() {
+    return Sort.unsorted();
+  }
+
+  @Override
+  public Pageable next() {
+    return new OffsetPageRequest(limit, offset + limit);
+  }
+
+  @Override
+  public Pageable previousOrFirst() {
+    return hasPrevious() ? new OffsetPageRequest(limit, Math.max(0, offset - limit)) : first();
+  }
+
+  @Override
+  public Pageable first() {
+    return new OffsetPageRequest(limit, 0);
+  }
+
+  @Override
+  public boolean hasPrevious() {
+    return offset > 0;
+  }
+
+}
@@ -0,0 +1,47 @@
+package com.example.jobs.repository;
+
+import com.example.jobs.domain.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  /**
+   * Find the oldest events which are not delivered yet, in the order they were written.
+   *
+   * @param pageable The number of events to be returned.
+   * @return The list of undelivered events.
+   */
+  @Query("select e from OutboxEvent e where e.deliveredTime is null order by e.internalId")
+  List<OutboxEvent> findUndelivered(Pageable pageable);
+
+  /**
+   * Mark the given events as delivered.
+   *
+   * @param internalIds The internal ids of the events.
+   * @param deliveredTime The time of the delivery.
+   * @return The number of updated events.
+   */
+  @Modifying
+  @Query("update OutboxEvent e set e.deliveredTime = ?2 where e.internalId in ?1")
+  int markDelivered(Collection<Long> internalIds, Date deliveredTime);
+
+  /**
+   * Delete the events which were delivered before the given time.
+   *
+   * @param deliveredTime The time before which delivered events are deleted.
+   * @return The number of deleted events.
+   */
+  @Modifying
+  @Query("delete from OutboxEvent e where e.deliveredTime < ?1")
+  int deleteDeliveredBefore(Date deliveredTime);
+
+}
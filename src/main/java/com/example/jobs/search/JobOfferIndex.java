@@ -0,0 +1,275 @@
+package com.example.jobs.search;
+
+import com.example.jobs.domain.SearchCursor;
+import com.example.jobs.domain.enums.JobOfferStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of the texts of the job offers, kept in memory. Every job offer gets an ordinal, its position in the
+ * table of the internal ids, UUIDs and statuses of the indexed job offers. Every term maps to its postings: the
+ * ordinals of the job offers containing it in ascending order, each with the frequency of the term weighted by the
+ * field it occurs in, held in primitive arrays. A search intersects the postings of its terms, and scores the job
+ * offers containing all of them by the sum of the inverse document frequency of every term times its saturated
+ * frequency, so a term repeated many times doesn't outweigh the other terms.
+ *
+ * <p>Job offers are only ever appended, and their texts never change, so the job offers below an ordinal form the index
+ * as it was when that many job offers were indexed: its generation. A search is scored against one generation, and
+ * the pages after it are scored against the same one, so job offers indexed while paging don't shift the scores the
+ * cursor was taken from.
+ *
+ * <p>Any number of threads can search at the same time, while changes are serialized.
+ */
+public class JobOfferIndex {
+
+  /**
+   * Orders search hits by descending score, and hits of the same score by ascending internal id.
+   */
+  public static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::getScore).reversed()
+      .thenComparing(SearchHit::getInternalId);
+
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final float TITLE_WEIGHT = 3;
+
+  private static final float LOCATION_WEIGHT = 2;
+
+  private static final float DESCRIPTION_WEIGHT = 1;
+
+  private static final double SATURATION = 1.2;
+
+  private static final int MAX_INITIAL_CAPACITY = 64;
+
+  private static final int INITIAL_DOCUMENTS_CAPACITY = 1024;
+
+  private static final int INITIAL_POSTINGS_CAPACITY = 4;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Postings> postings = new HashMap<>();
+
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+
+  private long[] internalIds = new long[INITIAL_DOCUMENTS_CAPACITY];
+
+  private UUID[] ids = new UUID[INITIAL_DOCUMENTS_CAPACITY];
+
+  private JobOfferStatus[] statuses = new JobOfferStatus[INITIAL_DOCUMENTS_CAPACITY];
+
+  private int documentCount;
+
+  /**
+   * Split a text into its terms: the runs of letters and digits, lower cased.
+   *
+   * @param text The text, may be null.
+   * @return The terms in the order they occur in the text.
+   */
+  public static List<String> tokenize(String text) {
+    if (text == null) {
+      return Collections.emptyList();
+    }
+    List<String> terms = new ArrayList<>();
+    for (String term : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  /**
+   * Add a job offer to the index, or update the status of a job offer already in it. The texts of a job offer never
+   * change after it was created, so they are only indexed once. Job offers only ever become INACTIVE, so an ACTIVE
+   * status read before that change never reactivates an INACTIVE job offer.
+   *
+   * @param internalId The internal id of the job offer.
+   * @param id The UUID of the job offer.
+   * @param status The status of the job offer.
+   * @param jobTitle The title of the job offer.
+   * @param jobDescription The description of the job offer.
+   * @param location The location of the job offer.
+   */
+  public void put(Long internalId, UUID id, JobOfferStatus status, String jobTitle, String jobDescription,
+      String location) {
+    lock.writeLock().lock();
+    try {
+      Integer existing = ordinals.get(internalId);
+      if (existing != null) {
+        if (statuses[existing] != JobOfferStatus.INACTIVE) {
+          statuses[existing] = status;
+        }
+        return;
+      }
+      if (documentCount == internalIds.length) {
+        internalIds = Arrays.copyOf(internalIds, documentCount * 2);
+        ids = Arrays.copyOf(ids, documentCount * 2);
+        statuses = Arrays.copyOf(statuses, documentCount * 2);
+      }
+      // Ordinals only grow, so appending keeps every postings list sorted.
+      int ordinal = documentCount++;
+      internalIds[ordinal] = internalId;
+      ids[ordinal] = id;
+      statuses[ordinal] = status;
+      ordinals.put(internalId, ordinal);
+      Map<String, Float> frequencies = new HashMap<>();
+      addTerms(frequencies, jobTitle, TITLE_WEIGHT);
+      addTerms(frequencies, location, LOCATION_WEIGHT);
+      addTerms(frequencies, jobDescription, DESCRIPTION_WEIGHT);
+      frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, x -> new Postings()).add(ordinal,
+          frequency));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static void addTerms(Map<String, Float> frequencies, String text, float weight) {
+    for (String term : tokenize(text)) {
+      frequencies.merge(term, weight, Float::sum);
+    }
+  }
+
+  /**
+   * Find the job offers containing all of the given terms, best first. The postings of the rarest term are walked, and
+   * the postings of every other term are searched from where the previous candidate was found. Only the best hits are
+   * kept, so the cost depends on the postings of the rarest term and not on the number of results.
+   *
+   * @param terms The terms, as returned by tokenize.
+   * @param status The status of the job offers, or null for any status.
+   * @param limit The maximum number of hits to be returned.
+   * @param after The position after which the hits start, or null for the best hits of the current generation.
+   * @return The hits, ordered by RANKING.
+   */
+  public List<SearchHit> search(Collection<String> terms, JobOfferStatus status, int limit, SearchCursor after) {
+    if (terms.isEmpty() || limit < 1) {
+      return Collections.emptyList();
+    }
+    lock.readLock().lock();
+    try {
+      // A cursor of another instance may be ahead of this index, which then scores against all it has.
+      int generation = after == null ? documentCount : Math.min(after.getGeneration(), documentCount);
+      SearchHit afterHit = after == null ? null
+          : new SearchHit(after.getInternalId(), null, after.getScore(), generation);
+      List<Postings> termPostings = new ArrayList<>();
+      for (String term : new LinkedHashSet<>(terms)) {
+        Postings termPosting = postings.get(term);
+        if (termPosting == null || termPosting.sizeAt(generation) == 0) {
+          return Collections.emptyList();
+        }
+        termPostings.add(termPosting);
+      }
+      // Candidates are taken from the rarest term, every other term only costs a search per candidate.
+      termPostings.sort(Comparator.comparingInt(x -> x.sizeAt(generation)));
+      double[] idf = new double[termPostings.size()];
+      for (int i = 0; i < idf.length; i++) {
+        idf[i] = Math.log(1 + (double) generation / termPostings.get(i).sizeAt(generation));
+      }
+      int[] positions = new int[termPostings.size()];
+      // Ordered worst first, so the worst of the best hits so far is dropped when a better one is found.
+      PriorityQueue<SearchHit> best = new PriorityQueue<>(Math.min(limit, MAX_INITIAL_CAPACITY) + 1,
+          RANKING.reversed());
+      Postings rarest = termPostings.get(0);
+      int candidates = rarest.sizeAt(generation);
+      for (int i = 0; i < candidates; i++) {
+        int ordinal = rarest.ordinals[i];
+        if (status != null && statuses[ordinal] != status) {
+          continue;
+        }
+        double score = score(termPostings, idf, positions, ordinal, rarest.weights[i]);
+        if (score < 0) {
+          continue;
+        }
+        SearchHit hit = new SearchHit(internalIds[ordinal], ids[ordinal], score, generation);
+        if (afterHit != null && RANKING.compare(hit, afterHit) <= 0) {
+          continue;
+        }
+        if (best.size() < limit) {
+          best.add(hit);
+        } else if (RANKING.compare(hit, best.peek()) < 0) {
+          best.poll();
+          best.add(hit);
+        }
+      }
+      List<SearchHit> hits = new ArrayList<>(best);
+      hits.sort(RANKING);
+      return hits;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static double score(List<Postings> termPostings, double[] idf, int[] positions, int ordinal,
+      float rarestFrequency) {
+    double score = idf[0] * rarestFrequency / (rarestFrequency + SATURATION);
+    for (int i = 1; i < idf.length; i++) {
+      Postings termPosting = termPostings.get(i);
+      // Candidates come in ascending order, so the search continues where the previous candidate left off.
+      int position = termPosting.seek(ordinal, positions[i]);
+      positions[i] = position;
+      if (position == termPosting.size || termPosting.ordinals[position] != ordinal) {
+        return -1;
+      }
+      float frequency = termPosting.weights[position];
+      score += idf[i] * frequency / (frequency + SATURATION);
+    }
+    return score;
+  }
+
+  /**
+   * Get the number of job offers in the index.
+   *
+   * @return The number of job offers.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documentCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static final class Postings {
+
+    private int[] ordinals = new int[INITIAL_POSTINGS_CAPACITY];
+
+    private float[] weights = new float[INITIAL_POSTINGS_CAPACITY];
+
+    private int size;
+
+    private void add(int ordinal, float weight) {
+      if (size == ordinals.length) {
+        ordinals = Arrays.copyOf(ordinals, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      ordinals[size] = ordinal;
+      weights[size] = weight;
+      size++;
+    }
+
+    // The position of the first ordinal from the given position on which is not smaller than the given ordinal.
+    private int seek(int ordinal, int from) {
+      int position = Arrays.binarySearch(ordinals, from, size, ordinal);
+      return position >= 0 ? position : -position - 1;
+    }
+
+    // The number of job offers containing the term in the given generation of the index.
+    private int sizeAt(int generation) {
+      return seek(generation, 0);
+    }
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.example.jobs.search;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Job offer matching a search of the index, with its score.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+  private final Long internalId;
+
+  private final UUID id;
+
+  private final double score;
+
+  /**
+   * The generation of the index the score was computed in, see JobOfferIndex.
+   */
+  private final int generation;
+
+}
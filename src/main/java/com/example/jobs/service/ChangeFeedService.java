@@ -0,0 +1,21 @@
+package com.example.jobs.service;
+
+import com.example.jobs.domain.Change;
+import com.example.jobs.domain.ChangeCursor;
+
+import java.util.List;
+
+public interface ChangeFeedService {
+
+  /**
+   * Get the job offers and job applications changed after the given cursor, ordered by update time. Update times are
+   * taken from the database right before commit, and changes younger than the settle time are left for a later call,
+   * so a change committing late with an earlier update time is not skipped.
+   *
+   * @param cursor The position after which the changes start.
+   * @param limit The number of changes to be returned.
+   * @return The list of changes.
+   */
+  List<Change> getChanges(ChangeCursor cursor, int limit);
+
+}
@@ -1,8 +1,12 @@
 package com.example.jobs.service;
 
+import com.example.jobs.domain.BulkItemResult;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.projection.EntityVersion;
+import com.example.jobs.domain.projection.JobApplicationSummary;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface JobApplicationService {
@@ -17,6 +21,17 @@ public interface JobApplicationService {
    */
   JobApplication createJobApplication(JobApplication application, UUID jobOfferId);
 
+  /**
+   * Create job applications for a given job offer UUID in a single transaction. Applications whose email already
+   * applied for the job offer, or which repeat an email of the same request, are rejected. A job creation event is
+   * published for every created application.
+   *
+   * @param applications The job applications to be created.
+   * @param jobOfferId The UUID of the job offer.
+   * @return The result of every application, indexed by its position in the given list.
+   */
+  List<BulkItemResult> createJobApplications(List<JobApplication> applications, UUID jobOfferId);
+
   /**
    * Update the status of a job application. The corresponding job update event is published to the publisher.
    *
@@ -26,6 +41,16 @@ public interface JobApplicationService {
    */
   JobApplication updateJobApplication(UUID id, JobApplicationStatus status);
 
+  /**
+   * Update the status of job applications in a single transaction. The vacancies and the status of every affected job
+   * offer are adjusted once, and the job update events are published as a batch.
+   *
+   * @param ids The UUIDs of the job applications.
+   * @param status The status to update for the applications.
+   * @return The result of every application, indexed by its position in the given list.
+   */
+  List<BulkItemResult> updateJobApplications(List<UUID> ids, JobApplicationStatus status);
+
   /**
    * Get a job application by its UUID.
    *
@@ -34,4 +59,22 @@ public interface JobApplicationService {
    */
   JobApplication getJobApplicationById(UUID id);
 
+  /**
+   * Get the version of a job application without loading it. Throws Not Found Exception if the UUID has no job
+   * application.
+   *
+   * @param id The UUID of the job application.
+   * @return The version and update time of the job application.
+   */
+  EntityVersion getJobApplicationVersion(UUID id);
+
+  /**
+   * Get the job applications with the given UUIDs. The UUIDs are looked up with as few queries as possible, and the
+   * results are returned in the order of the given UUIDs. Throws Bad Request Exception for more than 500 UUIDs.
+   *
+   * @param ids The UUIDs of the job applications.
+   * @return The job application summary of every UUID, or null where no job application exists.
+   */
+  List<JobApplicationSummary> getJobApplicationsByIds(List<UUID> ids);
+
 }
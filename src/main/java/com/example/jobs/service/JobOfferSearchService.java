@@ -0,0 +1,33 @@
+package com.example.jobs.service;
+
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.SearchCursor;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobOfferSearchPage;
+
+public interface JobOfferSearchService {
+
+  /**
+   * Search job offers of a given status by the words of their title, description and location. Only job offers
+   * containing every word of the query are found, best matches first.
+   *
+   * @param query The words to be searched for.
+   * @param status The status of the job offers.
+   * @param limit The number of results to be returned.
+   * @param cursor The position after which the results start, or null for the first page.
+   * @return The job offers found, with their scores, and the cursor of the next page.
+   */
+  JobOfferSearchPage searchJobOffers(String query, JobOfferStatus status, int limit, SearchCursor cursor);
+
+  /**
+   * Add a created job offer to the search index, or update the status of an indexed job offer.
+   *
+   * @param offer The job offer.
+   */
+  void indexJobOffer(JobOffer offer);
+
+  /**
+   * Add the job offers changed since the last refresh to the search index, including those changed by other instances.
+   */
+  void refresh();
+}
@@ -1,12 +1,17 @@
 package com.example.jobs.service;
 
+import com.example.jobs.domain.BulkItemResult;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PageCursor;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
+import com.example.jobs.domain.projection.JobOfferSummary;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface JobOfferService {
 
@@ -16,9 +21,20 @@ public interface JobOfferService {
    * @param status The status of the job offers.
    * @param limit The number of results to be returned.
    * @param offset The number of results to be skipped initially.
-   * @return The list of job offers.
+   * @return The list of job offer summaries.
    */
-  List<JobOffer> getAllJobOffers(JobOfferStatus status, int limit, int offset);
+  List<JobOfferSummary> getAllJobOffers(JobOfferStatus status, int limit, int offset);
+
+  /**
+   * Get job offers by a given status positioned after the given cursor. The job offers are ordered by creation time and
+   * the cursor position is looked up directly, so deep pages cost as much as the first one.
+   *
+   * @param status The status of the job offers.
+   * @param limit The number of results to be returned.
+   * @param cursor The position after which the results start, or null for the first page.
+   * @return The list of job offer summaries.
+   */
+  List<JobOfferSummary> getAllJobOffers(JobOfferStatus status, int limit, PageCursor cursor);
 
   /**
    * Create a job offer.
@@ -28,6 +44,15 @@ public interface JobOfferService {
    */
   JobOffer createJobOffer(JobOffer jobOffer);
 
+  /**
+   * Create job offers in a single transaction. Job offers whose title is already taken, or which repeat a title of the
+   * same list, are rejected. A job creation event is published for every created job offer.
+   *
+   * @param jobOffers The job offers to be created.
+   * @return The result of every job offer, indexed by its position in the given list.
+   */
+  List<BulkItemResult> createJobOffers(List<JobOffer> jobOffers);
+
   /**
    * Get a job offer by the given UUID. Throws Not Found Exception if the job offer Id doesn't exist.
    *
@@ -36,6 +61,15 @@ public interface JobOfferService {
    */
   JobOffer getJobOfferById(UUID id);
 
+  /**
+   * Get the job offers with the given UUIDs. The UUIDs are looked up with as few queries as possible, and the results
+   * are returned in the order of the given UUIDs. Throws Bad Request Exception for more than 500 UUIDs.
+   *
+   * @param ids The UUIDs of the job offers.
+   * @return The job offer summary of every UUID, or null where no job offer exists.
+   */
+  List<JobOfferSummary> getJobOffersByIds(List<UUID> ids);
+
   /**
    * Get all applications for a job offer by the application status. The results can be fetched via the limit and offset
    * parameters. Throws Not Found Exception if the job offer Id doesn't exist.
@@ -44,15 +78,64 @@ public interface JobOfferService {
    * @param status The status of the applications.
    * @param limit The number of results to be fetched.
    * @param offset The number of results to be skipped initially.
-   * @return The list of job applications.
+   * @return The list of job application summaries.
    */
-  List<JobApplication> getJobApplicationsByJobOfferId(UUID id, JobApplicationStatus status, int limit, int offset);
+  List<JobApplicationSummary> getJobApplicationsByJobOfferId(UUID id, JobApplicationStatus status, int limit,
+      int offset);
 
   /**
-   * Mark a given job offer as INACTIVE.
+   * Get applications for a job offer by the application status positioned after the given cursor. The applications are
+   * ordered by creation time. Throws Not Found Exception if the job offer Id doesn't exist.
+   *
+   * @param id The UUID of the job offer.
+   * @param status The status of the applications.
+   * @param limit The number of results to be fetched.
+   * @param cursor The position after which the results start, or null for the first page.
+   * @return The list of job application summaries.
+   */
+  List<JobApplicationSummary> getJobApplicationsByJobOfferId(UUID id, JobApplicationStatus status, int limit,
+      PageCursor cursor);
+
+  /**
+   * Pass every application of a job offer to the given consumer, ordered by creation time. The applications are read
+   * from a forward-only cursor and detached once consumed, so the memory used doesn't grow with their number.
+   *
+   * @param offer The job offer.
+   * @param consumer Receives the job applications one by one.
+   */
+  void exportJobApplications(JobOffer offer, Consumer<JobApplication> consumer);
+
+  /**
+   * Mark a given job offer as INACTIVE. The event is only published by the caller that actually changed the status.
    *
    * @param offer The job offer to be marked INACTIVE.
    */
   void markJobOfferInactive(JobOffer offer);
 
+  /**
+   * Increment the maintained number of applications of a job offer.
+   *
+   * @param offer The job offer which received the applications.
+   * @param count The number of applications received.
+   */
+  void incrementApplicationsCount(JobOffer offer, int count);
+
+  /**
+   * Atomically claim vacancies of an ACTIVE job offer for HIRED applications. Either all or none of the vacancies are
+   * claimed.
+   *
+   * @param offer The job offer.
+   * @param count The number of vacancies to be claimed.
+   * @return The number of vacancies left after the claim, or -1 if the vacancies could not be claimed.
+   */
+  int claimVacancies(JobOffer offer, int count);
+
+  /**
+   * Release vacancies of a job offer previously claimed for applications which are no longer HIRED.
+   *
+   * @param offer The job offer.
+   * @param count The number of vacancies to be released.
+   */
+  void releaseVacancies(JobOffer offer, int count);
+
 }
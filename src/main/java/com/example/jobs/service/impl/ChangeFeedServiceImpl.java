@@ -0,0 +1,72 @@
+package com.example.jobs.service.impl;
+
+import com.example.jobs.domain.Change;
+import com.example.jobs.domain.ChangeCursor;
+import com.example.jobs.domain.PageCursor;
+import com.example.jobs.domain.projection.JobApplicationChange;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+  @Autowired
+  private JobOfferRepository jobOfferRepository;
+
+  @Autowired
+  private JobApplicationRepository jobApplicationRepository;
+
+  @Autowired
+  private ChangeStamper changeStamper;
+
+  /**
+   * Get the job offers and job applications changed after the given cursor, ordered by update time. Both tables are
+   * read with a keyset query of at most limit rows, and the two ordered results are merged. Changes whose transaction
+   * may still be committing are left for a later call, so a reader never moves past a change it has not seen.
+   *
+   * @param cursor The position after which the changes start.
+   * @param limit The number of changes to be returned.
+   * @return The list of changes.
+   */
+  @Transactional(readOnly = true)
+  public List<Change> getChanges(ChangeCursor cursor, int limit) {
+    if (limit < 1) {
+      return Collections.emptyList();
+    }
+    Date until = changeStamper.findSettledTime();
+    PageCursor offers = cursor.getJobOffers();
+    PageCursor applications = cursor.getJobApplications();
+    List<JobOfferSummary> jobOffers = jobOfferRepository.findJobOfferSummariesUpdatedAfter(offers.getTimestamp(),
+        offers.getInternalId(), until, OffsetPageRequest.of(limit, 0));
+    List<JobApplicationChange> jobApplications = jobApplicationRepository.findJobApplicationChangesAfter(
+        applications.getTimestamp(), applications.getInternalId(), until, OffsetPageRequest.of(limit, 0));
+
+    List<Change> changes = new ArrayList<>(Math.min(limit, jobOffers.size() + jobApplications.size()));
+    int offerIndex = 0;
+    int applicationIndex = 0;
+    while (changes.size() < limit && (offerIndex < jobOffers.size() || applicationIndex < jobApplications.size())) {
+      if (applicationIndex == jobApplications.size()) {
+        changes.add(Change.of(jobOffers.get(offerIndex++)));
+      } else if (offerIndex == jobOffers.size() || jobOffers.get(offerIndex).getUpdatedTime()
+          .after(jobApplications.get(applicationIndex).getUpdatedTime())) {
+        changes.add(Change.of(jobApplications.get(applicationIndex++)));
+      } else {
+        // On equal update times job offers go first.
+        changes.add(Change.of(jobOffers.get(offerIndex++)));
+      }
+    }
+    return changes;
+  }
+
+}
@@ -0,0 +1,143 @@
+package com.example.jobs.service.impl;
+
+import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.repository.JobOfferRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Stamps the job offers and job applications changed by a transaction with the time of the database, right before the
+ * transaction commits, and keeps track of the stamps not committed yet. The change feed reads changes in the order of
+ * their update times, so it must not move past a stamp whose transaction may still commit: {@link #findSettledTime()}
+ * stays below the oldest of them, however long the commit takes. Only the transactions of this instance are tracked,
+ * so every write to the tables has to go through it.
+ */
+@Component
+public class ChangeStamper {
+
+  private static final int STAMP_CHUNK_SIZE = 500;
+
+  @Autowired
+  private JobOfferRepository jobOfferRepository;
+
+  @Autowired
+  private JobApplicationRepository jobApplicationRepository;
+
+  /**
+   * The transactions which stamped, or are about to stamp, changes not committed yet.
+   */
+  private final Set<Changes> uncommitted = ConcurrentHashMap.newKeySet();
+
+  /**
+   * The latest time read from the database. The clock of the database only moves forward, so every stamp taken from
+   * now on is at least this time.
+   */
+  private final AtomicLong latestTime = new AtomicLong();
+
+  /**
+   * Stamp a job offer changed by the current transaction once it commits. Does nothing outside of a transaction.
+   *
+   * @param internalId The internal id of the job offer.
+   */
+  public void jobOfferChanged(Long internalId) {
+    Changes changes = getChanges();
+    if (changes != null) {
+      changes.jobOffers.add(internalId);
+    }
+  }
+
+  /**
+   * Stamp job applications changed by the current transaction once it commits. Does nothing outside of a transaction.
+   *
+   * @param internalIds The internal ids of the job applications.
+   */
+  public void jobApplicationsChanged(Collection<Long> internalIds) {
+    Changes changes = getChanges();
+    if (changes != null) {
+      changes.jobApplications.addAll(internalIds);
+    }
+  }
+
+  /**
+   * Get the time before which every change is committed, or rolled back. It is the current time of the database, or
+   * the oldest stamp not committed yet if there is one, and it is excluded: a change stamped with it may still commit.
+   *
+   * @return The time before which the changes are settled.
+   */
+  public Date findSettledTime() {
+    // The time is read first: a transaction registering after it is read stamps its changes with a later time.
+    long settled = readDatabaseTime().getTime();
+    for (Changes changes : uncommitted) {
+      settled = Math.min(settled, changes.stampTime);
+    }
+    return new Date(settled);
+  }
+
+  private Date readDatabaseTime() {
+    Date time = jobOfferRepository.findDatabaseTime();
+    latestTime.accumulateAndGet(time.getTime(), Math::max);
+    return time;
+  }
+
+  private Changes getChanges() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+    Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+    if (changes == null) {
+      changes = new Changes();
+      TransactionSynchronizationManager.bindResource(this, changes);
+      TransactionSynchronizationManager.registerSynchronization(changes);
+    }
+    return changes;
+  }
+
+  private static void stamp(Date time, Set<Long> internalIds, BiFunction<Date, Collection<Long>, Integer> update) {
+    List<Long> ids = new ArrayList<>(internalIds);
+    for (int i = 0; i < ids.size(); i += STAMP_CHUNK_SIZE) {
+      update.apply(time, ids.subList(i, Math.min(i + STAMP_CHUNK_SIZE, ids.size())));
+    }
+  }
+
+  private final class Changes extends TransactionSynchronizationAdapter {
+
+    private final Set<Long> jobOffers = new LinkedHashSet<>();
+
+    private final Set<Long> jobApplications = new LinkedHashSet<>();
+
+    /**
+     * A lower bound of the stamp until the stamp is read, then the stamp itself.
+     */
+    private volatile long stampTime;
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      // Registered with a lower bound before the stamp is read, so no reader can move past it in between.
+      stampTime = latestTime.get();
+      uncommitted.add(this);
+      Date time = readDatabaseTime();
+      stampTime = time.getTime();
+      stamp(time, jobOffers, jobOfferRepository::stampUpdatedTime);
+      stamp(time, jobApplications, jobApplicationRepository::stampUpdatedTime);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      uncommitted.remove(this);
+      TransactionSynchronizationManager.unbindResourceIfPossible(ChangeStamper.this);
+    }
+  }
+
+}
@@ -1,25 +1,44 @@
 package com.example.jobs.service.impl;
 
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.domain.BulkItemResult;
+import com.example.jobs.domain.EventPayload;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.JobOffer;
 import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.BulkItemStatus;
 import com.example.jobs.domain.enums.EventType;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
 import com.example.jobs.domain.enums.PublishStatus;
+import com.example.jobs.domain.projection.EntityVersion;
+import com.example.jobs.domain.projection.JobApplicationSummary;
 import com.example.jobs.notification.NotificationPublisher;
 import com.example.jobs.repository.JobApplicationRepository;
 import com.example.jobs.service.JobApplicationService;
 import com.example.jobs.service.JobOfferService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
-import javax.transaction.Transactional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class JobApplicationServiceImpl implements JobApplicationService {
@@ -33,6 +52,22 @@ public class JobApplicationServiceImpl implements JobApplicationService {
   @Autowired
   private NotificationPublisher notificationPublisher;
 
+  @Autowired
+  private BoundedCache<UUID, Boolean> missingJobApplications;
+
+  @Autowired
+  private ChangeStamper changeStamper;
+
+  private static final int MAX_BULK_SIZE = 500;
+
+  private static final int MAX_LOOKUP_SIZE = 500;
+
+  private static final int LOOKUP_CHUNK_SIZE = 100;
+
+  private static final String JOB_APPLICATION_NOT_FOUND_MESSAGE = "No Job Application found associated with the ID.";
+
+  private static final String DUPLICATE_APPLICATION_MESSAGE = "Job Application for the given email already exists.";
+
   /**
    * Create a job application for a given job offer UUID. The corresponding job creation event is published to the
    * publisher.
@@ -41,7 +76,7 @@ public class JobApplicationServiceImpl implements JobApplicationService {
    * @param application The job application to be created.
    * @return The created job application.
    */
-  @Transactional(rollbackOn = Exception.class)
+  @Transactional(rollbackFor = Exception.class)
   public JobApplication createJobApplication(JobApplication application, UUID jobOfferId) {
     JobOffer jobOffer = jobOfferService.getJobOfferById(jobOfferId);
     if (jobOffer.getJobOfferStatus() == JobOfferStatus.INACTIVE) {
@@ -49,24 +84,86 @@ public class JobApplicationServiceImpl implements JobApplicationService {
     }
     checkForDuplicateJobApplication(jobOffer, application);
     getCreatedJobApplication(jobOffer, application);
-    application = repository.save(application);
+    try {
+      application = repository.saveAndFlush(application);
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent submission with the same email won the race and the unique index rejected this one.
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, DUPLICATE_APPLICATION_MESSAGE);
+    }
+    changeStamper.jobApplicationsChanged(Collections.singletonList(application.getInternalId()));
+    jobOfferService.incrementApplicationsCount(jobOffer, 1);
     publishEventForJobApplication(application, PublishStatus.CREATED);
     return application;
   }
 
+  /**
+   * Create job applications for a given job offer UUID in a single transaction. Applications whose email already
+   * applied for the job offer, or which repeat an email of the same request, are rejected. A job creation event is
+   * published for every created application.
+   *
+   * @param applications The job applications to be created.
+   * @param jobOfferId The UUID of the job offer.
+   * @return The result of every application, indexed by its position in the given list.
+   */
+  @Transactional(rollbackFor = Exception.class)
+  public List<BulkItemResult> createJobApplications(List<JobApplication> applications, UUID jobOfferId) {
+    if (applications.size() > MAX_BULK_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + MAX_BULK_SIZE + " job applications can be processed at once.");
+    }
+    JobOffer jobOffer = jobOfferService.getJobOfferById(jobOfferId);
+    if (jobOffer.getJobOfferStatus() == JobOfferStatus.INACTIVE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Job offer has no vacancies");
+    }
+    Set<String> takenEmails = findTakenEmails(jobOffer, applications);
+    List<BulkItemResult> results = new ArrayList<>(applications.size());
+    List<JobApplication> createdApplications = new ArrayList<>(applications.size());
+    for (int i = 0; i < applications.size(); i++) {
+      JobApplication application = applications.get(i);
+      if (!takenEmails.add(application.getCandidateEmail())) {
+        results.add(BulkItemResult.rejected(i, DUPLICATE_APPLICATION_MESSAGE));
+        continue;
+      }
+      getCreatedJobApplication(jobOffer, application);
+      createdApplications.add(application);
+      results.add(BulkItemResult.builder().index(i).id(application.getId()).status(BulkItemStatus.CREATED).build());
+    }
+    if (createdApplications.isEmpty()) {
+      return results;
+    }
+    try {
+      // Flushed together, so the inserts are sent as JDBC batches with ids taken from the pooled sequence.
+      repository.saveAll(createdApplications);
+      repository.flush();
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT,
+          "Job Applications for the given emails were created concurrently.");
+    }
+    changeStamper.jobApplicationsChanged(createdApplications.stream().map(JobApplication::getInternalId)
+        .collect(Collectors.toList()));
+    jobOfferService.incrementApplicationsCount(jobOffer, createdApplications.size());
+    createdApplications.forEach(x -> publishEventForJobApplication(x, PublishStatus.CREATED));
+    return results;
+  }
+
+  private Set<String> findTakenEmails(JobOffer jobOffer, List<JobApplication> applications) {
+    Set<String> emails = applications.stream().map(JobApplication::getCandidateEmail).collect(Collectors.toSet());
+    if (emails.isEmpty()) {
+      return new HashSet<>();
+    }
+    return new HashSet<>(repository.findCandidateEmails(jobOffer, emails));
+  }
+
   private void checkForDuplicateJobApplication(JobOffer jobOffer, JobApplication application) {
-    jobOffer.getApplications()
-        .stream()
-        .filter(x -> x.getCandidateEmail().equals(application.getCandidateEmail()))
-        .findFirst()
-        .ifPresent(x -> {
-          throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-              "Job Application for the given email already exists.");
-        });
+    if (repository.existsByJobOfferAndCandidateEmail(jobOffer, application.getCandidateEmail())) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, DUPLICATE_APPLICATION_MESSAGE);
+    }
   }
 
   private void getCreatedJobApplication(JobOffer jobOffer, JobApplication application) {
     application.setId(UUID.randomUUID());
+    // Only possible if the random UUID was requested before, but a created application must never be reported missing.
+    missingJobApplications.invalidate(application.getId());
     application.setApplicationStatus(JobApplicationStatus.APPLIED);
     application.setJobOffer(jobOffer);
     application.setCreatedTime(new Date());
@@ -74,19 +171,65 @@ public class JobApplicationServiceImpl implements JobApplicationService {
   }
 
   /**
-   * Get a job application by its UUID.
+   * Get a job application by its UUID. UUIDs found missing are remembered for a while and answered without a query.
    *
    * @param id The UUID of the job application.
    * @return The job application for the given UUID.
    */
   public JobApplication getJobApplicationById(UUID id) {
+    if (missingJobApplications.get(id) != null) {
+      throw new NotFoundException(JOB_APPLICATION_NOT_FOUND_MESSAGE);
+    }
     JobApplication application = repository.findById(id);
     if (application == null) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No Job Application found associated with the ID.");
+      missingJobApplications.put(id, Boolean.TRUE);
+      throw new NotFoundException(JOB_APPLICATION_NOT_FOUND_MESSAGE);
     }
     return application;
   }
 
+  /**
+   * Get the version of a job application without loading it. Throws Not Found Exception if the UUID has no job
+   * application.
+   *
+   * @param id The UUID of the job application.
+   * @return The version and update time of the job application.
+   */
+  @Transactional(readOnly = true)
+  public EntityVersion getJobApplicationVersion(UUID id) {
+    if (missingJobApplications.get(id) != null) {
+      throw new NotFoundException(JOB_APPLICATION_NOT_FOUND_MESSAGE);
+    }
+    EntityVersion version = repository.findVersionById(id);
+    if (version == null) {
+      missingJobApplications.put(id, Boolean.TRUE);
+      throw new NotFoundException(JOB_APPLICATION_NOT_FOUND_MESSAGE);
+    }
+    return version;
+  }
+
+  /**
+   * Get the job applications with the given UUIDs. The UUIDs are looked up with as few queries as possible, and the
+   * results are returned in the order of the given UUIDs. Throws Bad Request Exception for more than 500 UUIDs.
+   *
+   * @param ids The UUIDs of the job applications.
+   * @return The job application summary of every UUID, or null where no job application exists.
+   */
+  @Transactional(readOnly = true)
+  public List<JobApplicationSummary> getJobApplicationsByIds(List<UUID> ids) {
+    if (ids.size() > MAX_LOOKUP_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + MAX_LOOKUP_SIZE + " job applications can be fetched at once.");
+    }
+    List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    Map<UUID, JobApplicationSummary> applications = new HashMap<>();
+    for (int i = 0; i < distinctIds.size(); i += LOOKUP_CHUNK_SIZE) {
+      repository.findJobApplicationSummariesByIdIn(distinctIds.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE,
+          distinctIds.size()))).forEach(x -> applications.put(x.getId(), x));
+    }
+    return ids.stream().map(applications::get).collect(Collectors.toList());
+  }
+
   /**
    * Update the status of a job application. The corresponding job update event is published to the publisher.
    *
@@ -94,32 +237,149 @@ public class JobApplicationServiceImpl implements JobApplicationService {
    * @param status The status to update for the application.
    * @return The updated job application.
    */
+  @Transactional(rollbackFor = Exception.class)
   public JobApplication updateJobApplication(UUID id, JobApplicationStatus status) {
     JobApplication application = getJobApplicationById(id);
-    if (application.getJobOffer().getJobOfferStatus() == JobOfferStatus.INACTIVE) {
+    JobOffer jobOffer = application.getJobOffer();
+    if (jobOffer.getJobOfferStatus() == JobOfferStatus.INACTIVE) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Job offer is expired.");
     }
+    JobApplicationStatus previousStatus = application.getApplicationStatus();
     application.setApplicationStatus(status);
     application.setUpdatedTime(new Date());
-    application = repository.save(application);
-    publishEventForJobApplication(application, PublishStatus.UPDATED);
-    if (status == JobApplicationStatus.HIRED && application.getJobOffer().getApplications().stream()
-        .filter(x -> x.getApplicationStatus().equals(JobApplicationStatus.HIRED)).count() ==
-        application.getJobOffer().getVacancies()) {
-      // Mark job as Inactive since all vacancies are filled.
-      jobOfferService.markJobOfferInactive(application.getJobOffer());
+    try {
+      application = repository.saveAndFlush(application);
+    } catch (ObjectOptimisticLockingFailureException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Job Application was modified concurrently.");
+    }
+    changeStamper.jobApplicationsChanged(Collections.singletonList(application.getInternalId()));
+    if (status == JobApplicationStatus.HIRED && previousStatus != JobApplicationStatus.HIRED) {
+      int remainingVacancies = jobOfferService.claimVacancies(jobOffer, 1);
+      if (remainingVacancies < 0) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Job offer has no vacancies");
+      }
+      if (remainingVacancies == 0) {
+        // Mark job as Inactive since all vacancies are filled.
+        jobOfferService.markJobOfferInactive(jobOffer);
+      }
+    } else if (previousStatus == JobApplicationStatus.HIRED && status != JobApplicationStatus.HIRED) {
+      jobOfferService.releaseVacancies(jobOffer, 1);
     }
+    publishEventForJobApplication(application, PublishStatus.UPDATED);
     return application;
   }
 
+  /**
+   * Update the status of job applications in a single transaction. The vacancies and the status of every affected job
+   * offer are adjusted once, and the job update events are published as a batch.
+   *
+   * @param ids The UUIDs of the job applications.
+   * @param status The status to update for the applications.
+   * @return The result of every application, indexed by its position in the given list.
+   */
+  @Transactional(rollbackFor = Exception.class)
+  public List<BulkItemResult> updateJobApplications(List<UUID> ids, JobApplicationStatus status) {
+    if (ids.size() > MAX_BULK_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + MAX_BULK_SIZE + " job applications can be processed at once.");
+    }
+    Map<UUID, JobApplication> applications = ids.isEmpty() ? new HashMap<>()
+        : repository.findWithJobOfferByIdIn(new HashSet<>(ids)).stream()
+            .collect(Collectors.toMap(JobApplication::getId, Function.identity()));
+    BulkItemResult[] results = new BulkItemResult[ids.size()];
+    Map<UUID, Integer> positions = new HashMap<>();
+    Map<Long, List<JobApplication>> applicationsByJobOffer = new LinkedHashMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      JobApplication application = applications.get(ids.get(i));
+      if (application == null) {
+        results[i] = BulkItemResult.rejected(i, JOB_APPLICATION_NOT_FOUND_MESSAGE);
+      } else if (positions.putIfAbsent(application.getId(), i) != null) {
+        results[i] = BulkItemResult.rejected(i, "Job Application is repeated in the request.");
+      } else if (application.getJobOffer().getJobOfferStatus() == JobOfferStatus.INACTIVE) {
+        results[i] = BulkItemResult.rejected(i, "Job offer is expired.");
+      } else {
+        applicationsByJobOffer.computeIfAbsent(application.getJobOffer().getInternalId(), x -> new ArrayList<>())
+            .add(application);
+      }
+    }
+    Date updatedTime = new Date();
+    List<PublishEvent> events = new ArrayList<>();
+    for (List<JobApplication> jobOfferApplications : applicationsByJobOffer.values()) {
+      if (!adjustVacancies(jobOfferApplications.get(0).getJobOffer(), jobOfferApplications, status)) {
+        for (JobApplication application : jobOfferApplications) {
+          int index = positions.get(application.getId());
+          results[index] = BulkItemResult.rejected(index, "Job offer has no vacancies");
+        }
+        continue;
+      }
+      updateApplicationStatus(jobOfferApplications, status, updatedTime);
+      for (JobApplication application : jobOfferApplications) {
+        // The application is detached by now, so this only prepares the event data.
+        application.setApplicationStatus(status);
+        application.setUpdatedTime(updatedTime);
+        events.add(getEventForJobApplication(application, PublishStatus.UPDATED));
+        int index = positions.get(application.getId());
+        results[index] = BulkItemResult.builder()
+            .index(index)
+            .id(application.getId())
+            .status(BulkItemStatus.UPDATED)
+            .build();
+      }
+    }
+    notificationPublisher.publishEvents(events);
+    return Arrays.asList(results);
+  }
+
+  private boolean adjustVacancies(JobOffer jobOffer, List<JobApplication> applications, JobApplicationStatus status) {
+    if (status == JobApplicationStatus.HIRED) {
+      int hires = (int) applications.stream().filter(x -> x.getApplicationStatus() != JobApplicationStatus.HIRED)
+          .count();
+      if (hires == 0) {
+        return true;
+      }
+      int remainingVacancies = jobOfferService.claimVacancies(jobOffer, hires);
+      if (remainingVacancies < 0) {
+        return false;
+      }
+      if (remainingVacancies == 0) {
+        // Mark job as Inactive since all vacancies are filled.
+        jobOfferService.markJobOfferInactive(jobOffer);
+      }
+      return true;
+    }
+    int releases = (int) applications.stream().filter(x -> x.getApplicationStatus() == JobApplicationStatus.HIRED)
+        .count();
+    if (releases > 0) {
+      jobOfferService.releaseVacancies(jobOffer, releases);
+    }
+    return true;
+  }
+
+  private void updateApplicationStatus(List<JobApplication> applications, JobApplicationStatus status,
+      Date updatedTime) {
+    Map<JobApplicationStatus, List<Long>> internalIdsByStatus = applications.stream()
+        .collect(Collectors.groupingBy(JobApplication::getApplicationStatus,
+            Collectors.mapping(JobApplication::getInternalId, Collectors.toList())));
+    for (Map.Entry<JobApplicationStatus, List<Long>> entry : internalIdsByStatus.entrySet()) {
+      int updated = repository.updateApplicationStatus(entry.getValue(), entry.getKey(), status, updatedTime);
+      if (updated != entry.getValue().size()) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "Job Application was modified concurrently.");
+      }
+      changeStamper.jobApplicationsChanged(entry.getValue());
+    }
+  }
+
   private void publishEventForJobApplication(JobApplication application, PublishStatus status) {
-    PublishEvent event = PublishEvent.builder()
+    notificationPublisher.publishEvent(getEventForJobApplication(application, status));
+  }
+
+  private PublishEvent getEventForJobApplication(JobApplication application, PublishStatus status) {
+    return PublishEvent.builder()
         .id(application.getId())
         .status(status)
         .eventType(EventType.JOB_APPLICATION)
         .txnTime(application.getCreatedTime())
-        .eventData(application.toString())
+        .payload(EventPayload.of(application, status))
         .build();
-    notificationPublisher.publishEvent(event);
   }
 }
@@ -0,0 +1,169 @@
+package com.example.jobs.service.impl;
+
+import com.example.jobs.config.SearchProperties;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PageCursor;
+import com.example.jobs.domain.SearchCursor;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobOfferSearchPage;
+import com.example.jobs.domain.projection.JobOfferSearchResult;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.search.JobOfferIndex;
+import com.example.jobs.search.SearchHit;
+import com.example.jobs.service.JobOfferSearchService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+@Service
+public class JobOfferSearchServiceImpl implements JobOfferSearchService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JobOfferSearchServiceImpl.class);
+
+  private static final int MAX_QUERY_TERMS = 16;
+
+  private static final int MAX_SEARCH_LIMIT = 100;
+
+  private static final int REFRESH_BATCH_SIZE = 1000;
+
+  @Autowired
+  private JobOfferRepository repository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private SearchProperties properties;
+
+  private final JobOfferIndex index = new JobOfferIndex();
+
+  private PageCursor indexedUntil = PageCursor.of(new Date(0), 0L);
+
+  private Timer searchLatency;
+
+  /**
+   * Register the metrics and build the search index from all job offers.
+   */
+  @PostConstruct
+  public void start() {
+    Gauge.builder("search.index.size", index, JobOfferIndex::size)
+        .description("Number of job offers in the search index")
+        .register(meterRegistry);
+    searchLatency = Timer.builder("search.latency")
+        .description("Time taken to search the index and load the job offers found")
+        .register(meterRegistry);
+    refresh();
+  }
+
+  /**
+   * Search job offers of a given status by the words of their title, description and location. Only job offers
+   * containing every word of the query are found, best matches first. The index is searched in memory, and only the
+   * job offers of the requested page are queried. A full page of hits carries the cursor of its last hit, even if a
+   * job offer of the page is missing from the database. Throws Bad Request Exception for a query without words or with
+   * more than 16 words, or for a limit above 100.
+   *
+   * @param query The words to be searched for.
+   * @param status The status of the job offers.
+   * @param limit The number of results to be returned.
+   * @param cursor The position after which the results start, or null for the first page.
+   * @return The job offers found, with their scores, and the cursor of the next page.
+   */
+  public JobOfferSearchPage searchJobOffers(String query, JobOfferStatus status, int limit, SearchCursor cursor) {
+    List<String> terms = JobOfferIndex.tokenize(query);
+    if (terms.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The search query must contain at least one word.");
+    }
+    if (terms.size() > MAX_QUERY_TERMS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "The search query can contain at most " + MAX_QUERY_TERMS + " words.");
+    }
+    if (limit > MAX_SEARCH_LIMIT) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + MAX_SEARCH_LIMIT + " job offers can be searched for at once.");
+    }
+    long start = System.nanoTime();
+    try {
+      List<SearchHit> hits = index.search(terms, status, limit, cursor);
+      if (hits.isEmpty()) {
+        return new JobOfferSearchPage(Collections.emptyList(), null);
+      }
+      Map<UUID, JobOfferSummary> jobOffers = repository.findJobOfferSummariesByIdIn(hits.stream()
+          .map(SearchHit::getId).collect(Collectors.toList())).stream()
+          .collect(Collectors.toMap(JobOfferSummary::getId, Function.identity()));
+      List<JobOfferSearchResult> results = new ArrayList<>(hits.size());
+      for (SearchHit hit : hits) {
+        JobOfferSummary jobOffer = jobOffers.get(hit.getId());
+        if (jobOffer != null) {
+          results.add(new JobOfferSearchResult(jobOffer, hit.getScore()));
+        }
+      }
+      SearchHit last = hits.get(hits.size() - 1);
+      SearchCursor nextCursor = hits.size() == limit
+          ? SearchCursor.of(last.getScore(), last.getInternalId(), last.getGeneration()) : null;
+      return new JobOfferSearchPage(results, nextCursor);
+    } finally {
+      searchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Add a created job offer to the search index, or update the status of an indexed job offer.
+   *
+   * @param offer The job offer.
+   */
+  public void indexJobOffer(JobOffer offer) {
+    index.put(offer.getInternalId(), offer.getId(), offer.getJobOfferStatus(), offer.getJobTitle(),
+        offer.getJobDescription(), offer.getLocation());
+  }
+
+  /**
+   * Add the job offers changed since the last refresh to the search index, in the order they were changed. Changes made
+   * by this instance are indexed as they commit, so this only catches up with the other instances.
+   */
+  @Scheduled(fixedDelayString = "${search.refresh-interval-millis:5000}")
+  public synchronized void refresh() {
+    try {
+      long now = repository.findDatabaseTime().getTime();
+      PageCursor position = indexedUntil;
+      List<JobOfferSummary> jobOffers;
+      do {
+        jobOffers = repository.findJobOfferSummariesUpdatedAfter(position.getTimestamp(), position.getInternalId(),
+            new Date(now), OffsetPageRequest.of(REFRESH_BATCH_SIZE, 0));
+        for (JobOfferSummary jobOffer : jobOffers) {
+          index.put(jobOffer.getInternalId(), jobOffer.getId(), jobOffer.getJobOfferStatus(), jobOffer.getJobTitle(),
+              jobOffer.getJobDescription(), jobOffer.getLocation());
+          position = PageCursor.of(jobOffer.getUpdatedTime(), jobOffer.getInternalId());
+        }
+      } while (jobOffers.size() == REFRESH_BATCH_SIZE);
+      // Changes of the last moment may still be joined by changes committing late with an earlier update time, so they
+      // are read again by the next refresh.
+      long settled = now - properties.getSettleMillis();
+      indexedUntil = position.getTimestamp().getTime() > settled ? PageCursor.of(new Date(settled), 0L) : position;
+    } catch (RuntimeException e) {
+      // The index keeps its position and catches up on the next run.
+      LOGGER.error("Failed to refresh the search index", e);
+    }
+  }
+
+}
@@ -1,26 +1,58 @@
 package com.example.jobs.service.impl;
 
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.cache.EncodedPage;
+import com.example.jobs.cache.JobOfferPageKey;
+import com.example.jobs.cache.SingleFlight;
+import com.example.jobs.domain.BulkItemResult;
+import com.example.jobs.domain.EventPayload;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PageCursor;
 import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.BulkItemStatus;
 import com.example.jobs.domain.enums.EventType;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
 import com.example.jobs.domain.enums.PublishStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
+import com.example.jobs.domain.projection.JobOfferSummary;
 import com.example.jobs.notification.NotificationPublisher;
+import com.example.jobs.repository.JobApplicationRepository;
 import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.service.JobOfferSearchService;
 import com.example.jobs.service.JobOfferService;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
 @Service
 public class JobOfferServiceImpl implements JobOfferService {
@@ -28,19 +60,90 @@ public class JobOfferServiceImpl implements JobOfferService {
   @Autowired
   private JobOfferRepository repository;
 
+  @Autowired
+  private JobApplicationRepository applicationRepository;
+
   @Autowired
   private NotificationPublisher notificationPublisher;
 
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private BoundedCache<UUID, JobOffer> jobOfferCache;
+
+  @Autowired
+  private BoundedCache<JobOfferPageKey, EncodedPage> jobOfferPageCache;
+
+  @Autowired
+  private BoundedCache<UUID, Boolean> missingJobOffers;
+
+  @Autowired
+  private SingleFlight<UUID, JobOffer> jobOfferLoads;
+
+  @Autowired
+  private SingleFlight<JobOfferPageKey, List<JobOfferSummary>> jobOfferPageLoads;
+
+  @Autowired
+  private JobOfferSearchService jobOfferSearchService;
+
+  @Autowired
+  private ChangeStamper changeStamper;
+
+  private static final int MAX_BULK_SIZE = 1000;
+
+  private static final int MAX_LOOKUP_SIZE = 500;
+
+  private static final int LOOKUP_CHUNK_SIZE = 100;
+
+  private static final String JOB_OFFER_NOT_FOUND_MESSAGE = "No Job Offer found associated with the ID.";
+
   /**
    * Get all job offers by a given status. The number of results can be limited via the limit and offset fields.
+   * Concurrent calls for the same page share one query, so the returned list is unmodifiable.
    *
    * @param status The status of the job offers.
    * @param limit The number of results to be returned.
    * @param offset The number of results to be skipped initially.
-   * @return The list of job offers.
+   * @return The list of job offer summaries.
+   */
+  public List<JobOfferSummary> getAllJobOffers(JobOfferStatus status, int limit, int offset) {
+    if (limit < 1) {
+      return Collections.emptyList();
+    }
+    return coalesce(jobOfferPageLoads, new JobOfferPageKey(status, limit, offset, null), key ->
+        Collections.unmodifiableList(repository.findJobOfferSummaries(status, OffsetPageRequest.of(limit, offset))));
+  }
+
+  /**
+   * Get job offers by a given status positioned after the given cursor. The job offers are ordered by creation time and
+   * the cursor position is looked up directly, so deep pages cost as much as the first one. Concurrent calls for the
+   * same page share one query, so the returned list is unmodifiable.
+   *
+   * @param status The status of the job offers.
+   * @param limit The number of results to be returned.
+   * @param cursor The position after which the results start, or null for the first page.
+   * @return The list of job offer summaries.
    */
-  public List<JobOffer> getAllJobOffers(JobOfferStatus status, int limit, int offset) {
-    return repository.findJobOffers(status.toString(), limit, offset);
+  public List<JobOfferSummary> getAllJobOffers(JobOfferStatus status, int limit, PageCursor cursor) {
+    if (cursor == null) {
+      return getAllJobOffers(status, limit, 0);
+    }
+    if (limit < 1) {
+      return Collections.emptyList();
+    }
+    return coalesce(jobOfferPageLoads, new JobOfferPageKey(status, limit, 0, cursor.encode()), key ->
+        Collections.unmodifiableList(repository.findJobOfferSummariesAfter(status, cursor.getTimestamp(),
+            cursor.getInternalId(), OffsetPageRequest.of(limit, 0))));
+  }
+
+  private static <K, V> V coalesce(SingleFlight<K, V> flight, K key, Function<? super K, ? extends V> loader) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      // A writing transaction may read its own uncommitted changes, which must not be handed to other callers.
+      return loader.apply(key);
+    }
+    return flight.load(key, loader);
   }
 
   /**
@@ -49,37 +152,143 @@ public class JobOfferServiceImpl implements JobOfferService {
    * @param jobOffer The job offer to be created.
    * @return The created job offer.
    */
-  @Transactional(rollbackOn = Exception.class)
+  @Transactional(rollbackFor = Exception.class)
   public JobOffer createJobOffer(JobOffer jobOffer) {
-    if (repository.findByJobTitleIgnoreCase(jobOffer.getJobTitle()) != null) {
+    if (repository.existsByNormalizedJobTitle(JobOffer.normalizeJobTitle(jobOffer.getJobTitle()))) {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
           "Job offer with job title: " + jobOffer.getJobTitle() + " already exists.");
     }
     getCreatedJobOffer(jobOffer);
-    jobOffer = repository.save(jobOffer);
+    try {
+      jobOffer = repository.saveAndFlush(jobOffer);
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent creation with the same title won the race and the unique index rejected this one.
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Job offer with job title: " + jobOffer.getJobTitle() + " already exists.");
+    }
+    changeStamper.jobOfferChanged(jobOffer.getInternalId());
+    evictJobOffer(jobOffer.getId(), jobOffer.getJobOfferStatus());
+    indexJobOffer(jobOffer);
     publishEventForJobOfferCreated(jobOffer, PublishStatus.CREATED);
     return jobOffer;
   }
 
+  /**
+   * Create job offers in a single transaction. Job offers whose title is already taken, or which repeat a title of the
+   * same list, are rejected. A job creation event is published for every created job offer.
+   *
+   * @param jobOffers The job offers to be created.
+   * @return The result of every job offer, indexed by its position in the given list.
+   */
+  @Transactional(rollbackFor = Exception.class)
+  public List<BulkItemResult> createJobOffers(List<JobOffer> jobOffers) {
+    if (jobOffers.size() > MAX_BULK_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + MAX_BULK_SIZE + " job offers can be processed at once.");
+    }
+    Set<String> takenTitles = findTakenJobTitles(jobOffers);
+    List<BulkItemResult> results = new ArrayList<>(jobOffers.size());
+    List<JobOffer> createdJobOffers = new ArrayList<>(jobOffers.size());
+    for (int i = 0; i < jobOffers.size(); i++) {
+      JobOffer jobOffer = jobOffers.get(i);
+      if (!takenTitles.add(JobOffer.normalizeJobTitle(jobOffer.getJobTitle()))) {
+        results.add(BulkItemResult.rejected(i, "Job offer with job title: " + jobOffer.getJobTitle()
+            + " already exists."));
+        continue;
+      }
+      getCreatedJobOffer(jobOffer);
+      createdJobOffers.add(jobOffer);
+      results.add(BulkItemResult.builder().index(i).id(jobOffer.getId()).status(BulkItemStatus.CREATED).build());
+    }
+    if (createdJobOffers.isEmpty()) {
+      return results;
+    }
+    try {
+      // Flushed together, so the inserts are sent as JDBC batches with ids taken from the pooled sequence.
+      repository.saveAll(createdJobOffers);
+      repository.flush();
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT,
+          "Job offers with the given job titles were created concurrently.");
+    }
+    createdJobOffers.forEach(x -> changeStamper.jobOfferChanged(x.getInternalId()));
+    // Evicted and indexed together, so the pages are invalidated once and one synchronization indexes the whole list.
+    evictJobOffers(createdJobOffers.stream().map(JobOffer::getId).collect(Collectors.toList()),
+        JobOfferStatus.ACTIVE);
+    indexJobOffers(createdJobOffers);
+    createdJobOffers.forEach(x -> publishEventForJobOfferCreated(x, PublishStatus.CREATED));
+    return results;
+  }
+
+  private Set<String> findTakenJobTitles(List<JobOffer> jobOffers) {
+    Set<String> titles = jobOffers.stream().map(x -> JobOffer.normalizeJobTitle(x.getJobTitle()))
+        .collect(Collectors.toSet());
+    if (titles.isEmpty()) {
+      return new HashSet<>();
+    }
+    return new HashSet<>(repository.findNormalizedJobTitles(titles));
+  }
+
   private void getCreatedJobOffer(JobOffer jobOffer) {
     jobOffer.setId(UUID.randomUUID());
+    // Only possible if the random UUID was requested before, but a created job offer must never be reported missing.
+    missingJobOffers.invalidate(jobOffer.getId());
     jobOffer.setJobOfferStatus(JobOfferStatus.ACTIVE);
     jobOffer.setCreatedTime(new Date());
     jobOffer.setUpdatedTime(new Date());
   }
 
   /**
-   * Get a job offer by the given UUID. Throws Not Found Exception if the job offer Id doesn't exist.
+   * Get a job offer by the given UUID. Throws Not Found Exception if the job offer Id doesn't exist. UUIDs found
+   * missing are remembered for a while and answered without a query.
    *
    * @param id The job offer UUID to be fetched.
    * @return The job offer for the given UUID.
    */
   public JobOffer getJobOfferById(UUID id) {
-    JobOffer offer = repository.findById(id);
+    if (missingJobOffers.get(id) != null) {
+      throw new NotFoundException(JOB_OFFER_NOT_FOUND_MESSAGE);
+    }
+    JobOffer offer = jobOfferCache.get(id, key -> coalesce(jobOfferLoads, key, this::loadJobOffer));
     if (offer == null) {
-      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No Job Offer found associated with the ID.");
+      missingJobOffers.put(id, Boolean.TRUE);
+      throw new NotFoundException(JOB_OFFER_NOT_FOUND_MESSAGE);
+    }
+    return copyOf(offer);
+  }
+
+  private JobOffer loadJobOffer(UUID id) {
+    JobOffer offer = repository.findById(id);
+    return offer == null ? null : copyOf(offer);
+  }
+
+  private static JobOffer copyOf(JobOffer offer) {
+    // Every caller gets its own detached copy, so the cached job offer is never changed or tied to a session.
+    JobOffer copy = new JobOffer();
+    BeanUtils.copyProperties(offer, copy, "applications");
+    return copy;
+  }
+
+  /**
+   * Get the job offers with the given UUIDs. The UUIDs are looked up with as few queries as possible, and the results
+   * are returned in the order of the given UUIDs. Throws Bad Request Exception for more than 500 UUIDs.
+   *
+   * @param ids The UUIDs of the job offers.
+   * @return The job offer summary of every UUID, or null where no job offer exists.
+   */
+  @Transactional(readOnly = true)
+  public List<JobOfferSummary> getJobOffersByIds(List<UUID> ids) {
+    if (ids.size() > MAX_LOOKUP_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "At most " + MAX_LOOKUP_SIZE + " job offers can be fetched at once.");
     }
-    return offer;
+    List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+    Map<UUID, JobOfferSummary> jobOffers = new HashMap<>();
+    for (int i = 0; i < distinctIds.size(); i += LOOKUP_CHUNK_SIZE) {
+      repository.findJobOfferSummariesByIdIn(distinctIds.subList(i, Math.min(i + LOOKUP_CHUNK_SIZE,
+          distinctIds.size()))).forEach(x -> jobOffers.put(x.getId(), x));
+    }
+    return ids.stream().map(jobOffers::get).collect(Collectors.toList());
   }
 
   /**
@@ -90,28 +299,187 @@ public class JobOfferServiceImpl implements JobOfferService {
    * @param status The status of the applications.
    * @param limit The number of results to be fetched.
    * @param offset The number of results to be skipped initially.
-   * @return The list of job applications.
+   * @return The list of job application summaries.
    */
-  public List<JobApplication> getJobApplicationsByJobOfferId(UUID id, JobApplicationStatus status, int limit,
+  @Transactional(readOnly = true)
+  public List<JobApplicationSummary> getJobApplicationsByJobOfferId(UUID id, JobApplicationStatus status, int limit,
       int offset) {
-    JobOffer jobOffer = getJobOfferById(id);
-    return jobOffer.getApplications().stream()
-        .filter(x -> x.getApplicationStatus().equals(status))
-        .skip(offset)
-        .limit(limit)
-        .collect(Collectors.toList());
+    Long jobOfferInternalId = getJobOfferInternalId(id);
+    if (limit < 1) {
+      return Collections.emptyList();
+    }
+    return applicationRepository.findJobApplicationSummaries(jobOfferInternalId, status,
+        OffsetPageRequest.of(limit, offset));
   }
 
   /**
-   * Mark a given job offer as INACTIVE.
+   * Get applications for a job offer by the application status positioned after the given cursor. The applications are
+   * ordered by creation time. Throws Not Found Exception if the job offer Id doesn't exist.
+   *
+   * @param id The UUID of the job offer.
+   * @param status The status of the applications.
+   * @param limit The number of results to be fetched.
+   * @param cursor The position after which the results start, or null for the first page.
+   * @return The list of job application summaries.
+   */
+  @Transactional(readOnly = true)
+  public List<JobApplicationSummary> getJobApplicationsByJobOfferId(UUID id, JobApplicationStatus status, int limit,
+      PageCursor cursor) {
+    if (cursor == null) {
+      return getJobApplicationsByJobOfferId(id, status, limit, 0);
+    }
+    Long jobOfferInternalId = getJobOfferInternalId(id);
+    if (limit < 1) {
+      return Collections.emptyList();
+    }
+    return applicationRepository.findJobApplicationSummariesAfter(jobOfferInternalId, status,
+        cursor.getTimestamp(), cursor.getInternalId(), OffsetPageRequest.of(limit, 0));
+  }
+
+  /**
+   * Pass every application of a job offer to the given consumer, ordered by creation time. The applications are read
+   * from a forward-only cursor and detached once consumed, so the memory used doesn't grow with their number.
+   *
+   * @param offer The job offer.
+   * @param consumer Receives the job applications one by one.
+   */
+  @Transactional(readOnly = true)
+  public void exportJobApplications(JobOffer offer, Consumer<JobApplication> consumer) {
+    try (Stream<JobApplication> applications = applicationRepository.streamByJobOfferInternalId(
+        offer.getInternalId())) {
+      applications.forEach(application -> {
+        consumer.accept(application);
+        entityManager.detach(application);
+      });
+    }
+  }
+
+  private Long getJobOfferInternalId(UUID id) {
+    if (missingJobOffers.get(id) != null) {
+      throw new NotFoundException(JOB_OFFER_NOT_FOUND_MESSAGE);
+    }
+    // Only the key is needed to list the applications, so the job offer itself is not loaded.
+    Long internalId = repository.findInternalIdById(id);
+    if (internalId == null) {
+      missingJobOffers.put(id, Boolean.TRUE);
+      throw new NotFoundException(JOB_OFFER_NOT_FOUND_MESSAGE);
+    }
+    return internalId;
+  }
+
+  /**
+   * Mark a given job offer as INACTIVE. The event is only published by the caller that actually changed the status.
    *
    * @param offer The job offer to be marked INACTIVE.
    */
-  @Transactional(rollbackOn = Exception.class)
+  @Transactional(rollbackFor = Exception.class)
   public void markJobOfferInactive(JobOffer offer) {
-    offer.setJobOfferStatus(JobOfferStatus.INACTIVE);
-    offer = repository.save(offer);
-    publishEventForJobOfferCreated(offer, PublishStatus.UPDATED);
+    Date updatedTime = new Date();
+    if (repository.markInactive(offer.getInternalId(), updatedTime) == 0) {
+      return;
+    }
+    changeStamper.jobOfferChanged(offer.getInternalId());
+    evictJobOffer(offer.getId(), JobOfferStatus.ACTIVE, JobOfferStatus.INACTIVE);
+    // The status is set on a copy, so the managed entity is not flushed again with a stale version.
+    JobOffer inactiveOffer = new JobOffer();
+    BeanUtils.copyProperties(offer, inactiveOffer);
+    inactiveOffer.setJobOfferStatus(JobOfferStatus.INACTIVE);
+    inactiveOffer.setUpdatedTime(updatedTime);
+    indexJobOffer(inactiveOffer);
+    publishEventForJobOfferCreated(inactiveOffer, PublishStatus.UPDATED);
+  }
+
+  /**
+   * Increment the maintained number of applications of a job offer.
+   *
+   * @param offer The job offer which received the applications.
+   * @param count The number of applications received.
+   */
+  @Transactional(rollbackFor = Exception.class)
+  public void incrementApplicationsCount(JobOffer offer, int count) {
+    repository.addToApplicationsCount(offer.getInternalId(), count);
+    changeStamper.jobOfferChanged(offer.getInternalId());
+    evictJobOffer(offer.getId(), offer.getJobOfferStatus());
+  }
+
+  /**
+   * Atomically claim vacancies of an ACTIVE job offer for HIRED applications. Either all or none of the vacancies are
+   * claimed.
+   *
+   * @param offer The job offer.
+   * @param count The number of vacancies to be claimed.
+   * @return The number of vacancies left after the claim, or -1 if the vacancies could not be claimed.
+   */
+  @Transactional(rollbackFor = Exception.class)
+  public int claimVacancies(JobOffer offer, int count) {
+    if (repository.claimVacancies(offer.getInternalId(), count) == 0) {
+      return -1;
+    }
+    changeStamper.jobOfferChanged(offer.getInternalId());
+    evictJobOffer(offer.getId(), offer.getJobOfferStatus());
+    // The claimed row stays locked until commit, so the remaining count cannot change underneath.
+    return repository.findRemainingVacancies(offer.getInternalId());
+  }
+
+  /**
+   * Release vacancies of a job offer previously claimed for applications which are no longer HIRED.
+   *
+   * @param offer The job offer.
+   * @param count The number of vacancies to be released.
+   */
+  @Transactional(rollbackFor = Exception.class)
+  public void releaseVacancies(JobOffer offer, int count) {
+    repository.releaseVacancies(offer.getInternalId(), count);
+    changeStamper.jobOfferChanged(offer.getInternalId());
+    evictJobOffer(offer.getId(), offer.getJobOfferStatus());
+  }
+
+  private void evictJobOffer(UUID id, JobOfferStatus... statuses) {
+    evictJobOffers(Collections.singletonList(id), statuses);
+  }
+
+  private void evictJobOffers(List<UUID> ids, JobOfferStatus... statuses) {
+    // The versions of the job offers are part of the encoded pages, so every change invalidates the pages listing it.
+    Set<JobOfferStatus> pageStatuses = Arrays.stream(statuses).anyMatch(Objects::isNull)
+        ? EnumSet.allOf(JobOfferStatus.class) : EnumSet.copyOf(Arrays.asList(statuses));
+    evictJobOffersNow(ids, pageStatuses);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      // Until the change commits other transactions still read the previous state, and may cache it again.
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(int status) {
+          evictJobOffersNow(ids, pageStatuses);
+        }
+      });
+    }
+  }
+
+  private void evictJobOffersNow(List<UUID> ids, Set<JobOfferStatus> pageStatuses) {
+    for (UUID id : ids) {
+      // Running loads are forgotten first, so a caller seeing the invalidation never joins a load started before it.
+      jobOfferLoads.forget(id);
+      jobOfferCache.invalidate(id);
+    }
+    jobOfferPageLoads.forgetAll(x -> pageStatuses.contains(x.getStatus()));
+    jobOfferPageCache.invalidateAll(x -> pageStatuses.contains(x.getStatus()));
+  }
+
+  private void indexJobOffer(JobOffer offer) {
+    indexJobOffers(Collections.singletonList(offer));
+  }
+
+  private void indexJobOffers(List<JobOffer> offers) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      offers.forEach(jobOfferSearchService::indexJobOffer);
+      return;
+    }
+    // Indexed once the change commits, so a search never finds a job offer or status which is still rolled back.
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        offers.forEach(jobOfferSearchService::indexJobOffer);
+      }
+    });
   }
 
   private void publishEventForJobOfferCreated(JobOffer offer, PublishStatus status) {
@@ -120,7 +488,7 @@ public class JobOfferServiceImpl implements JobOfferService {
         .status(status)
         .eventType(EventType.JOB_OFFER)
         .txnTime(offer.getCreatedTime())
-        .eventData(offer.toString())
+        .payload(EventPayload.of(offer, status))
         .build();
     notificationPublisher.publishEvent(event);
   }
@@ -0,0 +1,22 @@
+package com.example.jobs.service.impl;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Not Found response without a stack trace. Unknown UUIDs are mostly requested by scrapers and stale links, so the
+ * stack is not walked for every request. A new instance is thrown every time, since a shared one would collect the
+ * suppressed exceptions of all requests.
+ */
+final class NotFoundException extends ResponseStatusException {
+
+  NotFoundException(String reason) {
+    super(HttpStatus.NOT_FOUND, reason);
+  }
+
+  @Override
+  public synchronized Throwable fillInStackTrace() {
+    return this;
+  }
+
+}
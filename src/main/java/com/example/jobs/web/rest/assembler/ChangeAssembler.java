@@ -0,0 +1,58 @@
+package com.example.jobs.web.rest.assembler;
+
+import com.example.jobs.domain.Change;
+import com.example.jobs.web.rest.resource.ChangeResource;
+import com.example.jobs.web.rest.resource.JobApplicationResource;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class ChangeAssembler {
+
+  @Autowired
+  private JobOfferAssembler jobOfferAssembler;
+
+  /**
+   * Convert a change to change resource.
+   *
+   * @param change The change.
+   * @return The converted change resource.
+   */
+  public ChangeResource fromChange(Change change) {
+    if (change == null) {
+      return null;
+    }
+    ChangeResource resource = ChangeResource.builder()
+        .eventType(change.getEventType())
+        .updatedTime(change.getUpdatedTime())
+        .build();
+    if (change.getJobOffer() != null) {
+      resource.setJobOfferId(change.getJobOffer().getId());
+      resource.setJobOffer(jobOfferAssembler.fromJobOfferSummary(change.getJobOffer()));
+    } else {
+      resource.setJobOfferId(change.getJobApplication().getJobOfferId());
+      JobApplicationResource application = new JobApplicationResource();
+      BeanUtils.copyProperties(change.getJobApplication(), application);
+      resource.setJobApplication(application);
+    }
+    return resource;
+  }
+
+  /**
+   * Convert a change list to change resource list.
+   *
+   * @param changes The change list to be converted.
+   * @return The converted change resource list.
+   */
+  public List<ChangeResource> fromChangeList(List<Change> changes) {
+    if (changes == null) {
+      return null;
+    }
+    return changes.stream().map(this::fromChange).collect(Collectors.toList());
+  }
+
+}
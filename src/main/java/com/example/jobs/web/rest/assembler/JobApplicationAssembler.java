@@ -1,6 +1,7 @@
 package com.example.jobs.web.rest.assembler;
 
 import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.projection.JobApplicationSummary;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Component;
@@ -53,4 +54,32 @@ public class JobApplicationAssembler {
     }
     return applications.stream().map(this::fromJobApplication).collect(Collectors.toList());
   }
+
+  /**
+   * Convert a job application summary to job application resource.
+   *
+   * @param summary The job application summary.
+   * @return The converted job application resource.
+   */
+  public JobApplicationResource fromJobApplicationSummary(JobApplicationSummary summary) {
+    if (summary == null) {
+      return null;
+    }
+    JobApplicationResource resource = new JobApplicationResource();
+    BeanUtils.copyProperties(summary, resource);
+    return resource;
+  }
+
+  /**
+   * Convert a job application summary list to job application resource list.
+   *
+   * @param summaries The job application summary list to be converted.
+   * @return The converted job application resource list.
+   */
+  public List<JobApplicationResource> fromJobApplicationSummaryList(List<JobApplicationSummary> summaries) {
+    if (summaries == null) {
+      return null;
+    }
+    return summaries.stream().map(this::fromJobApplicationSummary).collect(Collectors.toList());
+  }
 }
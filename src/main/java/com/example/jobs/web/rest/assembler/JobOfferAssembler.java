@@ -1,6 +1,7 @@
 package com.example.jobs.web.rest.assembler;
 
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.projection.JobOfferSummary;
 import com.example.jobs.web.rest.resource.JobOfferResource;
 import org.springframework.beans.BeanUtils;
 import org.springframework.http.HttpStatus;
@@ -28,7 +29,7 @@ public class JobOfferAssembler {
     }
     JobOfferResource resource = new JobOfferResource();
     BeanUtils.copyProperties(jobOffer, resource);
-    resource.setNumberOfApplications(jobOffer.getApplications() == null ? 0 : jobOffer.getApplications().size());
+    resource.setNumberOfApplications(jobOffer.getApplicationsCount());
     return resource;
   }
 
@@ -45,6 +46,35 @@ public class JobOfferAssembler {
     return jobOffers.stream().map(this::fromJobOffer).collect(Collectors.toList());
   }
 
+  /**
+   * Convert a job offer summary to job offer resource.
+   *
+   * @param summary The job offer summary.
+   * @return The converted job offer resource.
+   */
+  public JobOfferResource fromJobOfferSummary(JobOfferSummary summary) {
+    if (summary == null) {
+      return null;
+    }
+    JobOfferResource resource = new JobOfferResource();
+    BeanUtils.copyProperties(summary, resource);
+    resource.setNumberOfApplications(summary.getApplicationsCount());
+    return resource;
+  }
+
+  /**
+   * Convert a job offer summary list to job offer resource list.
+   *
+   * @param summaries The job offer summary list.
+   * @return The converted job offer resource list.
+   */
+  public List<JobOfferResource> fromJobOfferSummaryList(List<JobOfferSummary> summaries) {
+    if (summaries == null) {
+      return null;
+    }
+    return summaries.stream().map(this::fromJobOfferSummary).collect(Collectors.toList());
+  }
+
   /**
    * Convert a job offer resource to job offer domain object.
    *
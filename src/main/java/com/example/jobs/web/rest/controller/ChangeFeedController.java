@@ -0,0 +1,54 @@
+package com.example.jobs.web.rest.controller;
+
+import com.example.jobs.domain.Change;
+import com.example.jobs.domain.ChangeCursor;
+import com.example.jobs.service.ChangeFeedService;
+import com.example.jobs.web.rest.assembler.ChangeAssembler;
+import com.example.jobs.web.rest.resource.ChangeResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/jobmanagement/v1")
+public class ChangeFeedController {
+
+  @Autowired
+  private ChangeFeedService changeFeedService;
+
+  @Autowired
+  private ChangeAssembler changeAssembler;
+
+  private static final String APPLICATION_JSON_UTF8_VALUE = "application/json; charset=utf-8";
+
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  /**
+   * Get the job offers and job applications changed after the given cursor, ordered by update time. The response
+   * always carries the cursor to continue from in the X-Next-Cursor header, also when no changes are returned, so a
+   * client keeps polling with the last cursor it received.
+   *
+   * @param since The opaque cursor returned with the previous page. An empty cursor starts from the first change.
+   * @param limit The number of changes to be returned.
+   * @return The list of changes.
+   */
+  @GetMapping(value = "/changes", produces = APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<ChangeResource>> getChanges(
+      @RequestParam(name = "since", required = false) String since,
+      @RequestParam(name = "limit", defaultValue = "100", required = false) int limit
+  ) {
+    ChangeCursor cursor = ChangeCursor.decode(since);
+    List<Change> changes = changeFeedService.getChanges(cursor, limit);
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(NEXT_CURSOR_HEADER, cursor.after(changes).encode());
+    return new ResponseEntity<>(changeAssembler.fromChangeList(changes), headers, HttpStatus.OK);
+  }
+
+}
@@ -0,0 +1,90 @@
+package com.example.jobs.web.rest.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Strong entity tags of job offers and job applications. Every change of an entity increments its version, so the id
+ * and the version identify the representation without rendering it, and a matching If-None-Match can be answered
+ * before the entity is assembled and serialized.
+ */
+final class EntityTags {
+
+  private EntityTags() {
+  }
+
+  /**
+   * Get the entity tag of a single entity.
+   *
+   * @param id The UUID of the entity.
+   * @param version The version of the entity.
+   * @return The quoted entity tag.
+   */
+  static String of(UUID id, Long version) {
+    return "\"" + id + "-" + (version == null ? 0 : version) + "\"";
+  }
+
+  /**
+   * Get the entity tag of a page of entities, a digest of the ids and versions of the entities in their order.
+   *
+   * @param page The entities of the page.
+   * @param idOf Extracts the UUID of an entity.
+   * @param versionOf Extracts the version of an entity.
+   * @param <T> The type of the entities.
+   * @return The quoted entity tag.
+   */
+  static <T> String ofAll(List<T> page, Function<T, UUID> idOf, Function<T, Long> versionOf) {
+    StringBuilder versions = new StringBuilder(page.size() * 40);
+    for (T entity : page) {
+      versions.append(idOf.apply(entity)).append(':').append(versionOf.apply(entity)).append(',');
+    }
+    return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  /**
+   * Check whether an If-None-Match header matches the given entity tag, using the weak comparison required for
+   * If-None-Match.
+   *
+   * @param ifNoneMatch The value of the If-None-Match header, or null if it is absent.
+   * @param etag The quoted entity tag of the current representation.
+   * @return True if the client already has the current representation.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      String candidate = tag.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Get the validator headers of a single entity.
+   *
+   * @param etag The quoted entity tag.
+   * @param lastModified The update time of the entity, or null if unknown.
+   * @return The headers.
+   */
+  static HttpHeaders headers(String etag, Date lastModified) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.setETag(etag);
+    if (lastModified != null) {
+      headers.setLastModified(lastModified.getTime());
+    }
+    return headers;
+  }
+
+}
@@ -0,0 +1,42 @@
+package com.example.jobs.web.rest.controller;
+
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.notification.EventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping(value = "/jobmanagement/v1")
+public class EventStreamController {
+
+  @Autowired
+  private EventStream eventStream;
+
+  /**
+   * Stream the changes of job offers and job applications as Server-Sent Events. Every event is named after its event
+   * type and carries its sequence number as the event id, so a reconnecting client resumes after the last event it
+   * received via the Last-Event-ID header. A client which doesn't keep up is disconnected and has to reconnect.
+   *
+   * @param jobOfferId Only stream the changes of this job offer and its applications.
+   * @param eventType Only stream the changes of this type.
+   * @param lastEventId The id of the last event received before reconnecting.
+   * @return The event stream.
+   */
+  @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamEvents(
+      @RequestParam(name = "jobOfferId", required = false) UUID jobOfferId,
+      @RequestParam(name = "eventType", required = false) EventType eventType,
+      @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+  ) {
+    return eventStream.subscribe(jobOfferId, eventType, lastEventId);
+  }
+
+}
@@ -1,11 +1,17 @@
 package com.example.jobs.web.rest.controller;
 
+import com.example.jobs.domain.BulkItemResult;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.projection.EntityVersion;
+import com.example.jobs.domain.projection.JobApplicationSummary;
 import com.example.jobs.service.JobApplicationService;
 import com.example.jobs.web.rest.assembler.JobApplicationAssembler;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
+import com.example.jobs.web.rest.resource.JobApplicationStatusUpdateResource;
+import com.example.jobs.web.rest.resource.LookupItemResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,14 +19,23 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 
 @RestController
 @RequestMapping(value = "/jobmanagement/v1")
@@ -32,6 +47,9 @@ public class JobApplicationController {
   @Autowired
   private JobApplicationService jobApplicationService;
 
+  @Autowired
+  private Validator validator;
+
   private static final String APPLICATION_JSON_UTF8_VALUE = "application/json; charset=utf-8";
 
   /**
@@ -54,6 +72,48 @@ public class JobApplicationController {
     return new ResponseEntity<>(jobApplicationResource, HttpStatus.CREATED);
   }
 
+  /**
+   * Create job applications for a given job offer UUID in a single transaction. Every application is validated on its
+   * own, and the response holds the result of every application in the order of the request body.
+   *
+   * @param jobOfferId The UUID of the job offer.
+   * @param resources The job applications to be created.
+   * @return The result of every job application.
+   */
+  @PostMapping(value = "/applications/{jobOfferId}", consumes = APPLICATION_JSON_UTF8_VALUE,
+      produces = APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<BulkItemResult>> createJobApplications(
+      @PathVariable(name = "jobOfferId") String jobOfferId,
+      @RequestBody List<JobApplicationResource> resources
+  ) {
+    List<BulkItemResult> results = new ArrayList<>(resources.size());
+    List<JobApplication> applications = new ArrayList<>(resources.size());
+    List<Integer> positions = new ArrayList<>(resources.size());
+    for (int i = 0; i < resources.size(); i++) {
+      Set<ConstraintViolation<JobApplicationResource>> violations = validator.validate(resources.get(i));
+      if (!violations.isEmpty()) {
+        results.add(BulkItemResult.rejected(i, getViolationMessage(violations)));
+        continue;
+      }
+      applications.add(jobApplicationAssembler.toJobApplication(resources.get(i)));
+      positions.add(i);
+    }
+    for (BulkItemResult result : jobApplicationService
+        .createJobApplications(applications, UUID.fromString(jobOfferId))) {
+      result.setIndex(positions.get(result.getIndex()));
+      results.add(result);
+    }
+    results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+    return new ResponseEntity<>(results, HttpStatus.OK);
+  }
+
+  private String getViolationMessage(Set<ConstraintViolation<JobApplicationResource>> violations) {
+    return violations.stream()
+        .map(x -> x.getPropertyPath() + " " + x.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
   /**
    * Update the status of a job application.
    *
@@ -77,18 +137,67 @@ public class JobApplicationController {
   }
 
   /**
-   * Get a job application by its UUID.
+   * Update the status of job applications in a single transaction. The response holds the result of every job
+   * application in the order of the request body.
+   *
+   * @param resource The UUIDs of the job applications and the status to be updated.
+   * @return The result of every job application.
+   */
+  @PatchMapping(value = "/applications", consumes = APPLICATION_JSON_UTF8_VALUE,
+      produces = APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<BulkItemResult>> updateJobApplications(
+      @Valid @RequestBody JobApplicationStatusUpdateResource resource
+  ) {
+    List<BulkItemResult> results = jobApplicationService.updateJobApplications(resource.getIds(), resource.getStatus());
+    return new ResponseEntity<>(results, HttpStatus.OK);
+  }
+
+  /**
+   * Get a job application by its UUID. The response carries the ETag and Last-Modified of the job application. When
+   * the If-None-Match header holds the current ETag, only the version of the job application is looked up and Not
+   * Modified is returned without a body.
    *
    * @param applicationId The UUID of the job application.
+   * @param ifNoneMatch The ETags of the representations the client already has.
    * @return The job application for the given UUID.
    */
   @GetMapping(value = "/application/{applicationId}", produces = APPLICATION_JSON_UTF8_VALUE)
   public ResponseEntity<JobApplicationResource> getJobApplicationById(
-      @PathVariable(name = "applicationId") String applicationId
+      @PathVariable(name = "applicationId") String applicationId,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
   ) {
-    JobApplication application = jobApplicationService.getJobApplicationById(UUID.fromString(applicationId));
+    UUID id = UUID.fromString(applicationId);
+    if (ifNoneMatch != null) {
+      EntityVersion version = jobApplicationService.getJobApplicationVersion(id);
+      String etag = EntityTags.of(id, version.getVersion());
+      if (EntityTags.matches(ifNoneMatch, etag)) {
+        return new ResponseEntity<>(EntityTags.headers(etag, version.getUpdatedTime()), HttpStatus.NOT_MODIFIED);
+      }
+    }
+    JobApplication application = jobApplicationService.getJobApplicationById(id);
     JobApplicationResource resource = jobApplicationAssembler.fromJobApplication(application);
-    return new ResponseEntity<>(resource, HttpStatus.OK);
+    HttpHeaders headers = EntityTags.headers(EntityTags.of(id, application.getVersion()), application.getUpdatedTime());
+    return new ResponseEntity<>(resource, headers, HttpStatus.OK);
+  }
+
+  /**
+   * Get the job applications with the given UUIDs in one request. The results are in the order of the UUIDs, and a
+   * UUID without a job application is marked as not found.
+   *
+   * @param ids The UUIDs of the job applications, at most 500.
+   * @return The result of every UUID.
+   */
+  @GetMapping(value = "/applications/batch", produces = APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<LookupItemResource<JobApplicationResource>>> getJobApplicationsByIds(
+      @RequestParam(name = "ids") List<UUID> ids
+  ) {
+    List<JobApplicationSummary> applications = jobApplicationService.getJobApplicationsByIds(ids);
+    List<LookupItemResource<JobApplicationResource>> resourceList = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      resourceList.add(LookupItemResource.of(ids.get(i),
+          jobApplicationAssembler.fromJobApplicationSummary(applications.get(i))));
+    }
+    return new ResponseEntity<>(resourceList, HttpStatus.OK);
   }
 
 }
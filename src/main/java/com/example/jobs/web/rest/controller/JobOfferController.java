@@ -1,27 +1,56 @@
 package com.example.jobs.web.rest.controller;
 
-import com.example.jobs.domain.JobApplication;
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.cache.EncodedPage;
+import com.example.jobs.cache.JobOfferPageKey;
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PageCursor;
+import com.example.jobs.domain.SearchCursor;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
+import com.example.jobs.domain.projection.JobOfferSearchPage;
+import com.example.jobs.domain.projection.JobOfferSearchResult;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import com.example.jobs.service.JobOfferSearchService;
 import com.example.jobs.service.JobOfferService;
 import com.example.jobs.web.rest.assembler.JobApplicationAssembler;
 import com.example.jobs.web.rest.assembler.JobOfferAssembler;
+import com.example.jobs.web.rest.export.ExportFormat;
+import com.example.jobs.web.rest.export.JobApplicationExportWriter;
+import com.example.jobs.web.rest.imports.JobOfferImportReader;
+import com.example.jobs.web.rest.imports.JobOfferImporter;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
 import com.example.jobs.web.rest.resource.JobOfferResource;
+import com.example.jobs.web.rest.resource.LookupItemResource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.validation.Valid;
 
@@ -38,25 +67,108 @@ public class JobOfferController {
   @Autowired
   private JobApplicationAssembler jobApplicationAssembler;
 
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private JobOfferImporter jobOfferImporter;
+
+  @Autowired
+  private JobOfferSearchService jobOfferSearchService;
+
+  @Autowired
+  private BoundedCache<JobOfferPageKey, EncodedPage> jobOfferPageCache;
+
   private static final String APPLICATION_JSON_UTF8_VALUE = "application/json; charset=utf-8";
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static final String NDJSON_VALUE = "application/x-ndjson";
+
+  private static final String CSV_VALUE = "text/csv";
+
   /**
-   * Get all job offers by a given status. The number of results can be limited via the limit and offset fields.
+   * Get all job offers by a given status. The number of results can be limited via the limit and offset fields. When a
+   * cursor is given, the offset is ignored and the results start right after the cursor position. A full page carries
+   * the cursor of the next page in the X-Next-Cursor header. The response carries an ETag of the page, and Not Modified
+   * is returned without a body when the If-None-Match header holds it. Pages are cached already encoded, until a job
+   * offer of the status changes, so the model of the body is declared for the API docs.
    *
    * @param status The status of the job offers.
    * @param limit The number of results to be returned.
    * @param offset The number of results to be skipped initially.
+   * @param cursor The opaque cursor returned with the previous page. An empty cursor starts from the first page.
+   * @param ifNoneMatch The ETags of the representations the client already has.
    * @return The list of job offers.
    */
   @GetMapping(value = "/joboffers", produces = APPLICATION_JSON_UTF8_VALUE)
-  public ResponseEntity<List<JobOfferResource>> getAllJobOffers(
+  @ApiResponses({
+      @ApiResponse(code = 200, message = "OK", response = JobOfferResource.class, responseContainer = "List"),
+      @ApiResponse(code = 304, message = "Not Modified")
+  })
+  public ResponseEntity<byte[]> getAllJobOffers(
       @RequestParam(name = "status", defaultValue = "ACTIVE", required = false) JobOfferStatus status,
       @RequestParam(name = "limit", defaultValue = "10", required = false) int limit,
-      @RequestParam(name = "offset", defaultValue = "0", required = false) int offset
+      @RequestParam(name = "offset", defaultValue = "0", required = false) int offset,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
   ) {
-    List<JobOffer> jobOffers = jobOfferService.getAllJobOffers(status, limit, offset);
-    List<JobOfferResource> resourceList = jobOfferAssembler.fromJobOfferList(jobOffers);
-    return new ResponseEntity<>(resourceList, HttpStatus.OK);
+    JobOfferPageKey key = new JobOfferPageKey(status, limit, cursor == null ? offset : 0, cursor);
+    EncodedPage page = jobOfferPageCache.get(key, this::loadJobOfferPage);
+    HttpHeaders headers = new HttpHeaders();
+    headers.setETag(page.getEtag());
+    if (page.getNextCursor() != null) {
+      headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    if (EntityTags.matches(ifNoneMatch, page.getEtag())) {
+      return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
+    return new ResponseEntity<>(page.getBody(), headers, HttpStatus.OK);
+  }
+
+  private EncodedPage loadJobOfferPage(JobOfferPageKey key) {
+    List<JobOfferSummary> jobOffers = key.getCursor() == null
+        ? jobOfferService.getAllJobOffers(key.getStatus(), key.getLimit(), key.getOffset())
+        : jobOfferService.getAllJobOffers(key.getStatus(), key.getLimit(), PageCursor.decode(key.getCursor()));
+    List<JobOfferResource> resourceList = jobOfferAssembler.fromJobOfferSummaryList(jobOffers);
+    byte[] body;
+    try {
+      body = objectMapper.writeValueAsBytes(resourceList);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Failed to encode job offers", e);
+    }
+    String nextCursor = getNextCursorHeaders(jobOffers, key.getLimit(),
+        x -> PageCursor.of(x.getCreatedTime(), x.getInternalId()).encode()).getFirst(NEXT_CURSOR_HEADER);
+    return new EncodedPage(body, EntityTags.ofAll(jobOffers, JobOfferSummary::getId, JobOfferSummary::getVersion),
+        nextCursor);
+  }
+
+  /**
+   * Search job offers of a given status by the words of their title, description and location. Only job offers
+   * containing every word of the query are found, best matches first. A full page of hits carries the cursor of the
+   * next page in the X-Next-Cursor header.
+   *
+   * @param query The words to be searched for.
+   * @param status The status of the job offers.
+   * @param limit The number of results to be returned, at most 100.
+   * @param cursor The opaque cursor returned with the previous page. An empty cursor starts from the first page.
+   * @return The list of job offers found.
+   */
+  @GetMapping(value = "/joboffers/search", produces = APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<JobOfferResource>> searchJobOffers(
+      @RequestParam(name = "q") String query,
+      @RequestParam(name = "status", defaultValue = "ACTIVE", required = false) JobOfferStatus status,
+      @RequestParam(name = "limit", defaultValue = "10", required = false) int limit,
+      @RequestParam(name = "cursor", required = false) String cursor
+  ) {
+    JobOfferSearchPage page = jobOfferSearchService.searchJobOffers(query, status, limit, SearchCursor.decode(cursor));
+    HttpHeaders headers = new HttpHeaders();
+    if (page.getNextCursor() != null) {
+      headers.set(NEXT_CURSOR_HEADER, page.getNextCursor().encode());
+    }
+    List<JobOfferResource> resourceList = jobOfferAssembler.fromJobOfferSummaryList(page.getResults().stream()
+        .map(JobOfferSearchResult::getJobOffer).collect(Collectors.toList()));
+    return new ResponseEntity<>(resourceList, headers, HttpStatus.OK);
   }
 
   /**
@@ -75,28 +187,83 @@ public class JobOfferController {
   }
 
   /**
-   * Get a job offer by the given UUID.
+   * Import job offers from an NDJSON body, or from a CSV body with the columns jobTitle, jobDescription, location,
+   * startDate and vacancies in its header row. The body is read and the job offers are created while the import is
+   * running, chunk by chunk. The response is an NDJSON line per chunk with the number of rows processed, created and
+   * rejected so far and the errors of the rejected rows, the last line marked as done.
+   *
+   * @param contentType The format of the body, application/x-ndjson or text/csv.
+   * @param body The job offers to be imported.
+   * @return The body writing the progress of the import.
+   * @throws IOException If the CSV header row cannot be read.
+   */
+  @PostMapping(value = "/joboffers/import", consumes = {NDJSON_VALUE, CSV_VALUE}, produces = NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> importJobOffers(
+      @RequestHeader(name = HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body
+  ) throws IOException {
+    ExportFormat format = ExportFormat.of(MediaType.parseMediaType(contentType));
+    // Created up front, so a body without a valid CSV header is rejected with a 400.
+    JobOfferImportReader reader = new JobOfferImportReader(body, format, objectMapper);
+    StreamingResponseBody progress = out -> jobOfferImporter.importJobOffers(reader, out);
+    return ResponseEntity.ok().contentType(ExportFormat.NDJSON.getMediaType()).body(progress);
+  }
+
+  /**
+   * Get a job offer by the given UUID. The response carries the ETag and Last-Modified of the job offer, and Not
+   * Modified is returned without a body when the If-None-Match header holds the current ETag.
    *
    * @param jobOfferId The job offer UUID to be fetched.
+   * @param ifNoneMatch The ETags of the representations the client already has.
    * @return The job offer for the given UUID.
    */
   @GetMapping(value = "/joboffer/{id}", produces = APPLICATION_JSON_UTF8_VALUE)
   public ResponseEntity<JobOfferResource> getJobOfferById(
-      @PathVariable(name = "id") String jobOfferId
+      @PathVariable(name = "id") String jobOfferId,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
   ) {
-    JobOffer jobOffer = jobOfferService.getJobOfferById(UUID.fromString(jobOfferId));
+    UUID id = UUID.fromString(jobOfferId);
+    // Served from the job offer cache, so validating the ETag costs no query.
+    JobOffer jobOffer = jobOfferService.getJobOfferById(id);
+    String etag = EntityTags.of(id, jobOffer.getVersion());
+    HttpHeaders headers = EntityTags.headers(etag, jobOffer.getUpdatedTime());
+    if (EntityTags.matches(ifNoneMatch, etag)) {
+      return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
     JobOfferResource resource = jobOfferAssembler.fromJobOffer(jobOffer);
-    return new ResponseEntity<>(resource, HttpStatus.OK);
+    return new ResponseEntity<>(resource, headers, HttpStatus.OK);
+  }
+
+  /**
+   * Get the job offers with the given UUIDs in one request. The results are in the order of the UUIDs, and a UUID
+   * without a job offer is marked as not found.
+   *
+   * @param ids The UUIDs of the job offers, at most 500.
+   * @return The result of every UUID.
+   */
+  @GetMapping(value = "/joboffers/batch", produces = APPLICATION_JSON_UTF8_VALUE)
+  public ResponseEntity<List<LookupItemResource<JobOfferResource>>> getJobOffersByIds(
+      @RequestParam(name = "ids") List<UUID> ids
+  ) {
+    List<JobOfferSummary> jobOffers = jobOfferService.getJobOffersByIds(ids);
+    List<LookupItemResource<JobOfferResource>> resourceList = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      resourceList.add(LookupItemResource.of(ids.get(i), jobOfferAssembler.fromJobOfferSummary(jobOffers.get(i))));
+    }
+    return new ResponseEntity<>(resourceList, HttpStatus.OK);
   }
 
   /**
    * Get all applications for a job offer by the application status. The results can be fetched via the limit and offset
-   * parameters.
+   * parameters, or via the cursor returned in the X-Next-Cursor header of the previous page. The response carries an
+   * ETag of the page, and Not Modified is returned without a body when the If-None-Match header holds it.
    *
    * @param jobOfferId The UUID of the job offer.
    * @param applicationStatus The status of the applications.
    * @param limit The number of results to be fetched.
    * @param offset The number of results to be skipped initially.
+   * @param cursor The opaque cursor returned with the previous page. An empty cursor starts from the first page.
+   * @param ifNoneMatch The ETags of the representations the client already has.
    * @return The list of job applications.
    */
   @GetMapping(value = "/joboffer/{jobOfferId}/applications", produces = APPLICATION_JSON_UTF8_VALUE)
@@ -105,11 +272,57 @@ public class JobOfferController {
       @RequestParam(name = "applicationStatus", required = false, defaultValue = "APPLIED")
           JobApplicationStatus applicationStatus,
       @RequestParam(name = "limit", required = false, defaultValue = "10") int limit,
-      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset
+      @RequestParam(name = "offset", required = false, defaultValue = "0") int offset,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
   ) {
-    List<JobApplication> applications = jobOfferService
-        .getJobApplicationsByJobOfferId(UUID.fromString(jobOfferId), applicationStatus, limit, offset);
-    List<JobApplicationResource> resourceList = jobApplicationAssembler.fromJobApplicationList(applications);
-    return new ResponseEntity<>(resourceList, HttpStatus.OK);
+    List<JobApplicationSummary> applications = cursor == null
+        ? jobOfferService.getJobApplicationsByJobOfferId(UUID.fromString(jobOfferId), applicationStatus, limit, offset)
+        : jobOfferService.getJobApplicationsByJobOfferId(UUID.fromString(jobOfferId), applicationStatus, limit,
+            PageCursor.decode(cursor));
+    HttpHeaders headers = getNextCursorHeaders(applications, limit,
+        x -> PageCursor.of(x.getCreatedTime(), x.getInternalId()).encode());
+    headers.setETag(EntityTags.ofAll(applications, JobApplicationSummary::getId, JobApplicationSummary::getVersion));
+    if (EntityTags.matches(ifNoneMatch, headers.getETag())) {
+      return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
+    List<JobApplicationResource> resourceList = jobApplicationAssembler.fromJobApplicationSummaryList(applications);
+    return new ResponseEntity<>(resourceList, headers, HttpStatus.OK);
+  }
+
+  /**
+   * Export all applications of a job offer, ordered by creation time. The applications are streamed to the client as
+   * they are read from the database, so offers with any number of applications can be exported in one request.
+   *
+   * @param jobOfferId The UUID of the job offer.
+   * @param format The format of the export, NDJSON or CSV.
+   * @return The body writing the job applications.
+   */
+  @GetMapping(value = "/joboffer/{jobOfferId}/applications/export")
+  public ResponseEntity<StreamingResponseBody> exportJobApplications(
+      @PathVariable(name = "jobOfferId") String jobOfferId,
+      @RequestParam(name = "format", required = false, defaultValue = "NDJSON") ExportFormat format
+  ) {
+    // Looked up before the body is streamed, so an unknown job offer still gets a 404.
+    JobOffer jobOffer = jobOfferService.getJobOfferById(UUID.fromString(jobOfferId));
+    StreamingResponseBody body = out -> {
+      JobApplicationExportWriter writer = new JobApplicationExportWriter(out, format, objectMapper,
+          jobApplicationAssembler);
+      jobOfferService.exportJobApplications(jobOffer, writer::write);
+      writer.finish();
+    };
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(format.getMediaType());
+    headers.setContentDisposition(ContentDisposition.builder("attachment")
+        .filename("applications-" + jobOfferId + "." + format.getExtension()).build());
+    return new ResponseEntity<>(body, headers, HttpStatus.OK);
+  }
+
+  private <T> HttpHeaders getNextCursorHeaders(List<T> page, int limit, Function<T, String> cursorOf) {
+    HttpHeaders headers = new HttpHeaders();
+    if (limit > 0 && page.size() == limit) {
+      headers.set(NEXT_CURSOR_HEADER, cursorOf.apply(page.get(page.size() - 1)));
+    }
+    return headers;
   }
 }
@@ -0,0 +1,54 @@
+package com.example.jobs.web.rest.export;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The line based formats data can be exported and imported in.
+ */
+public enum ExportFormat {
+
+  /**
+   * One JSON object per line.
+   */
+  NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+  /**
+   * Comma separated values with a header row, quoted as in RFC 4180.
+   */
+  CSV(MediaType.parseMediaType("text/csv; charset=utf-8"), "csv");
+
+  private final MediaType mediaType;
+
+  private final String extension;
+
+  ExportFormat(MediaType mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  /**
+   * Get the format of the given media type.
+   *
+   * @param mediaType The media type, parameters such as the charset are ignored.
+   * @return The format.
+   */
+  public static ExportFormat of(MediaType mediaType) {
+    for (ExportFormat format : values()) {
+      if (format.mediaType.isCompatibleWith(mediaType)) {
+        return format;
+      }
+    }
+    throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported media type " + mediaType + ".");
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+
+}
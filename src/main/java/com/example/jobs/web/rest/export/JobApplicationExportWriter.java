@@ -0,0 +1,106 @@
+package com.example.jobs.web.rest.export;
+
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.web.rest.assembler.JobApplicationAssembler;
+import com.example.jobs.web.rest.resource.JobApplicationResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes job applications to a response body one row at a time. Nothing but the current row is held in memory, and
+ * the rows are flushed to the client in small groups so it receives them while the export is still running.
+ */
+public class JobApplicationExportWriter {
+
+  static final int FLUSH_ROWS = 100;
+
+  private static final String CSV_HEADER = "id,candidateEmail,applicationStatus,resumeText";
+
+  private final Writer writer;
+
+  private final ExportFormat format;
+
+  private final ObjectWriter jsonWriter;
+
+  private final JobApplicationAssembler assembler;
+
+  private int rows;
+
+  /**
+   * Create a writer and write the header row, if the format has one.
+   *
+   * @param out The response body.
+   * @param format The format of the rows.
+   * @param objectMapper The mapper used to write NDJSON rows.
+   * @param assembler The assembler converting the job applications to resources.
+   * @throws IOException If the header row cannot be written.
+   */
+  public JobApplicationExportWriter(OutputStream out, ExportFormat format, ObjectMapper objectMapper,
+      JobApplicationAssembler assembler) throws IOException {
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    this.format = format;
+    this.jsonWriter = objectMapper.writerFor(JobApplicationResource.class);
+    this.assembler = assembler;
+    if (format == ExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write("\r\n");
+    }
+  }
+
+  /**
+   * Write a job application as the next row.
+   *
+   * @param application The job application.
+   */
+  public void write(JobApplication application) {
+    try {
+      if (format == ExportFormat.NDJSON) {
+        writer.write(jsonWriter.writeValueAsString(assembler.fromJobApplication(application)));
+        writer.write('\n');
+      } else {
+        writeCsvField(String.valueOf(application.getId()));
+        writer.write(',');
+        writeCsvField(application.getCandidateEmail());
+        writer.write(',');
+        writeCsvField(String.valueOf(application.getApplicationStatus()));
+        writer.write(',');
+        writeCsvField(application.getResumeText());
+        writer.write("\r\n");
+      }
+      if (++rows % FLUSH_ROWS == 0) {
+        writer.flush();
+      }
+    } catch (IOException e) {
+      // Usually the client went away, which ends the export.
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Flush the remaining rows to the client.
+   *
+   * @throws IOException If the rows cannot be written.
+   */
+  public void finish() throws IOException {
+    writer.flush();
+  }
+
+  private void writeCsvField(String value) throws IOException {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      writer.write(value);
+      return;
+    }
+    writer.write('"');
+    writer.write(value.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+}
@@ -0,0 +1,175 @@
+package com.example.jobs.web.rest.imports;
+
+import com.example.jobs.web.rest.export.ExportFormat;
+import com.example.jobs.web.rest.resource.JobOfferResource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Reads job offers from a request body one row at a time, either as newline delimited JSON or as CSV with a header
+ * row. A row which cannot be parsed is returned with an error instead of ending the import. Blank lines are skipped
+ * and not counted as rows.
+ */
+public class JobOfferImportReader {
+
+  private static final List<String> CSV_COLUMNS =
+      Arrays.asList("jobTitle", "jobDescription", "location", "startDate", "vacancies");
+
+  private final BufferedReader reader;
+
+  private final ExportFormat format;
+
+  private final ObjectReader jsonReader;
+
+  private final int[] columnPositions = new int[CSV_COLUMNS.size()];
+
+  private int columnCount;
+
+  private int index;
+
+  /**
+   * Create a reader, and read the header row if the format has one.
+   *
+   * @param in The request body, encoded in UTF-8.
+   * @param format The format of the rows.
+   * @param objectMapper The mapper used to read NDJSON rows.
+   * @throws IOException If the header row cannot be read.
+   */
+  public JobOfferImportReader(InputStream in, ExportFormat format, ObjectMapper objectMapper) throws IOException {
+    this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    this.format = format;
+    this.jsonReader = objectMapper.readerFor(JobOfferResource.class);
+    if (format == ExportFormat.CSV) {
+      readHeader();
+    }
+  }
+
+  /**
+   * Read the next row.
+   *
+   * @return The row, or null at the end of the body.
+   * @throws IOException If the body cannot be read.
+   */
+  public Row next() throws IOException {
+    if (format == ExportFormat.NDJSON) {
+      String line;
+      do {
+        line = reader.readLine();
+        if (line == null) {
+          return null;
+        }
+      } while (line.trim().isEmpty());
+      int rowIndex = index++;
+      try {
+        return new Row(rowIndex, jsonReader.readValue(line), null);
+      } catch (JsonProcessingException e) {
+        return new Row(rowIndex, null, "Malformed JSON: " + e.getOriginalMessage());
+      }
+    }
+    List<String> fields;
+    do {
+      fields = readRecord();
+      if (fields == null) {
+        return null;
+      }
+    } while (fields.size() == 1 && fields.get(0).trim().isEmpty());
+    int rowIndex = index++;
+    if (fields.size() != columnCount) {
+      return new Row(rowIndex, null, "Row has " + fields.size() + " columns, expected " + columnCount + ".");
+    }
+    try {
+      return new Row(rowIndex, JobOfferResource.builder()
+          .jobTitle(fields.get(columnPositions[0]))
+          .jobDescription(fields.get(columnPositions[1]))
+          .location(fields.get(columnPositions[2]))
+          .startDate(fields.get(columnPositions[3]))
+          .vacancies(Integer.parseInt(fields.get(columnPositions[4]).trim()))
+          .build(), null);
+    } catch (NumberFormatException e) {
+      return new Row(rowIndex, null, "vacancies must be a number");
+    }
+  }
+
+  private void readHeader() throws IOException {
+    List<String> header = readRecord();
+    if (header == null) {
+      header = new ArrayList<>();
+    }
+    for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+      columnPositions[i] = header.indexOf(CSV_COLUMNS.get(i));
+      if (columnPositions[i] < 0) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+            "The CSV header must contain the columns " + String.join(",", CSV_COLUMNS) + ".");
+      }
+    }
+    columnCount = header.size();
+  }
+
+  /**
+   * Read a CSV record as in RFC 4180. Quoted fields may contain separators, line breaks and doubled quotes.
+   */
+  private List<String> readRecord() throws IOException {
+    int c = reader.read();
+    if (c == -1) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (c != -1) {
+      if (quoted) {
+        if (c == '"') {
+          c = reader.read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+        }
+        field.append((char) c);
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n') {
+        break;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+      c = reader.read();
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * A row of the body. Either the job offer or the error is set.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class Row {
+
+    private final int index;
+
+    private final JobOfferResource resource;
+
+    private final String error;
+
+  }
+
+}
@@ -0,0 +1,148 @@
+package com.example.jobs.web.rest.imports;
+
+import com.example.jobs.domain.BulkItemResult;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.BulkItemStatus;
+import com.example.jobs.service.JobOfferService;
+import com.example.jobs.web.rest.assembler.JobOfferAssembler;
+import com.example.jobs.web.rest.resource.ImportProgressResource;
+import com.example.jobs.web.rest.resource.JobOfferResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+/**
+ * Imports job offers row by row. The rows are validated as they are read and created in chunks, every chunk in its own
+ * transaction, so only one chunk is held in memory and a failing chunk doesn't undo the chunks before it. The progress
+ * and the rejected rows of every chunk are written as one NDJSON line as soon as the chunk is done.
+ */
+@Component
+public class JobOfferImporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JobOfferImporter.class);
+
+  static final int CHUNK_SIZE = 1000;
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private JobOfferAssembler jobOfferAssembler;
+
+  @Autowired
+  private Validator validator;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  /**
+   * Import all rows of the reader.
+   *
+   * @param reader The reader of the request body.
+   * @param out The response body the progress is written to.
+   * @throws IOException If the request body cannot be read or the progress cannot be written.
+   */
+  public void importJobOffers(JobOfferImportReader reader, OutputStream out) throws IOException {
+    ObjectWriter progressWriter = objectMapper.writerFor(ImportProgressResource.class);
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    ImportProgressResource progress = new ImportProgressResource();
+    List<JobOffer> chunk = new ArrayList<>(CHUNK_SIZE);
+    List<Integer> positions = new ArrayList<>(CHUNK_SIZE);
+    List<BulkItemResult> errors = new ArrayList<>();
+    JobOfferImportReader.Row row;
+    while ((row = reader.next()) != null) {
+      JobOffer jobOffer = toJobOffer(row, errors);
+      if (jobOffer != null) {
+        chunk.add(jobOffer);
+        positions.add(row.getIndex());
+      }
+      progress.setProcessed(progress.getProcessed() + 1);
+      if (progress.getProcessed() % CHUNK_SIZE == 0) {
+        importChunk(chunk, positions, errors, progress);
+        writeProgress(progressWriter, writer, progress, errors);
+      }
+    }
+    importChunk(chunk, positions, errors, progress);
+    progress.setDone(true);
+    writeProgress(progressWriter, writer, progress, errors);
+    LOGGER.info("Imported job offers: {} processed, {} created, {} rejected", progress.getProcessed(),
+        progress.getCreated(), progress.getRejected());
+  }
+
+  private JobOffer toJobOffer(JobOfferImportReader.Row row, List<BulkItemResult> errors) {
+    if (row.getError() != null) {
+      errors.add(BulkItemResult.rejected(row.getIndex(), row.getError()));
+      return null;
+    }
+    Set<ConstraintViolation<JobOfferResource>> violations = validator.validate(row.getResource());
+    if (!violations.isEmpty()) {
+      errors.add(BulkItemResult.rejected(row.getIndex(), getViolationMessage(violations)));
+      return null;
+    }
+    try {
+      return jobOfferAssembler.toJobOffer(row.getResource());
+    } catch (ResponseStatusException e) {
+      errors.add(BulkItemResult.rejected(row.getIndex(), e.getReason()));
+      return null;
+    }
+  }
+
+  private void importChunk(List<JobOffer> chunk, List<Integer> positions, List<BulkItemResult> errors,
+      ImportProgressResource progress) {
+    if (!chunk.isEmpty()) {
+      try {
+        for (BulkItemResult result : jobOfferService.createJobOffers(chunk)) {
+          if (result.getStatus() == BulkItemStatus.CREATED) {
+            progress.setCreated(progress.getCreated() + 1);
+          } else {
+            result.setIndex(positions.get(result.getIndex()));
+            errors.add(result);
+          }
+        }
+      } catch (ResponseStatusException e) {
+        // The transaction of the chunk was rolled back, so none of its job offers were created.
+        positions.forEach(x -> errors.add(BulkItemResult.rejected(x, e.getReason())));
+      }
+    }
+    chunk.clear();
+    positions.clear();
+  }
+
+  private void writeProgress(ObjectWriter progressWriter, Writer writer, ImportProgressResource progress,
+      List<BulkItemResult> errors) throws IOException {
+    errors.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+    progress.setRejected(progress.getRejected() + errors.size());
+    progress.setErrors(errors);
+    writer.write(progressWriter.writeValueAsString(progress));
+    writer.write('\n');
+    writer.flush();
+    errors.clear();
+  }
+
+  private String getViolationMessage(Set<ConstraintViolation<JobOfferResource>> violations) {
+    return violations.stream()
+        .map(x -> x.getPropertyPath() + " " + x.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+}
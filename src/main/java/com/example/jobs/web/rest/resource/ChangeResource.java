@@ -0,0 +1,33 @@
+package com.example.jobs.web.rest.resource;
+
+import com.example.jobs.domain.enums.EventType;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Date;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeResource {
+
+  private EventType eventType;
+
+  private Date updatedTime;
+
+  private UUID jobOfferId;
+
+  private JobOfferResource jobOffer;
+
+  private JobApplicationResource jobApplication;
+
+}
@@ -0,0 +1,36 @@
+package com.example.jobs.web.rest.resource;
+
+import com.example.jobs.domain.BulkItemResult;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of an import, reported after every chunk of rows. The counts are totals since the start of the import, while
+ * the errors only list the rows of the chunk that were rejected.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportProgressResource {
+
+  private long processed;
+
+  private long created;
+
+  private long rejected;
+
+  private boolean done;
+
+  private List<BulkItemResult> errors;
+
+}
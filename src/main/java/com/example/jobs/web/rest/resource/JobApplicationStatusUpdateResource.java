@@ -0,0 +1,31 @@
+package com.example.jobs.web.rest.resource;
+
+import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobApplicationStatusUpdateResource {
+
+  @NotEmpty
+  private List<UUID> ids;
+
+  @NotNull
+  private JobApplicationStatus status;
+
+}
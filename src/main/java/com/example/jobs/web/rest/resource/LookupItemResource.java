@@ -0,0 +1,44 @@
+package com.example.jobs.web.rest.resource;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of looking up a single UUID of a batch lookup. The item is only present if it was found.
+ *
+ * @param <T> The type of the item.
+ */
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LookupItemResource<T> {
+
+  private UUID id;
+
+  private boolean found;
+
+  private T item;
+
+  /**
+   * Build the result of a UUID.
+   *
+   * @param id The UUID looked up.
+   * @param item The item found, or null.
+   * @param <T> The type of the item.
+   * @return The result.
+   */
+  public static <T> LookupItemResource<T> of(UUID id, T item) {
+    return new LookupItemResource<>(id, item != null, item);
+  }
+
+}
@@ -0,0 +1,7 @@
+package com.example.jobs.benchmark;
+
+/**
+ * JUnit category of the benchmarks. They are left out of the test task and run with the benchmark task only.
+ */
+public interface Benchmark {
+}
@@ -0,0 +1,76 @@
+package com.example.jobs.benchmark;
+
+import com.example.jobs.domain.EventPayload;
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.enums.PublishStatus;
+import com.example.jobs.notification.BinaryEventPayloadEncoder;
+import com.example.jobs.notification.EventPayloadEncoder;
+import com.example.jobs.notification.JsonEventPayloadEncoder;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Compares the size and encode time of the event payloads against the toString() event data they replaced.
+ */
+@Category(Benchmark.class)
+public class EventPayloadEncodingBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventPayloadEncodingBenchmark.class);
+
+  private static final int ITERATIONS = 200_000;
+
+  @Test
+  public void encodeJobApplicationUpdate() throws Exception {
+    JobApplication application = getJobApplication();
+    EventPayloadEncoder json = new JsonEventPayloadEncoder();
+    EventPayloadEncoder binary = new BinaryEventPayloadEncoder();
+    int stringBytes = application.toString().getBytes(StandardCharsets.UTF_8).length;
+    int jsonBytes = json.encode(EventPayload.of(application, PublishStatus.UPDATED)).length;
+    int binaryBytes = binary.encode(EventPayload.of(application, PublishStatus.UPDATED)).length;
+
+    long stringNanos = Measurements.nanosPerRun(ITERATIONS, application::toString);
+    long jsonNanos = Measurements.nanosPerRun(ITERATIONS,
+        () -> json.encodeToText(EventPayload.of(application, PublishStatus.UPDATED)));
+    long binaryNanos = Measurements.nanosPerRun(ITERATIONS,
+        () -> binary.encodeToText(EventPayload.of(application, PublishStatus.UPDATED)));
+
+    LOGGER.info("Job application UPDATED event: toString {} bytes {} ns, JSON {} bytes {} ns, binary {} bytes {} ns",
+        stringBytes, stringNanos, jsonBytes, jsonNanos, binaryBytes, binaryNanos);
+  }
+
+  private static JobApplication getJobApplication() {
+    JobOffer jobOffer = JobOffer.builder()
+        .id(UUID.randomUUID())
+        .jobTitle("Software Engineer")
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(2)
+        .jobOfferStatus(JobOfferStatus.ACTIVE)
+        .createdTime(new Date())
+        .build();
+    StringBuilder resume = new StringBuilder();
+    while (resume.length() < 1000) {
+      resume.append("Dummy resume ");
+    }
+    return JobApplication.builder()
+        .id(UUID.randomUUID())
+        .candidateEmail("candidate@jobs.com")
+        .resumeText(resume.substring(0, 1000))
+        .jobOffer(jobOffer)
+        .applicationStatus(JobApplicationStatus.HIRED)
+        .createdTime(new Date())
+        .updatedTime(new Date())
+        .build();
+  }
+
+}
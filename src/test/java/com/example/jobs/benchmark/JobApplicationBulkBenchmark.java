@@ -0,0 +1,76 @@
+package com.example.jobs.benchmark;
+
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.service.JobApplicationService;
+import com.example.jobs.service.JobOfferService;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares creating job applications one by one against creating them with one bulk request.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Category(Benchmark.class)
+public class JobApplicationBulkBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JobApplicationBulkBenchmark.class);
+
+  private static final int APPLICATIONS = 300;
+
+  private static final int ITERATIONS = 5;
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private JobApplicationService jobApplicationService;
+
+  @Test
+  public void createJobApplications() throws Exception {
+    long singleNanos = Measurements.nanosPerRun(ITERATIONS, () -> {
+      UUID jobOfferId = createJobOffer().getId();
+      for (JobApplication application : getJobApplications(APPLICATIONS)) {
+        jobApplicationService.createJobApplication(application, jobOfferId);
+      }
+    });
+    long bulkNanos = Measurements.nanosPerRun(ITERATIONS,
+        () -> jobApplicationService.createJobApplications(getJobApplications(APPLICATIONS), createJobOffer().getId()));
+
+    LOGGER.info("Created {} job applications: single path {} ms, bulk path {} ms", APPLICATIONS,
+        singleNanos / 1_000_000, bulkNanos / 1_000_000);
+  }
+
+  private JobOffer createJobOffer() {
+    return jobOfferService.createJobOffer(JobOffer.builder()
+        .jobTitle("Benchmark " + UUID.randomUUID().toString().substring(0, 8))
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(1)
+        .build());
+  }
+
+  private static List<JobApplication> getJobApplications(int count) {
+    List<JobApplication> applications = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      applications.add(JobApplication.builder()
+          .candidateEmail("benchmark" + i + "@jobs.com")
+          .resumeText("Dummy resume")
+          .build());
+    }
+    return applications;
+  }
+
+}
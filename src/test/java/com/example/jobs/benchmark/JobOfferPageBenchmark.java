@@ -0,0 +1,77 @@
+package com.example.jobs.benchmark;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.cache.EncodedPage;
+import com.example.jobs.cache.JobOfferPageKey;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.service.JobOfferService;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares the latency of the first job offer page rendered for every request against the latency of the cached page.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Category(Benchmark.class)
+public class JobOfferPageBenchmark {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(JobOfferPageBenchmark.class);
+
+  private static final String URL = "/jobmanagement/v1/joboffers?status=ACTIVE&limit=10&offset=0";
+
+  private static final int ITERATIONS = 500;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private BoundedCache<JobOfferPageKey, EncodedPage> jobOfferPageCache;
+
+  @Test
+  public void getAllJobOffers() throws Exception {
+    jobOfferService.createJobOffers(getJobOffers(10));
+    long uncachedNanos = Measurements.nanosPerRun(ITERATIONS, () -> {
+      jobOfferPageCache.invalidateAll();
+      mockMvc.perform(get(URL)).andExpect(status().isOk());
+    });
+    long cachedNanos = Measurements.nanosPerRun(ITERATIONS, () -> mockMvc.perform(get(URL))
+        .andExpect(status().isOk()));
+
+    LOGGER.info("First job offer page: uncached {} ns, cached {} ns", uncachedNanos, cachedNanos);
+  }
+
+  private static List<JobOffer> getJobOffers(int count) {
+    List<JobOffer> jobOffers = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      jobOffers.add(JobOffer.builder()
+          .jobTitle("Benchmark " + UUID.randomUUID().toString().substring(0, 8))
+          .jobDescription("Job desc")
+          .location("Berlin")
+          .startDate("2019-11-01")
+          .vacancies(1)
+          .build());
+    }
+    return jobOffers;
+  }
+
+}
@@ -0,0 +1,35 @@
+package com.example.jobs.benchmark;
+
+/**
+ * Timing helper shared by the benchmarks.
+ */
+final class Measurements {
+
+  private Measurements() {
+  }
+
+  /**
+   * Measure the average time of an operation. The operation first runs as many times unmeasured, to warm up the JIT.
+   *
+   * @param iterations The number of measured runs.
+   * @param operation The operation to be measured.
+   * @return The average time of a run in nanoseconds.
+   * @throws Exception If the operation fails.
+   */
+  static long nanosPerRun(int iterations, Operation operation) throws Exception {
+    for (int i = 0; i < iterations; i++) {
+      operation.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      operation.run();
+    }
+    return (System.nanoTime() - start) / iterations;
+  }
+
+  interface Operation {
+
+    void run() throws Exception;
+  }
+
+}
@@ -0,0 +1,117 @@
+package com.example.jobs.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoundedCacheTest {
+
+  private MeterRegistry meterRegistry;
+
+  private AtomicLong nanos;
+
+  private BoundedCache<String, String> cache;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    nanos = new AtomicLong();
+    cache = new BoundedCache<>("test", 2, 1000, meterRegistry, nanos::get);
+  }
+
+  @Test
+  public void get_WithLoader_ShouldLoadOnlyOnMiss() {
+    AtomicLong loads = new AtomicLong();
+    assertEquals("A", cache.get("a", x -> load(loads, "A")));
+    assertEquals("A", cache.get("a", x -> load(loads, "B")));
+    assertEquals(1, loads.get());
+    assertEquals(1.0, gets("hit"), 0.0);
+    assertEquals(1.0, gets("miss"), 0.0);
+  }
+
+  @Test
+  public void put_BeyondMaximumSize_ShouldEvictLeastRecentlyUsedEntry() {
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.get("a");
+    cache.put("c", "C");
+    assertEquals("A", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(2, cache.size());
+    assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "test").counter().count(), 0.0);
+  }
+
+  @Test
+  public void get_AfterExpiry_ShouldMissAndEvict() {
+    cache.put("a", "A");
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    assertEquals("A", cache.get("a"));
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+    assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "test").counter().count(), 0.0);
+  }
+
+  @Test
+  public void get_WithInvalidationDuringLoad_ShouldNotCacheLoadedValue() {
+    assertEquals("stale", cache.get("a", x -> {
+      cache.invalidate("a");
+      return "stale";
+    }));
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  public void get_WithInvalidationOfOtherKeyDuringLoad_ShouldCacheLoadedValue() {
+    assertEquals("A", cache.get("a", x -> {
+      cache.invalidate("b");
+      return "A";
+    }));
+    assertEquals("A", cache.get("a"));
+  }
+
+  @Test
+  public void put_BeyondMaximumSizeOfSegmentedCache_ShouldStayWithinMaximumSize() {
+    BoundedCache<Integer, Integer> segmented = new BoundedCache<>("segmented", 1024, 1000, meterRegistry, nanos::get);
+    for (int i = 0; i < 2000; i++) {
+      segmented.put(i, i);
+    }
+    assertTrue(segmented.size() <= 1024);
+    assertEquals(2000 - segmented.size(),
+        meterRegistry.get("cache.evictions").tag("cache", "segmented").counter().count(), 0.0);
+    assertEquals(Integer.valueOf(1999), segmented.get(1999));
+  }
+
+  @Test
+  public void invalidateAll_WithPredicate_ShouldOnlyRemoveMatchingKeys() {
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.invalidateAll("a"::equals);
+    assertNull(cache.get("a"));
+    assertEquals("B", cache.get("b"));
+  }
+
+  @Test
+  public void get_WithLoaderReturningNull_ShouldNotCache() {
+    assertNull(cache.get("a", x -> null));
+    assertEquals(0, cache.size());
+  }
+
+  private double gets(String result) {
+    return meterRegistry.get("cache.gets").tag("cache", "test").tag("result", result).counter().count();
+  }
+
+  private static String load(AtomicLong loads, String value) {
+    loads.incrementAndGet();
+    return value;
+  }
+
+}
@@ -0,0 +1,143 @@
+package com.example.jobs.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class SingleFlightTest {
+
+  private static final int CALLERS = 8;
+
+  private MeterRegistry meterRegistry;
+
+  private SingleFlight<String, String> flight;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    flight = new SingleFlight<>("test", meterRegistry);
+    executor = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void load_WithConcurrentCallers_ShouldLoadOnce() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<String>> results = startCallers(key -> {
+      loads.incrementAndGet();
+      awaitQuietly(release);
+      return "A";
+    });
+    awaitCoalesced(CALLERS - 1);
+    release.countDown();
+    for (Future<String> result : results) {
+      assertEquals("A", result.get(10, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+    assertEquals(1.0, calls("leader"), 0.0);
+  }
+
+  @Test
+  public void load_WithFailingLoader_ShouldPassOwnExceptionToEachCaller() throws Exception {
+    IllegalStateException failure = new IllegalStateException("failed");
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<String>> results = startCallers(key -> {
+      awaitQuietly(release);
+      throw failure;
+    });
+    awaitCoalesced(CALLERS - 1);
+    release.countDown();
+    Set<Throwable> exceptions = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Future<String> result : results) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        Throwable exception = e.getCause();
+        assertTrue(exceptions.add(exception));
+        assertSame(failure, exception instanceof CompletionException ? exception.getCause() : exception);
+      }
+    }
+    assertEquals(CALLERS, exceptions.size());
+  }
+
+  @Test
+  public void load_AfterForget_ShouldStartNewLoad() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> first = executor.submit(() -> flight.load("a", key -> {
+      awaitQuietly(release);
+      return "old";
+    }));
+    while (calls("leader") == 0) {
+      Thread.yield();
+    }
+    flight.forget("a");
+    assertEquals("new", flight.load("a", key -> "new"));
+    release.countDown();
+    assertEquals("old", first.get(10, TimeUnit.SECONDS));
+    assertEquals(2.0, calls("leader"), 0.0);
+  }
+
+  @Test
+  public void load_AfterCompletion_ShouldNotKeepValue() {
+    assertEquals("A", flight.load("a", key -> "A"));
+    assertEquals("B", flight.load("a", key -> "B"));
+    assertEquals(0.0, calls("coalesced"), 0.0);
+  }
+
+  private List<Future<String>> startCallers(Function<String, String> loader) {
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(executor.submit(() -> flight.load("a", loader)));
+    }
+    return results;
+  }
+
+  private void awaitCoalesced(int count) {
+    while (calls("coalesced") < count) {
+      Thread.yield();
+    }
+  }
+
+  private double calls(String result) {
+    return meterRegistry.get("singleflight.calls").tag("flight", "test").tag("result", result).counter().count();
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,123 @@
+package com.example.jobs.integrationTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.service.JobApplicationService;
+import com.example.jobs.service.JobOfferService;
+import com.example.jobs.web.rest.resource.ChangeResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ChangeFeedTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private JobApplicationService jobApplicationService;
+
+  private ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final String CHANGES_URL = "/jobmanagement/v1/changes";
+
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static final long TIMEOUT_MILLIS = 10000;
+
+  private String cursor = "";
+
+  @Test
+  public void getChanges_FollowingCursor_ShouldOnlyReturnNewChanges() throws Exception {
+    JobOffer jobOffer = createJobOffer();
+    List<ChangeResource> changes = readChangesUntil(x -> x.stream()
+        .anyMatch(change -> jobOffer.getId().equals(change.getJobOfferId())));
+    assertTrue(changes.stream().anyMatch(x -> jobOffer.getId().equals(x.getJobOfferId())));
+
+    JobApplication application = jobApplicationService.createJobApplication(JobApplication.builder()
+        .candidateEmail("changes@jobs.com")
+        .resumeText("Dummy resume")
+        .build(), jobOffer.getId());
+    changes = readChangesUntil(x -> x.size() >= 2);
+
+    assertEquals(2, changes.size());
+    ChangeResource applicationChange = getChange(changes, EventType.JOB_APPLICATION);
+    assertEquals(application.getId(), applicationChange.getJobApplication().getId());
+    assertEquals(jobOffer.getId(), applicationChange.getJobOfferId());
+    // The application count of the job offer changed as well.
+    assertEquals(1, getChange(changes, EventType.JOB_OFFER).getJobOffer().getNumberOfApplications());
+    assertTrue(readAllChanges().isEmpty());
+  }
+
+  @Test
+  public void getChanges_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+    mockMvc.perform(get(CHANGES_URL).param("since", "not-a-cursor")).andExpect(status().isBadRequest());
+  }
+
+  /**
+   * Read the changes until the condition holds. A change stamped in the same instant as the current time of the
+   * database is only returned once the clock moved on.
+   */
+  private List<ChangeResource> readChangesUntil(Predicate<List<ChangeResource>> condition) throws Exception {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    List<ChangeResource> changes = readAllChanges();
+    while (!condition.test(changes) && System.currentTimeMillis() < deadline) {
+      changes.addAll(readAllChanges());
+    }
+    return changes;
+  }
+
+  private List<ChangeResource> readAllChanges() throws Exception {
+    List<ChangeResource> changes = new ArrayList<>();
+    while (true) {
+      MockHttpServletResponse response = mockMvc.perform(get(CHANGES_URL).param("since", cursor).param("limit", "50"))
+          .andExpect(status().isOk()).andReturn().getResponse();
+      cursor = response.getHeader(NEXT_CURSOR_HEADER);
+      List<ChangeResource> page =
+          Arrays.asList(objectMapper.readValue(response.getContentAsString(), ChangeResource[].class));
+      changes.addAll(page);
+      if (page.size() < 50) {
+        return changes;
+      }
+    }
+  }
+
+  private static ChangeResource getChange(List<ChangeResource> changes, EventType eventType) {
+    return changes.stream().filter(x -> x.getEventType() == eventType).findFirst().orElse(null);
+  }
+
+  private JobOffer createJobOffer() {
+    return jobOfferService.createJobOffer(JobOffer.builder()
+        .jobTitle("Changes " + UUID.randomUUID().toString().substring(0, 8))
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(1)
+        .build());
+  }
+
+}
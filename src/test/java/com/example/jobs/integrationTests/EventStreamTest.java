@@ -0,0 +1,112 @@
+package com.example.jobs.integrationTests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.service.JobApplicationService;
+import com.example.jobs.service.JobOfferService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class EventStreamTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private JobApplicationService jobApplicationService;
+
+  private static final String EVENTS_URL = "/jobmanagement/v1/events";
+
+  private static final long TIMEOUT_MILLIS = 10000;
+
+  @Test
+  public void streamEvents_WithJobOfferFilter_ShouldOnlyStreamChangesOfJobOffer() throws Exception {
+    JobOffer jobOffer = createJobOffer();
+    MockHttpServletResponse response = subscribe(jobOffer.getId(), null);
+
+    JobApplication application = createJobApplication(jobOffer);
+    JobOffer otherJobOffer = createJobOffer();
+    createJobApplication(otherJobOffer);
+
+    assertTrue(awaitContent(response, application.getId().toString()));
+    assertTrue(response.getContentAsString().contains("event:JOB_APPLICATION"));
+    assertFalse(response.getContentAsString().contains(otherJobOffer.getId().toString()));
+  }
+
+  @Test
+  public void streamEvents_WithLastEventId_ShouldResumeAfterLastEvent() throws Exception {
+    JobOffer jobOffer = createJobOffer();
+    MockHttpServletResponse response = subscribe(jobOffer.getId(), null);
+    JobApplication application = createJobApplication(jobOffer);
+    assertTrue(awaitContent(response, application.getId().toString()));
+    Matcher matcher = Pattern.compile("id:(\\d+)").matcher(response.getContentAsString());
+    assertTrue(matcher.find());
+    long eventId = Long.parseLong(matcher.group(1));
+
+    MockHttpServletResponse resumed = subscribe(jobOffer.getId(), eventId - 1);
+
+    assertTrue(awaitContent(resumed, application.getId().toString()));
+  }
+
+  private MockHttpServletResponse subscribe(UUID jobOfferId, Long lastEventId) throws Exception {
+    MockHttpServletRequestBuilder builder = get(EVENTS_URL).param("jobOfferId", jobOfferId.toString());
+    if (lastEventId != null) {
+      builder.header("Last-Event-ID", lastEventId);
+    }
+    return mockMvc.perform(builder)
+        .andExpect(request().asyncStarted())
+        .andReturn()
+        .getResponse();
+  }
+
+  private static boolean awaitContent(MockHttpServletResponse response, String content) throws Exception {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (System.currentTimeMillis() < deadline) {
+      if (response.getContentAsString().contains(content)) {
+        return true;
+      }
+      Thread.sleep(20);
+    }
+    return false;
+  }
+
+  private JobOffer createJobOffer() {
+    return jobOfferService.createJobOffer(JobOffer.builder()
+        .jobTitle("Stream " + UUID.randomUUID().toString().substring(0, 8))
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(1)
+        .build());
+  }
+
+  private JobApplication createJobApplication(JobOffer jobOffer) {
+    return jobApplicationService.createJobApplication(JobApplication.builder()
+        .candidateEmail(UUID.randomUUID().toString().substring(0, 8) + "@jobs.com")
+        .resumeText("Dummy resume")
+        .build(), jobOffer.getId());
+  }
+
+}
@@ -0,0 +1,110 @@
+package com.example.jobs.integrationTests;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.jobs.domain.BulkItemResult;
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.BulkItemStatus;
+import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.service.JobApplicationService;
+import com.example.jobs.service.JobOfferService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class JobApplicationBulkTest {
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private JobApplicationService jobApplicationService;
+
+  @Autowired
+  private JobOfferRepository jobOfferRepository;
+
+  @Autowired
+  private JobApplicationRepository jobApplicationRepository;
+
+  private static final int APPLICATIONS = 300;
+
+  @Test
+  public void createJobApplications_WithDuplicates_ShouldCreateOnlyUniqueApplications() {
+    JobOffer jobOffer = createJobOffer();
+    List<JobApplication> applications = getJobApplications("bulk", APPLICATIONS);
+    applications.add(JobApplication.builder().candidateEmail("bulk0@jobs.com").resumeText("Dummy resume").build());
+
+    List<BulkItemResult> results = jobApplicationService.createJobApplications(applications, jobOffer.getId());
+
+    assertEquals(APPLICATIONS + 1, results.size());
+    assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+    assertEquals(BulkItemStatus.REJECTED, results.get(APPLICATIONS).getStatus());
+    JobOffer savedJobOffer = jobOfferRepository.findById(jobOffer.getId());
+    assertEquals(APPLICATIONS, savedJobOffer.getApplicationsCount());
+    assertEquals(APPLICATIONS, jobApplicationRepository.findJobApplicationSummaries(savedJobOffer.getInternalId(),
+        JobApplicationStatus.APPLIED, OffsetPageRequest.of(APPLICATIONS + 1, 0)).size());
+  }
+
+  @Test
+  public void updateJobApplications_WithHiresFillingVacancies_ShouldMarkJobOfferInactive() {
+    JobOffer jobOffer = createJobOffer(2);
+    List<UUID> ids = new ArrayList<>();
+    for (BulkItemResult result : jobApplicationService
+        .createJobApplications(getJobApplications("hire", 3), jobOffer.getId())) {
+      ids.add(result.getId());
+    }
+
+    List<BulkItemResult> hired =
+        jobApplicationService.updateJobApplications(ids.subList(0, 2), JobApplicationStatus.HIRED);
+    List<BulkItemResult> rejected =
+        jobApplicationService.updateJobApplications(ids.subList(2, 3), JobApplicationStatus.REJECTED);
+
+    assertEquals(BulkItemStatus.UPDATED, hired.get(0).getStatus());
+    assertEquals(BulkItemStatus.UPDATED, hired.get(1).getStatus());
+    assertEquals("Job offer is expired.", rejected.get(0).getMessage());
+    JobOffer savedJobOffer = jobOfferRepository.findById(jobOffer.getId());
+    assertEquals(2, savedJobOffer.getHiredCount());
+    assertEquals(JobOfferStatus.INACTIVE, savedJobOffer.getJobOfferStatus());
+    assertEquals(JobApplicationStatus.HIRED, jobApplicationRepository.findById(ids.get(0)).getApplicationStatus());
+    assertEquals(JobApplicationStatus.APPLIED, jobApplicationRepository.findById(ids.get(2)).getApplicationStatus());
+  }
+
+  private JobOffer createJobOffer() {
+    return createJobOffer(1);
+  }
+
+  private JobOffer createJobOffer(int vacancies) {
+    return jobOfferService.createJobOffer(JobOffer.builder()
+        .jobTitle("Bulk " + UUID.randomUUID().toString().substring(0, 8))
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(vacancies)
+        .build());
+  }
+
+  private List<JobApplication> getJobApplications(String prefix, int count) {
+    List<JobApplication> applications = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      applications.add(JobApplication.builder()
+          .candidateEmail(prefix + i + "@jobs.com")
+          .resumeText("Dummy resume")
+          .build());
+    }
+    return applications;
+  }
+
+}
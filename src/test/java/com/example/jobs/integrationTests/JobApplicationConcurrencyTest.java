@@ -0,0 +1,121 @@
+package com.example.jobs.integrationTests;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.service.JobApplicationService;
+import com.example.jobs.service.JobOfferService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class JobApplicationConcurrencyTest {
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private JobApplicationService jobApplicationService;
+
+  @Autowired
+  private JobOfferRepository jobOfferRepository;
+
+  @Autowired
+  private JobApplicationRepository jobApplicationRepository;
+
+  private static final int VACANCIES = 3;
+
+  private static final int APPLICATIONS = 40;
+
+  private static final int THREADS = 16;
+
+  private static final int MAX_ATTEMPTS = 20;
+
+  @Test
+  public void updateJobApplication_WithConcurrentHires_ShouldNeverExceedVacancies() throws Exception {
+    JobOffer jobOffer = jobOfferService.createJobOffer(JobOffer.builder()
+        .jobTitle("Concurrency " + UUID.randomUUID().toString().substring(0, 8))
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(VACANCIES)
+        .build());
+
+    List<UUID> applicationIds = new ArrayList<>();
+    for (int i = 0; i < APPLICATIONS; i++) {
+      JobApplication application = jobApplicationService.createJobApplication(JobApplication.builder()
+          .candidateEmail("candidate" + i + "@jobs.com")
+          .resumeText("Dummy resume")
+          .build(), jobOffer.getId());
+      applicationIds.add(application.getId());
+    }
+
+    AtomicInteger hired = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>();
+    for (UUID applicationId : applicationIds) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        if (hire(applicationId)) {
+          hired.incrementAndGet();
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    JobOffer savedJobOffer = jobOfferRepository.findById(jobOffer.getId());
+    assertEquals(VACANCIES, hired.get());
+    assertEquals(VACANCIES, savedJobOffer.getHiredCount());
+    assertEquals(JobOfferStatus.INACTIVE, savedJobOffer.getJobOfferStatus());
+    assertEquals(VACANCIES, jobApplicationRepository
+        .findJobApplicationSummaries(savedJobOffer.getInternalId(), JobApplicationStatus.HIRED,
+            OffsetPageRequest.of(APPLICATIONS, 0))
+        .size());
+  }
+
+  private boolean hire(UUID applicationId) {
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      try {
+        jobApplicationService.updateJobApplication(applicationId, JobApplicationStatus.HIRED);
+        return true;
+      } catch (ResponseStatusException e) {
+        if (e.getStatus() != HttpStatus.CONFLICT) {
+          // No vacancy left or the job offer is already INACTIVE.
+          return false;
+        }
+      } catch (ConcurrencyFailureException e) {
+        // The database aborted the transaction because of lock contention, try again.
+      }
+    }
+    return false;
+  }
+
+}
@@ -1,7 +1,9 @@
 package com.example.jobs.integrationTests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -15,6 +17,7 @@ import com.example.jobs.repository.JobApplicationRepository;
 import com.example.jobs.repository.JobOfferRepository;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
 import com.example.jobs.web.rest.resource.JobOfferResource;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
@@ -156,5 +159,28 @@ public class JobApplicationTest {
     assertEquals(JobOfferStatus.INACTIVE, savedJobOffer.getJobOfferStatus());
   }
 
+  @Test
+  public void eFifth_createJobApplication_WithDuplicateEmail_ShouldReturnBadRequest() throws Exception {
+    resource.setCandidateEmail("duplicate@jobs.com");
+    mockMvc.perform(post(APPLICATION_URL + existingJobOfferId).contentType(JSON_CONTENT_TYPE)
+        .content(objectMapper.writeValueAsString(resource))).andExpect(status().isCreated());
+
+    mockMvc.perform(post(APPLICATION_URL + existingJobOfferId).contentType(JSON_CONTENT_TYPE)
+        .content(objectMapper.writeValueAsString(resource))).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void fSixth_getJobApplicationsByIds_WithExistingAndMissingIds_ShouldReturnResultsInRequestOrder()
+      throws Exception {
+    UUID missing = UUID.randomUUID();
+    MockHttpServletResponse response = mockMvc.perform(get("/jobmanagement/v1/applications/batch?ids=" + missing
+        + "," + existingJobApplication.getId())).andExpect(status().isOk()).andReturn().getResponse();
+
+    JsonNode results = objectMapper.readTree(response.getContentAsString());
+    assertEquals(missing.toString(), results.get(0).get("id").asText());
+    assertFalse(results.get(0).get("found").asBoolean());
+    assertTrue(results.get(1).get("found").asBoolean());
+    assertEquals(existingJobApplication.getCandidateEmail(), results.get(1).get("item").get("candidateEmail").asText());
+  }
 
 }
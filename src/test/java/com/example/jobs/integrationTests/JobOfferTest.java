@@ -1,15 +1,24 @@
 package com.example.jobs.integrationTests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.cache.EncodedPage;
+import com.example.jobs.cache.JobOfferPageKey;
 import com.example.jobs.domain.JobOffer;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
 import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.web.rest.resource.ImportProgressResource;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
 import com.example.jobs.web.rest.resource.JobOfferResource;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,9 +30,11 @@ import org.junit.runners.MethodSorters;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,6 +54,9 @@ public class JobOfferTest {
   @Autowired
   private JobOfferRepository repository;
 
+  @Autowired
+  private BoundedCache<JobOfferPageKey, EncodedPage> jobOfferPageCache;
+
   private JobOfferResource resource;
 
   private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
@@ -53,6 +67,10 @@ public class JobOfferTest {
 
   private static final String APPLICATIONS = "/applications";
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static final String IMPORT_URL = "/jobmanagement/v1/joboffers/import";
+
   private List<JobOfferResource> jobOfferList;
 
   private JobOfferResource existingJobOffer;
@@ -115,6 +133,14 @@ public class JobOfferTest {
     assertEquals(resource.getVacancies(), jobOffer.getVacancies());
   }
 
+  @Test
+  public void bSecond_createJobOffer_WithSameJobTitleInDifferentCase_ShouldReturnBadRequest() throws Exception {
+    resource.setJobTitle("LEAD java DEVELOPER ");
+    mockMvc
+        .perform(post(JOB_OFFER_URL).contentType(JSON_CONTENT_TYPE).content(objectMapper.writeValueAsString(resource)))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   public void cThird_getJobOfferById_WithValidInput_ShouldReturnTheJobOffer() throws Exception {
     mockMvc.perform(get(JOB_OFFER_URL + existingJobOffer.getId().toString())).andExpect(status().isOk());
@@ -127,4 +153,158 @@ public class JobOfferTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  public void eFifth_getAllJobOffers_WithCursor_ShouldReturnNextPage() throws Exception {
+    String nextCursor = mockMvc.perform(get(GET_JOB_OFFERS_URL + "?limit=1")).andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(NEXT_CURSOR_HEADER);
+    assertNotNull(nextCursor);
+
+    MockHttpServletResponse response = mockMvc.perform(get(GET_JOB_OFFERS_URL + "?limit=1&cursor=" + nextCursor))
+        .andExpect(status().isOk()).andReturn().getResponse();
+    JobOfferResource[] nextPage = objectMapper.readValue(response.getContentAsString(), JobOfferResource[].class);
+    JobOfferResource[] firstPage = objectMapper.readValue(mockMvc.perform(get(GET_JOB_OFFERS_URL + "?limit=1"))
+        .andReturn().getResponse().getContentAsString(), JobOfferResource[].class);
+    for (JobOfferResource jobOffer : nextPage) {
+      assertNotEquals(firstPage[0].getId(), jobOffer.getId());
+    }
+  }
+
+  @Test
+  public void fSixth_exportJobApplications_WithValidInput_ShouldStreamApplications() throws Exception {
+    MvcResult result = mockMvc.perform(get(JOB_OFFER_URL + existingJobOffer.getId().toString() + APPLICATIONS
+        + "/export")).andExpect(request().asyncStarted()).andReturn();
+    String content = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    List<UUID> ids = new ArrayList<>();
+    for (String line : content.split("\n")) {
+      ids.add(objectMapper.readValue(line, JobApplicationResource.class).getId());
+    }
+    assertTrue(ids.contains(existingJobApplication.getId()));
+  }
+
+  @Test
+  public void fSixth_exportJobApplications_WithUnknownJobOffer_ShouldReturnNotFound() throws Exception {
+    mockMvc.perform(get(JOB_OFFER_URL + UUID.randomUUID().toString() + APPLICATIONS + "/export"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void gSeventh_importJobOffers_AsNdjson_ShouldCreateValidRowsAndReportRejectedRows() throws Exception {
+    String body = "{\"jobTitle\":\"Imported job 1\",\"jobDescription\":\"Job desc\",\"location\":\"Hyd\","
+        + "\"startDate\":\"2019-11-01\",\"vacancies\":1}\n"
+        + "{\"jobTitle\":\"lead java developer\",\"jobDescription\":\"Job desc\",\"location\":\"Hyd\","
+        + "\"startDate\":\"2019-11-01\",\"vacancies\":1}\n"
+        + "\n"
+        + "{\"jobTitle\":\n"
+        + "{\"jobTitle\":\"Imported job 2\",\"jobDescription\":\"Job desc\",\"location\":\"Hyd\","
+        + "\"startDate\":\"2019-11-01\",\"vacancies\":0}\n";
+
+    ImportProgressResource progress = importJobOffers("application/x-ndjson", body);
+
+    assertTrue(progress.isDone());
+    assertEquals(4, progress.getProcessed());
+    assertEquals(1, progress.getCreated());
+    assertEquals(3, progress.getRejected());
+    assertEquals(1, progress.getErrors().get(0).getIndex());
+    assertEquals(2, progress.getErrors().get(1).getIndex());
+    assertEquals("vacancies must be greater than or equal to 1", progress.getErrors().get(2).getMessage());
+    assertNotNull(findIdByTitle("Imported job 1"));
+  }
+
+  @Test
+  public void gSeventh_importJobOffers_AsCsv_ShouldReadQuotedFields() throws Exception {
+    String body = "location,jobTitle,jobDescription,startDate,vacancies\r\n"
+        + "Berlin,Imported job 3,\"Java, Spring and\r\n\"\"Kafka\"\"\",2019-11-01,2\r\n"
+        + "Berlin,Imported job 4,Job desc,2019-11-01,two\r\n";
+
+    ImportProgressResource progress = importJobOffers("text/csv", body);
+
+    assertEquals(2, progress.getProcessed());
+    assertEquals(1, progress.getCreated());
+    assertEquals("vacancies must be a number", progress.getErrors().get(0).getMessage());
+    JobOffer jobOffer = repository.findById(findIdByTitle("Imported job 3"));
+    assertEquals("Java, Spring and\r\n\"Kafka\"", jobOffer.getJobDescription());
+    assertEquals("Berlin", jobOffer.getLocation());
+  }
+
+  @Test
+  public void gSeventh_importJobOffers_AsCsvWithoutHeader_ShouldReturnBadRequest() throws Exception {
+    mockMvc.perform(post(IMPORT_URL).contentType("text/csv").content("Berlin,Job,Desc,2019-11-01,1\r\n"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void hEighth_getJobOfferById_WithCurrentETag_ShouldReturnNotModified() throws Exception {
+    String url = JOB_OFFER_URL + existingJobOffer.getId().toString();
+    MockHttpServletResponse response = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse();
+    String etag = response.getHeader(HttpHeaders.ETAG);
+    assertNotNull(etag);
+    assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+
+    String content = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified()).andReturn().getResponse().getContentAsString();
+    assertEquals("", content);
+  }
+
+  @Test
+  public void hEighth_getAllJobOffers_WithCurrentETag_ShouldReturnNotModified() throws Exception {
+    String etag = mockMvc.perform(get(GET_JOB_OFFERS_URL)).andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    mockMvc.perform(get(GET_JOB_OFFERS_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "?status=INACTIVE").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void iNinth_getAllJobOffers_ComparedToUncached_ShouldServeSameEncodedPage() throws Exception {
+    String url = GET_JOB_OFFERS_URL + "?status=ACTIVE&limit=10&offset=0";
+    jobOfferPageCache.invalidateAll();
+    String uncached = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse()
+        .getContentAsString();
+    assertEquals(uncached, mockMvc.perform(get(url)).andReturn().getResponse().getContentAsString());
+  }
+
+  @Test
+  public void jTenth_searchJobOffers_WithWordsOfExistingJobOffer_ShouldFindItFirst() throws Exception {
+    MockHttpServletResponse response = mockMvc.perform(get(GET_JOB_OFFERS_URL + "/search?q=Spring java"))
+        .andExpect(status().isOk()).andReturn().getResponse();
+    JobOfferResource[] results = objectMapper.readValue(response.getContentAsString(), JobOfferResource[].class);
+    assertEquals(existingJobOffer.getId(), results[0].getId());
+  }
+
+  @Test
+  public void jTenth_searchJobOffers_AfterCreateJobOffer_ShouldFindCreatedJobOffer() throws Exception {
+    resource.setJobTitle("Quokka Keeper");
+    resource.setJobDescription("Feeds the quokkas");
+    String content = mockMvc
+        .perform(post(JOB_OFFER_URL).contentType(JSON_CONTENT_TYPE).content(objectMapper.writeValueAsString(resource)))
+        .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+    UUID id = objectMapper.readValue(content, JobOfferResource.class).getId();
+
+    MockHttpServletResponse response = mockMvc.perform(get(GET_JOB_OFFERS_URL + "/search?q=quokka&limit=1"))
+        .andExpect(status().isOk()).andReturn().getResponse();
+    JobOfferResource[] results = objectMapper.readValue(response.getContentAsString(), JobOfferResource[].class);
+    assertEquals(1, results.length);
+    assertEquals(id, results[0].getId());
+    String nextCursor = response.getHeader(NEXT_CURSOR_HEADER);
+    assertNotNull(nextCursor);
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "/search?q=quokka&limit=1&cursor=" + nextCursor))
+        .andExpect(status().isOk()).andExpect(content().string("[]"));
+  }
+
+  private ImportProgressResource importJobOffers(String contentType, String body) throws Exception {
+    MvcResult result = mockMvc.perform(post(IMPORT_URL).contentType(contentType).content(body))
+        .andExpect(request().asyncStarted()).andReturn();
+    String[] lines = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString().split("\n");
+    return objectMapper.readValue(lines[lines.length - 1], ImportProgressResource.class);
+  }
+
+  private UUID findIdByTitle(String jobTitle) {
+    return repository.findAll().stream().filter(x -> jobTitle.equals(x.getJobTitle())).findFirst()
+        .map(JobOffer::getId).orElse(null);
+  }
+
 }
@@ -0,0 +1,161 @@
+package com.example.jobs.integrationTests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.enums.PublishStatus;
+import com.example.jobs.notification.NotificationPublisher;
+import com.example.jobs.notification.NotificationSink;
+import com.example.jobs.notification.OutboxRelay;
+import com.example.jobs.service.JobOfferService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"notification.outbox=true", "notification.relay-interval-millis=3600000"})
+public class OutboxRelayTest {
+
+  @Autowired
+  private JobOfferService jobOfferService;
+
+  @Autowired
+  private NotificationPublisher notificationPublisher;
+
+  @Autowired
+  private OutboxRelay outboxRelay;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private BrokerStandInSink sink;
+
+  @Before
+  public void setUp() {
+    sink.failing = false;
+    outboxRelay.relay();
+    sink.events.clear();
+  }
+
+  @Test
+  public void relay_AfterCommit_ShouldDeliverEventOnce() {
+    JobOffer jobOffer = createJobOffer();
+    assertTrue(sink.events.isEmpty());
+
+    outboxRelay.relay();
+    outboxRelay.relay();
+
+    assertEquals(1, sink.events.size());
+    assertEquals(jobOffer.getId(), sink.events.get(0).getId());
+    assertEquals(PublishStatus.CREATED, sink.events.get(0).getStatus());
+  }
+
+  @Test
+  public void relay_AfterRollback_ShouldNotDeliverEvent() {
+    transactionTemplate.execute(status -> {
+      notificationPublisher.publishEvent(getEvent());
+      status.setRollbackOnly();
+      return null;
+    });
+
+    outboxRelay.relay();
+
+    assertTrue(sink.events.isEmpty());
+  }
+
+  @Test
+  public void relay_WithFailingSink_ShouldDeliverOnNextRun() {
+    PublishEvent event = getEvent();
+    notificationPublisher.publishEvent(event);
+    sink.failing = true;
+    outboxRelay.relay();
+    assertTrue(sink.events.isEmpty());
+
+    sink.failing = false;
+    outboxRelay.relay();
+
+    assertEquals(1, sink.events.size());
+    assertEquals(event.getId(), sink.events.get(0).getId());
+  }
+
+  @Test
+  public void relay_WithMoreEventsThanBatchSize_ShouldDeliverInOrder() {
+    for (int i = 0; i < 3; i++) {
+      createJobOffer();
+    }
+    List<PublishEvent> written = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 600; i++) {
+      PublishEvent event = getEvent();
+      notificationPublisher.publishEvent(event);
+      written.add(event);
+    }
+
+    outboxRelay.relay();
+
+    assertEquals(603, sink.events.size());
+    assertEquals(written.get(599).getId(), sink.events.get(602).getId());
+  }
+
+  private JobOffer createJobOffer() {
+    return jobOfferService.createJobOffer(JobOffer.builder()
+        .jobTitle("Outbox " + UUID.randomUUID().toString().substring(0, 8))
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(1)
+        .build());
+  }
+
+  private PublishEvent getEvent() {
+    return PublishEvent.builder()
+        .id(UUID.randomUUID())
+        .status(PublishStatus.UPDATED)
+        .eventType(EventType.JOB_OFFER)
+        .txnTime(new Date())
+        .build();
+  }
+
+  @TestConfiguration
+  static class BrokerStandInConfig {
+
+    @Bean
+    @Primary
+    public BrokerStandInSink brokerStandInSink() {
+      return new BrokerStandInSink();
+    }
+  }
+
+  /**
+   * Local stand-in for a message broker which keeps the delivered events in memory.
+   */
+  static class BrokerStandInSink implements NotificationSink {
+
+    private final List<PublishEvent> events = new CopyOnWriteArrayList<>();
+
+    private volatile boolean failing;
+
+    public void publish(List<PublishEvent> batch) {
+      if (failing) {
+        throw new IllegalStateException("Broker is not available.");
+      }
+      events.addAll(batch);
+    }
+  }
+
+}
@@ -0,0 +1,190 @@
+package com.example.jobs.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.enums.PublishStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public class EventJournalTest {
+
+  private static final int SEGMENT_SIZE = 1024;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private ObjectMapper objectMapper;
+
+  private Path directory;
+
+  @Before
+  public void setUp() {
+    objectMapper = new ObjectMapper();
+    directory = folder.getRoot().toPath();
+  }
+
+  @Test
+  public void replay_FromStart_ShouldReturnEventsInOrder() throws IOException {
+    List<PublishEvent> events = getEvents(3);
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      long end = journal.append(events);
+
+      List<PublishEvent> replayed = new ArrayList<>();
+      assertEquals(end, journal.replay(0, 10, (event, offset) -> replayed.add(event)));
+      assertEquals(events, replayed);
+    }
+  }
+
+  @Test
+  public void replay_FromReturnedOffset_ShouldResumeAcrossSegments() throws IOException {
+    List<PublishEvent> events = getEvents(40);
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      journal.append(events);
+
+      List<PublishEvent> replayed = new ArrayList<>();
+      long offset = 0;
+      long next;
+      while ((next = journal.replay(offset, 7, (event, eventOffset) -> replayed.add(event))) != offset) {
+        offset = next;
+      }
+      assertEquals(events, replayed);
+      assertEquals(journal.getEndOffset(), offset);
+    }
+    assertTrue(Files.list(directory).count() > 1);
+  }
+
+  @Test
+  public void open_ExistingJournal_ShouldContinueAfterLastEvent() throws IOException {
+    List<PublishEvent> events = getEvents(30);
+    long end;
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      end = journal.append(events.subList(0, 20));
+    }
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      assertEquals(end, journal.getEndOffset());
+      journal.append(events.subList(20, 30));
+
+      List<PublishEvent> replayed = new ArrayList<>();
+      journal.replay(0, 100, (event, offset) -> replayed.add(event));
+      assertEquals(events, replayed);
+    }
+  }
+
+  @Test
+  public void open_JournalWithTornRecord_ShouldDropIt() throws IOException {
+    List<PublishEvent> events = getEvents(2);
+    long first;
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      first = journal.append(events.subList(0, 1));
+      journal.append(events.subList(1, 2));
+    }
+    // Damage the payload of the second record, as if it was only partially written.
+    try (RandomAccessFile file = new RandomAccessFile(Files.list(directory).findFirst().get().toFile(), "rw")) {
+      file.seek(first + 12);
+      file.write(new byte[] {0, 0, 0, 0});
+    }
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      assertEquals(first, journal.getEndOffset());
+      List<PublishEvent> replayed = new ArrayList<>();
+      journal.replay(0, 10, (event, offset) -> replayed.add(event));
+      assertEquals(events.subList(0, 1), replayed);
+    }
+  }
+
+  @Test
+  public void truncateBefore_WithOffsetInLaterSegment_ShouldDeleteOlderSegmentsOnly() throws IOException {
+    List<PublishEvent> events = getEvents(40);
+    List<Long> offsets = new ArrayList<>();
+    long start;
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      journal.append(events);
+      journal.replay(0, 100, (event, offset) -> offsets.add(offset));
+      long segments = Files.list(directory).count();
+
+      int dropped = journal.truncateBefore(offsets.get(30));
+
+      assertTrue(dropped > 0);
+      assertEquals(segments - dropped, Files.list(directory).count());
+      start = journal.getStartOffset();
+      assertTrue(start > 0 && start <= offsets.get(30));
+    }
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      assertEquals(start, journal.getStartOffset());
+      List<PublishEvent> replayed = new ArrayList<>();
+      journal.replay(start, 100, (event, offset) -> replayed.add(event));
+      assertEquals(events.subList(offsets.indexOf(start), 40), replayed);
+    }
+  }
+
+  @Test
+  public void truncateBefore_DuringReplayOfDroppedSegment_ShouldDeleteSegmentOnceReplayIsDone() throws IOException {
+    List<PublishEvent> events = getEvents(40);
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      journal.append(events);
+      long segments = Files.list(directory).count();
+      long truncateOffset = Files.list(directory)
+          .map(file -> Long.parseLong(file.getFileName().toString().replace(".journal", "")))
+          .sorted()
+          .skip(1)
+          .findFirst()
+          .get();
+      List<PublishEvent> replayed = new ArrayList<>();
+      List<Long> filesDuringReplay = new ArrayList<>();
+
+      journal.replay(0, 100, (event, offset) -> {
+        if (offset == 0) {
+          try {
+            assertEquals(1, journal.truncateBefore(truncateOffset));
+            filesDuringReplay.add(Files.list(directory).count());
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+        replayed.add(event);
+      });
+
+      assertEquals(events, replayed);
+      assertEquals(Collections.singletonList(segments), filesDuringReplay);
+      assertEquals(segments - 1, Files.list(directory).count());
+      assertEquals(truncateOffset, journal.getStartOffset());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void replay_FromOffsetAfterEnd_ShouldThrowIllegalArgumentException() throws IOException {
+    try (EventJournal journal = new EventJournal(directory, SEGMENT_SIZE, objectMapper)) {
+      long end = journal.append(getEvents(1));
+      journal.replay(end + 1, 10, (event, offset) -> { });
+    }
+  }
+
+  private List<PublishEvent> getEvents(int count) {
+    List<PublishEvent> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      events.add(PublishEvent.builder()
+          .id(UUID.randomUUID())
+          .status(PublishStatus.UPDATED)
+          .eventType(EventType.JOB_APPLICATION)
+          .eventData("Event data " + i)
+          .build());
+    }
+    return events;
+  }
+
+}
@@ -0,0 +1,110 @@
+package com.example.jobs.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.jobs.domain.EventPayload;
+import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.enums.PublishStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+public class EventPayloadEncoderTest {
+
+  private JobOffer jobOffer;
+
+  private JobApplication application;
+
+  @Before
+  public void setUp() {
+    jobOffer = JobOffer.builder()
+        .id(UUID.randomUUID())
+        .jobTitle("Software Engineer")
+        .jobDescription("Job desc")
+        .location("Berlin")
+        .startDate("2019-11-01")
+        .vacancies(2)
+        .jobOfferStatus(JobOfferStatus.ACTIVE)
+        .createdTime(new Date())
+        .build();
+    StringBuilder resume = new StringBuilder();
+    while (resume.length() < 1000) {
+      resume.append("Dummy resume ");
+    }
+    application = JobApplication.builder()
+        .id(UUID.randomUUID())
+        .candidateEmail("candidate@jobs.com")
+        .resumeText(resume.substring(0, 1000))
+        .jobOffer(jobOffer)
+        .applicationStatus(JobApplicationStatus.HIRED)
+        .createdTime(new Date())
+        .updatedTime(new Date())
+        .build();
+  }
+
+  @Test
+  public void of_UpdatedJobApplication_ShouldOnlyCarryChangedFields() {
+    EventPayload payload = EventPayload.of(application, PublishStatus.UPDATED);
+    assertEquals(application.getId(), payload.getId());
+    assertEquals(jobOffer.getId(), payload.getJobOfferId());
+    assertEquals("HIRED", payload.getStatus());
+    assertNull(payload.getCandidateEmail());
+  }
+
+  @Test
+  public void decode_JsonEncodedPayload_ShouldReturnSamePayload() {
+    EventPayloadEncoder encoder = new JsonEventPayloadEncoder();
+    EventPayload payload = EventPayload.of(jobOffer, PublishStatus.CREATED);
+    String text = encoder.encodeToText(payload);
+    assertEquals(payload, encoder.decodeText(text));
+    assertTrue(text.startsWith("{\"schemaVersion\":1,"));
+  }
+
+  @Test
+  public void decode_BinaryEncodedPayload_ShouldReturnSamePayload() {
+    EventPayloadEncoder encoder = new BinaryEventPayloadEncoder();
+    EventPayload created = EventPayload.of(application, PublishStatus.CREATED);
+    EventPayload updated = EventPayload.of(jobOffer, PublishStatus.UPDATED);
+    assertEquals(created, encoder.decodeText(encoder.encodeToText(created)));
+    assertEquals(updated, encoder.decode(encoder.encode(updated)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void decode_BinaryPayloadOfUnknownVersion_ShouldThrowIllegalArgumentException() {
+    new BinaryEventPayloadEncoder().decode(new byte[] {2, 0, 0});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void decode_JsonPayloadOfUnknownVersion_ShouldThrowIllegalArgumentException() {
+    new JsonEventPayloadEncoder().decodeText("{\"schemaVersion\":2,\"status\":\"HIRED\"}");
+  }
+
+  @Test
+  public void decode_JsonPayloadWithUnknownField_ShouldIgnoreField() {
+    EventPayload payload = new JsonEventPayloadEncoder()
+        .decodeText("{\"schemaVersion\":1,\"status\":\"HIRED\",\"added\":{\"nested\":[1,2]}}");
+    assertEquals("HIRED", payload.getStatus());
+  }
+
+  @Test
+  public void encode_ComparedToToString_ShouldBeSmaller() {
+    EventPayloadEncoder json = new JsonEventPayloadEncoder();
+    EventPayload payload = EventPayload.of(application, PublishStatus.UPDATED);
+    int stringBytes = application.toString().getBytes(StandardCharsets.UTF_8).length;
+    int jsonBytes = json.encode(payload).length;
+    int binaryBytes = new BinaryEventPayloadEncoder().encode(payload).length;
+    assertTrue(jsonBytes < stringBytes);
+    assertTrue(binaryBytes < jsonBytes);
+    assertFalse(json.encodeToText(EventPayload.of(application, PublishStatus.CREATED)).contains("Dummy resume"));
+  }
+
+}
@@ -0,0 +1,329 @@
+package com.example.jobs.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import com.example.jobs.config.NotificationProperties;
+import com.example.jobs.domain.EventPayload;
+import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.enums.PublishStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NotificationPublisherTest {
+
+  private NotificationPublisher publisher;
+
+  private NotificationProperties properties;
+
+  private MeterRegistry meterRegistry;
+
+  private List<List<PublishEvent>> batches;
+
+  private CountDownLatch sinkBlocked;
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Before
+  public void setUp() {
+    publisher = new NotificationPublisher();
+    properties = new NotificationProperties();
+    meterRegistry = new SimpleMeterRegistry();
+    batches = new CopyOnWriteArrayList<>();
+    sinkBlocked = new CountDownLatch(0);
+    NotificationSink sink = events -> {
+      awaitQuietly(sinkBlocked);
+      batches.add(new ArrayList<>(events));
+    };
+    ReflectionTestUtils.setField(publisher, "sink", sink);
+    ReflectionTestUtils.setField(publisher, "properties", properties);
+    ReflectionTestUtils.setField(publisher, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(publisher, "payloadEncoder", new JsonEventPayloadEncoder());
+    ReflectionTestUtils.setField(publisher, "eventStream", mock(EventStream.class));
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    sinkBlocked.countDown();
+    publisher.stop();
+  }
+
+  @Test
+  public void publishEvent_InSynchronousMode_ShouldShipOnCallingThread() {
+    publisher.start();
+    publisher.publishEvent(getEvent());
+    assertEquals(1, batches.size());
+    assertEquals(1, meterRegistry.get("notification.publish.latency").timer().count());
+  }
+
+  @Test
+  public void publishEvent_WithPayload_ShouldEncodePayloadIntoEventData() {
+    publisher.start();
+    EventPayload payload = EventPayload.builder()
+        .schemaVersion(EventPayload.SCHEMA_VERSION)
+        .id(UUID.randomUUID())
+        .status("HIRED")
+        .build();
+    publisher.publishEvent(PublishEvent.builder().id(payload.getId()).payload(payload).build());
+    assertEquals(payload, new JsonEventPayloadEncoder().decodeText(batches.get(0).get(0).getEventData()));
+  }
+
+  @Test
+  public void publishEvent_InCommittedTransaction_ShouldShipCoalescedEventsAfterCommit() {
+    publisher.start();
+    UUID id = UUID.randomUUID();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      publisher.publishEvent(getEvent(id, PublishStatus.CREATED));
+      publisher.publishEvent(getEvent(id, PublishStatus.UPDATED));
+      publisher.publishEvent(getEvent());
+      assertTrue(batches.isEmpty());
+      completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(1, batches.size());
+    assertEquals(2, batches.get(0).size());
+    assertEquals(PublishStatus.CREATED, batches.get(0).get(0).getStatus());
+    assertEquals(1.0, meterRegistry.get("notification.events.coalesced").counter().count(), 0.0);
+  }
+
+  @Test
+  public void publishEvent_InRolledBackTransaction_ShouldNotShipEvents() {
+    publisher.start();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      publisher.publishEvent(getEvent());
+      completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertTrue(batches.isEmpty());
+    assertNull(TransactionSynchronizationManager.getResource(publisher));
+  }
+
+  @Test
+  public void publishEvent_InCommittedTransactionWithFailingSink_ShouldCountFailureWithoutThrowing() {
+    ReflectionTestUtils.setField(publisher, "sink", (NotificationSink) events -> {
+      throw new IllegalStateException("Sink is down");
+    });
+    publisher.start();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      publisher.publishEvent(getEvent());
+      completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(1.0, meterRegistry.get("notification.events.failed").counter().count(), 0.0);
+  }
+
+  @Test
+  public void publishEvents_InAsynchronousMode_ShouldShipAllEventsInOrder() throws InterruptedException {
+    properties.setAsync(true);
+    properties.setBatchSize(10);
+    publisher.start();
+    List<PublishEvent> events = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      events.add(getEvent());
+    }
+    publisher.publishEvents(events);
+    publisher.stop();
+
+    List<PublishEvent> shipped = new ArrayList<>();
+    for (List<PublishEvent> batch : batches) {
+      assertTrue(batch.size() <= 10);
+      shipped.addAll(batch);
+    }
+    assertEquals(events, shipped);
+  }
+
+  @Test
+  public void publishEvent_WithFullBufferAndDropPolicy_ShouldDropEvent() {
+    properties.setAsync(true);
+    properties.setBufferSize(1);
+    properties.setBackpressure(BackpressurePolicy.DROP);
+    sinkBlocked = new CountDownLatch(1);
+    publisher.start();
+    fillBuffer();
+    publisher.publishEvent(getEvent());
+    assertEquals(1.0, meterRegistry.get("notification.events.dropped").counter().count(), 0.0);
+  }
+
+  @Test
+  public void publishEvent_WithFullBufferAndFailPolicy_ShouldThrowServiceUnavailableException() {
+    properties.setAsync(true);
+    properties.setBufferSize(1);
+    properties.setBackpressure(BackpressurePolicy.FAIL);
+    sinkBlocked = new CountDownLatch(1);
+    publisher.start();
+    fillBuffer();
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Notification buffer is full.");
+    publisher.publishEvent(getEvent());
+  }
+
+  @Test
+  public void publishEvent_WithFullBufferAndBlockPolicy_ShouldWaitForDrainThread() throws InterruptedException {
+    properties.setAsync(true);
+    properties.setBufferSize(1);
+    properties.setBlockTimeoutMillis(TimeUnit.MINUTES.toMillis(1));
+    sinkBlocked = new CountDownLatch(1);
+    publisher.start();
+    fillBuffer();
+    CountDownLatch blocked = sinkBlocked;
+    Thread releaser = new Thread(() -> {
+      AtomicInteger blockedCallers = (AtomicInteger) ReflectionTestUtils.getField(publisher, "blockedCallers");
+      while (blockedCallers.get() == 0) {
+        Thread.yield();
+      }
+      blocked.countDown();
+    });
+    releaser.start();
+    publisher.publishEvent(getEvent());
+    releaser.join();
+    publisher.stop();
+    assertEquals(3, batches.stream().mapToInt(List::size).sum());
+  }
+
+  @Test
+  public void publishEvent_WithFullBufferAndBlockPolicyPastTimeout_ShouldThrowServiceUnavailableException() {
+    properties.setAsync(true);
+    properties.setBufferSize(1);
+    properties.setBlockTimeoutMillis(10);
+    sinkBlocked = new CountDownLatch(1);
+    publisher.start();
+    fillBuffer();
+    try {
+      publisher.publishEvent(getEvent());
+      fail("Expected Service Unavailable.");
+    } catch (ResponseStatusException e) {
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    }
+    assertEquals(1.0, meterRegistry.get("notification.events.rejected").counter().count(), 0.0);
+  }
+
+  @Test
+  public void start_WithAsynchronousAndOutboxMode_ShouldFail() {
+    properties.setAsync(true);
+    properties.setOutbox(true);
+    thrown.expect(IllegalStateException.class);
+    publisher.start();
+  }
+
+  @Test
+  public void publishEvent_InTransactionWithFullBufferAndFailPolicy_ShouldRollTransactionBack() {
+    properties.setAsync(true);
+    properties.setBufferSize(1);
+    properties.setBackpressure(BackpressurePolicy.FAIL);
+    sinkBlocked = new CountDownLatch(1);
+    publisher.start();
+    fillBuffer();
+    RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    try {
+      new TransactionTemplate(transactionManager).execute(status -> {
+        publisher.publishEvent(getEvent());
+        return null;
+      });
+      fail("The transaction should have been rolled back.");
+    } catch (ResponseStatusException e) {
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    }
+    assertTrue(transactionManager.rolledBack);
+    assertFalse(transactionManager.committed);
+  }
+
+  private void fillBuffer() {
+    // The first event is taken by the drain thread, which then waits in the sink; the second one fills the buffer.
+    publisher.publishEvent(getEvent());
+    while (meterRegistry.get("notification.queue.depth").gauge().value() > 0) {
+      Thread.yield();
+    }
+    publisher.publishEvents(Collections.singletonList(getEvent()));
+  }
+
+  private PublishEvent getEvent() {
+    return PublishEvent.builder().id(UUID.randomUUID()).build();
+  }
+
+  private PublishEvent getEvent(UUID id, PublishStatus status) {
+    return PublishEvent.builder().id(id).eventType(EventType.JOB_OFFER).status(status).build();
+  }
+
+  private static void completeTransaction(int status) {
+    List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+      TransactionSynchronizationUtils.triggerBeforeCommit(false);
+      TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+    }
+    TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Transaction manager running the commit processing of Spring without a resource, recording the outcome.
+   */
+  private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+    private boolean committed;
+
+    private boolean rolledBack;
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+      committed = true;
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+      rolledBack = true;
+    }
+  }
+
+}
@@ -0,0 +1,143 @@
+package com.example.jobs.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.jobs.domain.SearchCursor;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class JobOfferIndexTest {
+
+  private JobOfferIndex index;
+
+  @Before
+  public void setUp() {
+    index = new JobOfferIndex();
+    put(1L, JobOfferStatus.ACTIVE, "Lead Java Developer", "Must be experienced in Java and Spring", "Berlin");
+    put(2L, JobOfferStatus.ACTIVE, "Frontend Developer", "Some Java knowledge is a plus", "Munich");
+    put(3L, JobOfferStatus.INACTIVE, "Java Engineer", "Spring Boot services", "Berlin");
+    put(4L, JobOfferStatus.ACTIVE, "Data Analyst", "SQL and Python", "Berlin");
+  }
+
+  @Test
+  public void tokenize_WithPunctuationAndCase_ShouldReturnLowerCaseWords() {
+    assertEquals(Arrays.asList("c", "senior", "dev", "m\u00fcnchen", "2020"),
+        JobOfferIndex.tokenize("C++ / Senior-Dev (M\u00fcnchen, 2020)"));
+  }
+
+  @Test
+  public void search_WithSeveralTerms_ShouldOnlyFindJobOffersContainingAllOfThem() {
+    assertEquals(Arrays.asList(1L, 3L), internalIds(index.search(terms("java berlin"), null, 10, null)));
+  }
+
+  @Test
+  public void search_WithTermInTitle_ShouldRankAboveTermInDescription() {
+    List<SearchHit> hits = index.search(terms("java"), JobOfferStatus.ACTIVE, 10, null);
+    assertEquals(Arrays.asList(1L, 2L), internalIds(hits));
+    assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+  }
+
+  @Test
+  public void search_WithStatus_ShouldOnlyFindJobOffersOfStatus() {
+    assertEquals(Collections.singletonList(3L), internalIds(index.search(terms("spring"), JobOfferStatus.INACTIVE,
+        10, null)));
+  }
+
+  @Test
+  public void search_WithUnknownTerm_ShouldFindNothing() {
+    assertTrue(index.search(terms("java kotlin"), null, 10, null).isEmpty());
+  }
+
+  @Test
+  public void search_PagedWithCursor_ShouldReturnEveryHitOnceInRankingOrder() {
+    for (long i = 10; i < 60; i++) {
+      put(i, JobOfferStatus.ACTIVE, "Developer " + i, i % 3 == 0 ? "developer developer" : "team", "Hamburg");
+    }
+    List<SearchHit> all = index.search(terms("developer"), null, 100, null);
+    List<SearchHit> paged = new ArrayList<>();
+    SearchCursor cursor = null;
+    List<SearchHit> page;
+    do {
+      page = index.search(terms("developer"), null, 7, cursor);
+      paged.addAll(page);
+      if (!page.isEmpty()) {
+        SearchHit last = page.get(page.size() - 1);
+        cursor = SearchCursor.decode(SearchCursor.of(last.getScore(), last.getInternalId(), last.getGeneration())
+            .encode());
+      }
+    } while (page.size() == 7);
+    assertEquals(52, all.size());
+    assertEquals(internalIds(all), internalIds(paged));
+    for (int i = 1; i < all.size(); i++) {
+      assertTrue(JobOfferIndex.RANKING.compare(all.get(i - 1), all.get(i)) < 0);
+    }
+  }
+
+  @Test
+  public void search_PagedWhileJobOffersAreIndexed_ShouldKeepScoresOfFirstPage() {
+    for (long i = 10; i < 40; i++) {
+      put(i, JobOfferStatus.ACTIVE, "Developer " + i, i % 3 == 0 ? "developer developer" : "team", "Hamburg");
+    }
+    List<SearchHit> all = index.search(terms("developer"), null, 100, null);
+    List<SearchHit> paged = new ArrayList<>();
+    SearchCursor cursor = null;
+    List<SearchHit> page;
+    long next = 100;
+    do {
+      page = index.search(terms("developer"), null, 5, cursor);
+      paged.addAll(page);
+      if (!page.isEmpty()) {
+        SearchHit last = page.get(page.size() - 1);
+        cursor = SearchCursor.of(last.getScore(), last.getInternalId(), last.getGeneration());
+      }
+      // Every job offer indexed changes the document count, and the frequency of the term searched for.
+      put(next++, JobOfferStatus.ACTIVE, "Developer", "developer", "Hamburg");
+      put(next++, JobOfferStatus.ACTIVE, "Tester", "qa", "Hamburg");
+    } while (page.size() == 5);
+    assertEquals(internalIds(all), internalIds(paged));
+    for (int i = 0; i < all.size(); i++) {
+      assertEquals(all.get(i).getScore(), paged.get(i).getScore(), 0.0);
+    }
+  }
+
+  @Test
+  public void put_WithIndexedJobOffer_ShouldOnlyUpdateStatus() {
+    put(1L, JobOfferStatus.INACTIVE, "Changed", "Changed", "Changed");
+    assertTrue(index.search(terms("java berlin"), JobOfferStatus.ACTIVE, 10, null).isEmpty());
+    assertEquals(new HashSet<>(Arrays.asList(1L, 3L)),
+        new HashSet<>(internalIds(index.search(terms("java berlin"), JobOfferStatus.INACTIVE, 10, null))));
+    assertTrue(index.search(terms("changed"), null, 10, null).isEmpty());
+    assertEquals(4, index.size());
+  }
+
+  @Test
+  public void put_WithActiveStatusOfInactiveJobOffer_ShouldKeepInactiveStatus() {
+    put(3L, JobOfferStatus.ACTIVE, "Java Engineer", "Spring Boot services", "Berlin");
+    Set<Long> inactive = new HashSet<>(internalIds(index.search(terms("berlin"), JobOfferStatus.INACTIVE, 10, null)));
+    assertEquals(Collections.singleton(3L), inactive);
+  }
+
+  private void put(Long internalId, JobOfferStatus status, String jobTitle, String jobDescription, String location) {
+    index.put(internalId, UUID.randomUUID(), status, jobTitle, jobDescription, location);
+  }
+
+  private static List<String> terms(String query) {
+    return JobOfferIndex.tokenize(query);
+  }
+
+  private static List<Long> internalIds(List<SearchHit> hits) {
+    return hits.stream().map(SearchHit::getInternalId).collect(Collectors.toList());
+  }
+
+}
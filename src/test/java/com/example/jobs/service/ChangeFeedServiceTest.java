@@ -0,0 +1,89 @@
+package com.example.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.jobs.domain.Change;
+import com.example.jobs.domain.ChangeCursor;
+import com.example.jobs.domain.enums.EventType;
+import com.example.jobs.domain.projection.JobApplicationChange;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.service.impl.ChangeFeedServiceImpl;
+import com.example.jobs.service.impl.ChangeStamper;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class ChangeFeedServiceTest {
+
+  @Mock
+  private JobOfferRepository jobOfferRepository;
+
+  @Mock
+  private JobApplicationRepository jobApplicationRepository;
+
+  @Mock
+  private ChangeStamper changeStamper;
+
+  @InjectMocks
+  private ChangeFeedService changeFeedService = new ChangeFeedServiceImpl();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(changeStamper.findSettledTime()).thenReturn(new Date());
+  }
+
+  @Test
+  public void getChanges_WithChangesInBothTables_ShouldMergeByUpdatedTime() {
+    when(jobOfferRepository.findJobOfferSummariesUpdatedAfter(any(Date.class), anyLong(), any(Date.class),
+        any(Pageable.class))).thenReturn(Arrays.asList(getJobOffer(1L, 10), getJobOffer(2L, 30)));
+    when(jobApplicationRepository.findJobApplicationChangesAfter(any(Date.class), anyLong(), any(Date.class),
+        any(Pageable.class))).thenReturn(Arrays.asList(getJobApplication(1L, 20), getJobApplication(2L, 30)));
+
+    List<Change> changes = changeFeedService.getChanges(ChangeCursor.start(), 3);
+
+    assertEquals(3, changes.size());
+    assertEquals(EventType.JOB_OFFER, changes.get(0).getEventType());
+    assertEquals(EventType.JOB_APPLICATION, changes.get(1).getEventType());
+    assertEquals(EventType.JOB_OFFER, changes.get(2).getEventType());
+    ChangeCursor next = ChangeCursor.start().after(changes);
+    assertEquals(Long.valueOf(2), next.getJobOffers().getInternalId());
+    assertEquals(Long.valueOf(1), next.getJobApplications().getInternalId());
+  }
+
+  @Test
+  public void getChanges_WithInvalidLimit_ShouldReturnEmptyList() {
+    assertTrue(changeFeedService.getChanges(ChangeCursor.start(), 0).isEmpty());
+    verifyZeroInteractions(jobOfferRepository, jobApplicationRepository);
+  }
+
+  @Test
+  public void decode_EncodedCursor_ShouldReturnSamePositions() {
+    ChangeCursor cursor = ChangeCursor.start()
+        .after(Arrays.asList(Change.of(getJobOffer(5L, 10)), Change.of(getJobApplication(7L, 20))));
+    assertEquals(cursor, ChangeCursor.decode(cursor.encode()));
+  }
+
+  private JobOfferSummary getJobOffer(Long internalId, long updatedTime) {
+    return JobOfferSummary.builder().internalId(internalId).updatedTime(new Date(updatedTime)).build();
+  }
+
+  private JobApplicationChange getJobApplication(Long internalId, long updatedTime) {
+    return JobApplicationChange.builder().internalId(internalId).updatedTime(new Date(updatedTime)).build();
+  }
+
+}
@@ -0,0 +1,106 @@
+package com.example.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.service.impl.ChangeStamper;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+public class ChangeStamperTest {
+
+  @Mock
+  private JobOfferRepository jobOfferRepository;
+
+  @Mock
+  private JobApplicationRepository jobApplicationRepository;
+
+  @InjectMocks
+  private ChangeStamper changeStamper = new ChangeStamper();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(jobOfferRepository.findDatabaseTime()).thenReturn(new Date(1000));
+  }
+
+  @Test
+  public void changed_InTransaction_ShouldStampEveryRowOnceBeforeCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      changeStamper.jobOfferChanged(1L);
+      changeStamper.jobApplicationsChanged(Arrays.asList(5L, 6L));
+      changeStamper.jobOfferChanged(2L);
+      changeStamper.jobOfferChanged(1L);
+      verify(jobOfferRepository, never()).stampUpdatedTime(any(), any());
+      TransactionSynchronizationUtils.triggerBeforeCommit(false);
+      TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    verify(jobOfferRepository, times(1)).stampUpdatedTime(new Date(1000), Arrays.asList(1L, 2L));
+    verify(jobApplicationRepository, times(1)).stampUpdatedTime(new Date(1000), Arrays.asList(5L, 6L));
+    assertFalse(TransactionSynchronizationManager.hasResource(changeStamper));
+  }
+
+  @Test
+  public void changed_InTransactionWithoutJobApplications_ShouldOnlyStampJobOffers() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      changeStamper.jobOfferChanged(1L);
+      changeStamper.jobApplicationsChanged(Collections.emptyList());
+      TransactionSynchronizationUtils.triggerBeforeCommit(false);
+      TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    verify(jobOfferRepository, times(1)).stampUpdatedTime(new Date(1000), Collections.singletonList(1L));
+    verify(jobApplicationRepository, never()).stampUpdatedTime(any(), any());
+  }
+
+  @Test
+  public void findSettledTime_WithStampedTransactionNotCompleted_ShouldStayAtStamp() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      changeStamper.jobOfferChanged(1L);
+      TransactionSynchronizationUtils.triggerBeforeCommit(false);
+      when(jobOfferRepository.findDatabaseTime()).thenReturn(new Date(5000));
+
+      assertEquals(new Date(1000), changeStamper.findSettledTime());
+
+      TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertEquals(new Date(5000), changeStamper.findSettledTime());
+  }
+
+  @Test
+  public void changed_OutsideTransaction_ShouldNotStamp() {
+    changeStamper.jobOfferChanged(1L);
+    changeStamper.jobApplicationsChanged(Collections.singletonList(5L));
+    verifyZeroInteractions(jobOfferRepository, jobApplicationRepository);
+  }
+
+}
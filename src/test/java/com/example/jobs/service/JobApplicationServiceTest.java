@@ -1,20 +1,32 @@
 package com.example.jobs.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.domain.BulkItemResult;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.JobOffer;
 import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.BulkItemStatus;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
 import com.example.jobs.notification.NotificationPublisher;
 import com.example.jobs.repository.JobApplicationRepository;
+import com.example.jobs.service.impl.ChangeStamper;
 import com.example.jobs.service.impl.JobApplicationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -22,10 +34,16 @@ import org.junit.rules.ExpectedException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 public class JobApplicationServiceTest {
@@ -39,6 +57,9 @@ public class JobApplicationServiceTest {
   @Mock
   private NotificationPublisher notificationPublisher;
 
+  @Mock
+  private ChangeStamper changeStamper;
+
   @InjectMocks
   private JobApplicationService jobApplicationService = new JobApplicationServiceImpl();
 
@@ -50,6 +71,8 @@ public class JobApplicationServiceTest {
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(jobApplicationService, "missingJobApplications",
+        new BoundedCache<>("missingJobApplications", 100, 60000, new SimpleMeterRegistry()));
 
     jobOffer = JobOffer.builder()
         .jobOfferStatus(JobOfferStatus.ACTIVE)
@@ -63,12 +86,13 @@ public class JobApplicationServiceTest {
     JobApplication application = new JobApplication();
     UUID id = UUID.randomUUID();
     when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
-    when(repository.save(application)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
     doNothing().when(notificationPublisher).publishEvent(any(PublishEvent.class));
     JobApplication jobApplication = jobApplicationService.createJobApplication(application, id);
     assertEquals(application, jobApplication);
     verify(jobOfferService, times(1)).getJobOfferById(id);
     verify(repository, times(1)).save(application);
+    verify(jobOfferService, times(1)).incrementApplicationsCount(jobOffer, 1);
     verify(notificationPublisher, times(1)).publishEvent(any(PublishEvent.class));
   }
 
@@ -78,7 +102,7 @@ public class JobApplicationServiceTest {
     UUID id = UUID.randomUUID();
     jobOffer.setJobOfferStatus(JobOfferStatus.INACTIVE);
     when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
-    when(repository.save(application)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
     doNothing().when(notificationPublisher).publishEvent(any(PublishEvent.class));
     thrown.expect(ResponseStatusException.class);
     thrown.expectMessage("Job offer has no vacancies");
@@ -94,9 +118,9 @@ public class JobApplicationServiceTest {
     JobApplication application = new JobApplication();
     application.setCandidateEmail("abc@jobs.com");
     UUID id = UUID.randomUUID();
-    jobOffer.setApplications(Arrays.asList(JobApplication.builder().candidateEmail("abc@jobs.com").build()));
     when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
-    when(repository.save(application)).thenReturn(application);
+    when(repository.existsByJobOfferAndCandidateEmail(jobOffer, "abc@jobs.com")).thenReturn(true);
+    when(repository.saveAndFlush(application)).thenReturn(application);
     doNothing().when(notificationPublisher).publishEvent(any(PublishEvent.class));
     thrown.expect(ResponseStatusException.class);
     thrown.expectMessage("Job Application for the given email already exists.");
@@ -107,6 +131,85 @@ public class JobApplicationServiceTest {
     verify(notificationPublisher, times(1)).publishEvent(any(PublishEvent.class));
   }
 
+  @Test
+  public void createJobApplication_WithConcurrentDuplicate_ShouldThrowBadRequestException() {
+    JobApplication application = new JobApplication();
+    application.setCandidateEmail("abc@jobs.com");
+    UUID id = UUID.randomUUID();
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    when(repository.existsByJobOfferAndCandidateEmail(jobOffer, "abc@jobs.com")).thenReturn(false);
+    when(repository.saveAndFlush(application)).thenThrow(new DataIntegrityViolationException("duplicate"));
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job Application for the given email already exists.");
+    jobApplicationService.createJobApplication(application, id);
+  }
+
+  @Test
+  public void createJobApplications_WithDuplicateEmails_ShouldRejectDuplicatesAndCreateTheRest() {
+    UUID id = UUID.randomUUID();
+    List<JobApplication> applications = Arrays.asList(
+        JobApplication.builder().candidateEmail("new@jobs.com").build(),
+        JobApplication.builder().candidateEmail("abc@jobs.com").build(),
+        JobApplication.builder().candidateEmail("new@jobs.com").build());
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    when(repository.findCandidateEmails(eq(jobOffer), anyCollection())).thenReturn(Arrays.asList("abc@jobs.com"));
+    List<BulkItemResult> results = jobApplicationService.createJobApplications(applications, id);
+    assertEquals(3, results.size());
+    assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+    assertEquals(applications.get(0).getId(), results.get(0).getId());
+    assertEquals(BulkItemStatus.REJECTED, results.get(1).getStatus());
+    assertEquals(1, results.get(1).getIndex());
+    assertEquals(BulkItemStatus.REJECTED, results.get(2).getStatus());
+    verify(repository, times(1)).saveAll(Arrays.asList(applications.get(0)));
+    verify(repository, times(1)).flush();
+    verify(jobOfferService, times(1)).incrementApplicationsCount(jobOffer, 1);
+    verify(notificationPublisher, times(1)).publishEvent(any(PublishEvent.class));
+  }
+
+  @Test
+  public void createJobApplications_WithOnlyDuplicates_ShouldNotInsert() {
+    UUID id = UUID.randomUUID();
+    List<JobApplication> applications = Arrays.asList(JobApplication.builder().candidateEmail("abc@jobs.com").build());
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    when(repository.findCandidateEmails(eq(jobOffer), anyCollection())).thenReturn(Arrays.asList("abc@jobs.com"));
+    List<BulkItemResult> results = jobApplicationService.createJobApplications(applications, id);
+    assertEquals(BulkItemStatus.REJECTED, results.get(0).getStatus());
+    verify(repository, times(0)).flush();
+    verify(jobOfferService, times(0)).incrementApplicationsCount(any(JobOffer.class), anyInt());
+  }
+
+  @Test
+  public void createJobApplications_WithInactiveJobOffer_ShouldThrowBadRequestException() {
+    UUID id = UUID.randomUUID();
+    jobOffer.setJobOfferStatus(JobOfferStatus.INACTIVE);
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job offer has no vacancies");
+    jobApplicationService.createJobApplications(Arrays.asList(new JobApplication()), id);
+  }
+
+  @Test
+  public void createJobApplications_WithTooManyApplications_ShouldThrowBadRequestException() {
+    List<JobApplication> applications = new ArrayList<>();
+    for (int i = 0; i <= 500; i++) {
+      applications.add(new JobApplication());
+    }
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("At most 500 job applications can be processed at once.");
+    jobApplicationService.createJobApplications(applications, UUID.randomUUID());
+  }
+
+  @Test
+  public void createJobApplications_WithConcurrentDuplicate_ShouldThrowConflictException() {
+    UUID id = UUID.randomUUID();
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    doThrow(new DataIntegrityViolationException("duplicate")).when(repository).flush();
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job Applications for the given emails were created concurrently.");
+    jobApplicationService.createJobApplications(
+        Arrays.asList(JobApplication.builder().candidateEmail("new@jobs.com").build()), id);
+  }
+
   @Test
   public void getJobApplicationById_WithValidInput_ShouldReturnJobApplication() {
     UUID id = UUID.randomUUID();
@@ -127,18 +230,40 @@ public class JobApplicationServiceTest {
     verify(repository, times(1)).findById(id);
   }
 
+  @Test
+  public void getJobApplicationById_WithMissingIdRequestedTwice_ShouldQueryOnce() {
+    UUID id = UUID.randomUUID();
+    when(repository.findById(id)).thenReturn(null);
+    ResponseStatusException first = getNotFoundException(() -> jobApplicationService.getJobApplicationById(id));
+    ResponseStatusException second = getNotFoundException(() -> jobApplicationService.getJobApplicationVersion(id));
+    assertNotSame(first, second);
+    assertEquals(0, first.getStackTrace().length);
+    verify(repository, times(1)).findById(id);
+    verify(repository, times(0)).findVersionById(id);
+  }
+
+  @Test
+  public void getJobApplicationVersion_WithInvalidInput_ShouldThrowNotFoundException() {
+    UUID id = UUID.randomUUID();
+    when(repository.findVersionById(id)).thenReturn(null);
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("No Job Application found associated with the ID.");
+    jobApplicationService.getJobApplicationVersion(id);
+  }
+
   @Test
   public void updateJobApplication_WithValidInput_ShouldUpdateTheJobStatus() {
     UUID id = UUID.randomUUID();
     JobApplication application = getResourceForJobApplicationUpdate();
     when(repository.findById(id)).thenReturn(application);
-    when(repository.save(application)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
     doNothing().when(notificationPublisher).publishEvent(any(PublishEvent.class));
     JobApplication jobApplication = jobApplicationService.updateJobApplication(id, JobApplicationStatus.INVITED);
     assertEquals(application, jobApplication);
     verify(repository, times(1)).findById(id);
-    verify(repository, times(1)).save(application);
+    verify(repository, times(1)).saveAndFlush(application);
     verify(notificationPublisher, times(1)).publishEvent(any(PublishEvent.class));
+    verify(jobOfferService, times(0)).claimVacancies(jobOffer, 1);
   }
 
   @Test
@@ -152,7 +277,7 @@ public class JobApplicationServiceTest {
     JobApplication jobApplication = jobApplicationService.updateJobApplication(id, JobApplicationStatus.INVITED);
     assertEquals(application, jobApplication);
     verify(repository, times(1)).findById(id);
-    verify(repository, times(0)).save(application);
+    verify(repository, times(0)).saveAndFlush(application);
     verify(notificationPublisher, times(0)).publishEvent(any(PublishEvent.class));
   }
 
@@ -160,19 +285,164 @@ public class JobApplicationServiceTest {
   public void updateJobApplication_ForFinalJobApplication_ShouldMarkJobOfferInactive() {
     UUID id = UUID.randomUUID();
     JobApplication application = getResourceForJobApplicationUpdate();
-    application.setApplicationStatus(JobApplicationStatus.HIRED);
     when(repository.findById(id)).thenReturn(application);
-    when(repository.save(application)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
+    when(jobOfferService.claimVacancies(jobOffer, 1)).thenReturn(0);
     doNothing().when(notificationPublisher).publishEvent(any(PublishEvent.class));
     doNothing().when(jobOfferService).markJobOfferInactive(application.getJobOffer());
     JobApplication jobApplication = jobApplicationService.updateJobApplication(id, JobApplicationStatus.HIRED);
     assertEquals(application, jobApplication);
     verify(repository, times(1)).findById(id);
-    verify(repository, times(1)).save(application);
+    verify(repository, times(1)).saveAndFlush(application);
     verify(notificationPublisher, times(1)).publishEvent(any(PublishEvent.class));
+    verify(jobOfferService, times(1)).claimVacancies(jobOffer, 1);
     verify(jobOfferService, times(1)).markJobOfferInactive(application.getJobOffer());
   }
 
+  @Test
+  public void updateJobApplication_WithVacanciesLeft_ShouldNotMarkJobOfferInactive() {
+    UUID id = UUID.randomUUID();
+    JobApplication application = getResourceForJobApplicationUpdate();
+    when(repository.findById(id)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
+    when(jobOfferService.claimVacancies(jobOffer, 1)).thenReturn(1);
+    jobApplicationService.updateJobApplication(id, JobApplicationStatus.HIRED);
+    verify(jobOfferService, times(1)).claimVacancies(jobOffer, 1);
+    verify(jobOfferService, times(0)).markJobOfferInactive(jobOffer);
+  }
+
+  @Test
+  public void updateJobApplication_WithNoVacancyLeft_ShouldThrowBadRequestException() {
+    UUID id = UUID.randomUUID();
+    JobApplication application = getResourceForJobApplicationUpdate();
+    when(repository.findById(id)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
+    when(jobOfferService.claimVacancies(jobOffer, 1)).thenReturn(-1);
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job offer has no vacancies");
+    jobApplicationService.updateJobApplication(id, JobApplicationStatus.HIRED);
+  }
+
+  @Test
+  public void updateJobApplication_WithConcurrentModification_ShouldThrowConflictException() {
+    UUID id = UUID.randomUUID();
+    JobApplication application = getResourceForJobApplicationUpdate();
+    when(repository.findById(id)).thenReturn(application);
+    when(repository.saveAndFlush(application))
+        .thenThrow(new ObjectOptimisticLockingFailureException(JobApplication.class, id));
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job Application was modified concurrently.");
+    jobApplicationService.updateJobApplication(id, JobApplicationStatus.INVITED);
+  }
+
+  @Test
+  public void updateJobApplication_FromHiredStatus_ShouldReleaseVacancy() {
+    UUID id = UUID.randomUUID();
+    JobApplication application = getResourceForJobApplicationUpdate();
+    application.setApplicationStatus(JobApplicationStatus.HIRED);
+    when(repository.findById(id)).thenReturn(application);
+    when(repository.saveAndFlush(application)).thenReturn(application);
+    jobApplicationService.updateJobApplication(id, JobApplicationStatus.REJECTED);
+    verify(jobOfferService, times(1)).releaseVacancies(jobOffer, 1);
+    verify(jobOfferService, times(0)).claimVacancies(jobOffer, 1);
+  }
+
+  @Test
+  public void updateJobApplications_WithHiresFillingVacancies_ShouldUpdateAndMarkJobOfferInactive() {
+    jobOffer.setInternalId(1L);
+    jobOffer.setVacancies(2);
+    JobApplication first = getJobApplicationForBulkUpdate(10L);
+    JobApplication second = getJobApplicationForBulkUpdate(11L);
+    UUID missingId = UUID.randomUUID();
+    List<UUID> ids = Arrays.asList(first.getId(), missingId, second.getId(), first.getId());
+    when(repository.findWithJobOfferByIdIn(anyCollection())).thenReturn(Arrays.asList(first, second));
+    when(jobOfferService.claimVacancies(jobOffer, 2)).thenReturn(0);
+    when(repository.updateApplicationStatus(eq(Arrays.asList(10L, 11L)), eq(JobApplicationStatus.APPLIED),
+        eq(JobApplicationStatus.HIRED), any(Date.class))).thenReturn(2);
+    List<BulkItemResult> results = jobApplicationService.updateJobApplications(ids, JobApplicationStatus.HIRED);
+    assertEquals(4, results.size());
+    assertEquals(BulkItemStatus.UPDATED, results.get(0).getStatus());
+    assertEquals(BulkItemStatus.REJECTED, results.get(1).getStatus());
+    assertEquals(BulkItemStatus.UPDATED, results.get(2).getStatus());
+    assertEquals(BulkItemStatus.REJECTED, results.get(3).getStatus());
+    verify(jobOfferService, times(1)).claimVacancies(jobOffer, 2);
+    verify(jobOfferService, times(1)).markJobOfferInactive(jobOffer);
+    verify(notificationPublisher, times(1)).publishEvents(anyList());
+    verify(notificationPublisher, times(0)).publishEvent(any(PublishEvent.class));
+  }
+
+  @Test
+  public void updateJobApplications_WithoutEnoughVacancies_ShouldRejectApplicationsOfThatJobOffer() {
+    jobOffer.setInternalId(1L);
+    JobApplication first = getJobApplicationForBulkUpdate(10L);
+    JobApplication second = getJobApplicationForBulkUpdate(11L);
+    when(repository.findWithJobOfferByIdIn(anyCollection())).thenReturn(Arrays.asList(first, second));
+    when(jobOfferService.claimVacancies(jobOffer, 2)).thenReturn(-1);
+    List<BulkItemResult> results = jobApplicationService
+        .updateJobApplications(Arrays.asList(first.getId(), second.getId()), JobApplicationStatus.HIRED);
+    assertEquals(BulkItemStatus.REJECTED, results.get(0).getStatus());
+    assertEquals("Job offer has no vacancies", results.get(1).getMessage());
+    verify(repository, times(0)).updateApplicationStatus(anyCollection(), any(JobApplicationStatus.class),
+        any(JobApplicationStatus.class), any(Date.class));
+  }
+
+  @Test
+  public void updateJobApplications_FromHiredStatus_ShouldReleaseVacancies() {
+    jobOffer.setInternalId(1L);
+    JobApplication first = getJobApplicationForBulkUpdate(10L);
+    first.setApplicationStatus(JobApplicationStatus.HIRED);
+    JobApplication second = getJobApplicationForBulkUpdate(11L);
+    when(repository.findWithJobOfferByIdIn(anyCollection())).thenReturn(Arrays.asList(first, second));
+    when(repository.updateApplicationStatus(anyCollection(), any(JobApplicationStatus.class),
+        eq(JobApplicationStatus.REJECTED), any(Date.class))).thenReturn(1);
+    jobApplicationService
+        .updateJobApplications(Arrays.asList(first.getId(), second.getId()), JobApplicationStatus.REJECTED);
+    verify(jobOfferService, times(1)).releaseVacancies(jobOffer, 1);
+    verify(repository, times(2)).updateApplicationStatus(anyCollection(), any(JobApplicationStatus.class),
+        eq(JobApplicationStatus.REJECTED), any(Date.class));
+  }
+
+  @Test
+  public void updateJobApplications_ForInactiveJobOffer_ShouldRejectApplications() {
+    jobOffer.setJobOfferStatus(JobOfferStatus.INACTIVE);
+    JobApplication application = getJobApplicationForBulkUpdate(10L);
+    when(repository.findWithJobOfferByIdIn(anyCollection())).thenReturn(Arrays.asList(application));
+    List<BulkItemResult> results = jobApplicationService
+        .updateJobApplications(Arrays.asList(application.getId()), JobApplicationStatus.INVITED);
+    assertEquals("Job offer is expired.", results.get(0).getMessage());
+  }
+
+  @Test
+  public void updateJobApplications_WithConcurrentModification_ShouldThrowConflictException() {
+    jobOffer.setInternalId(1L);
+    JobApplication application = getJobApplicationForBulkUpdate(10L);
+    when(repository.findWithJobOfferByIdIn(anyCollection())).thenReturn(Arrays.asList(application));
+    when(repository.updateApplicationStatus(anyCollection(), any(JobApplicationStatus.class),
+        any(JobApplicationStatus.class), any(Date.class))).thenReturn(0);
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job Application was modified concurrently.");
+    jobApplicationService.updateJobApplications(Arrays.asList(application.getId()), JobApplicationStatus.INVITED);
+  }
+
+  private JobApplication getJobApplicationForBulkUpdate(Long internalId) {
+    return JobApplication.builder()
+        .internalId(internalId)
+        .id(UUID.randomUUID())
+        .applicationStatus(JobApplicationStatus.APPLIED)
+        .jobOffer(jobOffer)
+        .build();
+  }
+
+  private static ResponseStatusException getNotFoundException(Runnable lookup) {
+    try {
+      lookup.run();
+    } catch (ResponseStatusException e) {
+      assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+      return e;
+    }
+    throw new AssertionError("Expected Not Found Exception.");
+  }
+
   private JobApplication getResourceForJobApplicationUpdate() {
     JobApplication application = new JobApplication();
     application.setApplicationStatus(JobApplicationStatus.APPLIED);
@@ -180,4 +450,28 @@ public class JobApplicationServiceTest {
     application.setJobOffer(jobOffer);
     return application;
   }
+
+  @Test
+  public void getJobApplicationsByIds_WithMissingAndRepeatedIds_ShouldReturnResultsInRequestOrder() {
+    UUID found = UUID.randomUUID();
+    UUID missing = UUID.randomUUID();
+    JobApplicationSummary application = JobApplicationSummary.builder().id(found).build();
+    when(repository.findJobApplicationSummariesByIdIn(Arrays.asList(missing, found)))
+        .thenReturn(Arrays.asList(application));
+    List<JobApplicationSummary> result =
+        jobApplicationService.getJobApplicationsByIds(Arrays.asList(missing, found, missing, found));
+    assertEquals(Arrays.asList(null, application, null, application), result);
+  }
+
+  @Test
+  public void getJobApplicationsByIds_WithTooManyIds_ShouldThrowBadRequestException() {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 501; i++) {
+      ids.add(UUID.randomUUID());
+    }
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("At most 500 job applications can be fetched at once.");
+    jobApplicationService.getJobApplicationsByIds(ids);
+  }
+
 }
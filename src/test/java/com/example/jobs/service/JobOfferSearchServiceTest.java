@@ -0,0 +1,139 @@
+package com.example.jobs.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.jobs.config.SearchProperties;
+import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobOfferSearchPage;
+import com.example.jobs.domain.projection.JobOfferSearchResult;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.service.impl.JobOfferSearchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+public class JobOfferSearchServiceTest {
+
+  @Mock
+  private JobOfferRepository repository;
+
+  @InjectMocks
+  private JobOfferSearchServiceImpl searchService = new JobOfferSearchServiceImpl();
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  private JobOfferSummary javaDeveloper;
+
+  private JobOfferSummary javaTester;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(searchService, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(searchService, "properties", new SearchProperties());
+    javaDeveloper = getJobOffer(1L, "Java Developer", "Spring services", 10);
+    javaTester = getJobOffer(2L, "Tester", "Tests Java services", 20);
+    when(repository.findDatabaseTime()).thenReturn(new Date());
+    when(repository.findJobOfferSummariesUpdatedAfter(any(Date.class), anyLong(), any(Date.class),
+        any(Pageable.class))).thenReturn(Arrays.asList(javaDeveloper, javaTester), Collections.emptyList());
+    searchService.start();
+  }
+
+  @Test
+  public void searchJobOffers_AfterStart_ShouldReturnIndexedJobOffersInRankingOrder() {
+    when(repository.findJobOfferSummariesByIdIn(anyCollection())).thenReturn(Arrays.asList(javaTester, javaDeveloper));
+
+    List<JobOfferSearchResult> results = searchService.searchJobOffers("Java services", JobOfferStatus.ACTIVE, 10,
+        null).getResults();
+
+    assertEquals(2, results.size());
+    assertEquals(javaDeveloper, results.get(0).getJobOffer());
+    assertEquals(javaTester, results.get(1).getJobOffer());
+    assertTrue(results.get(0).getScore() > results.get(1).getScore());
+  }
+
+  @Test
+  public void searchJobOffers_WithFullPageMissingJobOffer_ShouldContinueAfterLastHit() {
+    when(repository.findJobOfferSummariesByIdIn(anyCollection())).thenReturn(Collections.singletonList(javaDeveloper));
+
+    JobOfferSearchPage page = searchService.searchJobOffers("Java services", JobOfferStatus.ACTIVE, 2, null);
+
+    assertEquals(1, page.getResults().size());
+    assertEquals(javaDeveloper, page.getResults().get(0).getJobOffer());
+    assertEquals(javaTester.getInternalId(), page.getNextCursor().getInternalId());
+    assertEquals(2, page.getNextCursor().getGeneration());
+  }
+
+  @Test
+  public void searchJobOffers_WithoutMatches_ShouldNotQueryJobOffers() {
+    assertTrue(searchService.searchJobOffers("kotlin", JobOfferStatus.ACTIVE, 10, null).getResults().isEmpty());
+    verify(repository, times(0)).findJobOfferSummariesByIdIn(anyCollection());
+  }
+
+  @Test
+  public void searchJobOffers_WithoutWords_ShouldThrowBadRequestException() {
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("The search query must contain at least one word.");
+    searchService.searchJobOffers(" -- ", JobOfferStatus.ACTIVE, 10, null);
+  }
+
+  @Test
+  public void searchJobOffers_WithTooLargeLimit_ShouldThrowBadRequestException() {
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("At most 100 job offers can be searched for at once.");
+    searchService.searchJobOffers("java", JobOfferStatus.ACTIVE, 101, null);
+  }
+
+  @Test
+  public void indexJobOffer_WithInactiveJobOffer_ShouldMoveItToInactiveResults() {
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).id(javaDeveloper.getId())
+        .jobOfferStatus(JobOfferStatus.INACTIVE).build();
+    when(repository.findJobOfferSummariesByIdIn(Collections.singletonList(javaDeveloper.getId())))
+        .thenReturn(Collections.singletonList(javaDeveloper));
+
+    searchService.indexJobOffer(jobOffer);
+
+    assertTrue(searchService.searchJobOffers("spring", JobOfferStatus.ACTIVE, 10, null).getResults().isEmpty());
+    assertEquals(1, searchService.searchJobOffers("spring", JobOfferStatus.INACTIVE, 10, null).getResults().size());
+  }
+
+  @Test
+  public void refresh_AfterIndexedChanges_ShouldContinueAfterLastChange() {
+    searchService.refresh();
+    verify(repository, times(1)).findJobOfferSummariesUpdatedAfter(eq(new Date(20)), eq(2L), any(Date.class),
+        any(Pageable.class));
+  }
+
+  private static JobOfferSummary getJobOffer(Long internalId, String jobTitle, String jobDescription,
+      long updatedTime) {
+    return JobOfferSummary.builder().internalId(internalId).id(UUID.randomUUID()).jobTitle(jobTitle)
+        .jobDescription(jobDescription).location("Berlin").jobOfferStatus(JobOfferStatus.ACTIVE)
+        .updatedTime(new Date(updatedTime)).build();
+  }
+
+}
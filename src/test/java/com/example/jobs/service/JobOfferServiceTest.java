@@ -1,20 +1,42 @@
 package com.example.jobs.service;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.example.jobs.cache.BoundedCache;
+import com.example.jobs.cache.EncodedPage;
+import com.example.jobs.cache.JobOfferPageKey;
+import com.example.jobs.cache.SingleFlight;
+import com.example.jobs.domain.BulkItemResult;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PageCursor;
 import com.example.jobs.domain.PublishEvent;
+import com.example.jobs.domain.enums.BulkItemStatus;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
+import com.example.jobs.domain.projection.JobOfferSummary;
 import com.example.jobs.notification.NotificationPublisher;
+import com.example.jobs.repository.JobApplicationRepository;
 import com.example.jobs.repository.JobOfferRepository;
+import com.example.jobs.repository.OffsetPageRequest;
+import com.example.jobs.service.impl.ChangeStamper;
 import com.example.jobs.service.impl.JobOfferServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -22,66 +44,167 @@ import org.junit.rules.ExpectedException;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
 
 public class JobOfferServiceTest {
 
   @Mock
   private JobOfferRepository repository;
 
+  @Mock
+  private JobApplicationRepository applicationRepository;
+
   @Mock
   private NotificationPublisher publisher;
 
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private JobOfferSearchService searchService;
+
+  @Mock
+  private ChangeStamper changeStamper;
+
   @InjectMocks
   private JobOfferService jobOfferService = new JobOfferServiceImpl();
 
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  private MeterRegistry meterRegistry;
+
+  private BoundedCache<UUID, JobOffer> jobOfferCache;
+
+  private BoundedCache<JobOfferPageKey, EncodedPage> jobOfferPageCache;
+
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
+    meterRegistry = new SimpleMeterRegistry();
+    jobOfferCache = new BoundedCache<>("jobOffers", 100, 60000, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(jobOfferService, "jobOfferCache", jobOfferCache);
+    jobOfferPageCache = new BoundedCache<>("jobOfferPages", 100, 60000, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(jobOfferService, "jobOfferPageCache", jobOfferPageCache);
+    ReflectionTestUtils.setField(jobOfferService, "missingJobOffers",
+        new BoundedCache<>("missingJobOffers", 100, 60000, new SimpleMeterRegistry()));
+    ReflectionTestUtils.setField(jobOfferService, "jobOfferLoads", new SingleFlight<>("jobOffers", meterRegistry));
+    ReflectionTestUtils.setField(jobOfferService, "jobOfferPageLoads",
+        new SingleFlight<>("jobOfferPages", meterRegistry));
   }
 
   @Test
   public void getAllJobOffers_WithValidInput_ShouldReturnListOfJobOffers() {
-    when(repository.findJobOffers("ACTIVE", 10, 0)).thenReturn(new ArrayList<>());
-    List<JobOffer> result = jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0);
+    when(repository.findJobOfferSummaries(JobOfferStatus.ACTIVE, OffsetPageRequest.of(10, 0)))
+        .thenReturn(new ArrayList<>());
+    List<JobOfferSummary> result = jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0);
+    assertEquals(0, result.size());
+    verify(repository, times(1)).findJobOfferSummaries(JobOfferStatus.ACTIVE, OffsetPageRequest.of(10, 0));
+  }
+
+  @Test
+  public void getAllJobOffers_WithCursor_ShouldSeekAfterCursor() {
+    PageCursor cursor = PageCursor.of(new Date(), 5L);
+    when(repository.findJobOfferSummariesAfter(JobOfferStatus.ACTIVE, cursor.getTimestamp(), 5L,
+        OffsetPageRequest.of(10, 0))).thenReturn(new ArrayList<>());
+    List<JobOfferSummary> result = jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, cursor);
+    assertEquals(0, result.size());
+    verify(repository, times(1)).findJobOfferSummariesAfter(JobOfferStatus.ACTIVE, cursor.getTimestamp(), 5L,
+        OffsetPageRequest.of(10, 0));
+  }
+
+  @Test
+  public void getAllJobOffers_WithoutCursor_ShouldReturnFirstPage() {
+    when(repository.findJobOfferSummaries(JobOfferStatus.ACTIVE, OffsetPageRequest.of(10, 0)))
+        .thenReturn(new ArrayList<>());
+    List<JobOfferSummary> result = jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, (PageCursor) null);
     assertEquals(0, result.size());
-    verify(repository, times(1)).findJobOffers("ACTIVE", 10, 0);
+    verify(repository, times(1)).findJobOfferSummaries(JobOfferStatus.ACTIVE, OffsetPageRequest.of(10, 0));
+  }
+
+  @Test
+  public void getAllJobOffers_WithZeroLimit_ShouldNotQueryDataBase() {
+    List<JobOfferSummary> result = jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 0, 0);
+    assertEquals(0, result.size());
+    verify(repository, times(0)).findJobOfferSummaries(any(JobOfferStatus.class), any(Pageable.class));
   }
 
   @Test
   public void createJobOffer_WithValidInput_ShouldCreateJobOfferInDataBase() {
     JobOffer jobOffer = new JobOffer();
     jobOffer.setJobTitle("Job Title");
-    when(repository.findByJobTitleIgnoreCase(jobOffer.getJobTitle())).thenReturn(null);
-    when(repository.save(jobOffer)).thenReturn(jobOffer);
+    when(repository.existsByNormalizedJobTitle("job title")).thenReturn(false);
+    when(repository.saveAndFlush(jobOffer)).thenReturn(jobOffer);
     doNothing().when(publisher).publishEvent(any(PublishEvent.class));
     JobOffer savedJobOffer = jobOfferService.createJobOffer(jobOffer);
     assertEquals(jobOffer, savedJobOffer);
-    verify(repository, times(1)).findByJobTitleIgnoreCase(jobOffer.getJobTitle());
-    verify(repository, times(1)).save(jobOffer);
+    verify(repository, times(1)).existsByNormalizedJobTitle("job title");
+    verify(repository, times(1)).saveAndFlush(jobOffer);
     verify(publisher, times(1)).publishEvent(any(PublishEvent.class));
   }
 
   @Test
-  public void createJobOffer_WithSameJobTitle_ShouldThrowBadRequestException() {
+  public void createJobOffer_InTransaction_ShouldIndexJobOfferAfterCommit() {
     JobOffer jobOffer = new JobOffer();
     jobOffer.setJobTitle("Job Title");
-    when(repository.findByJobTitleIgnoreCase(jobOffer.getJobTitle())).thenReturn(new JobOffer());
+    when(repository.saveAndFlush(jobOffer)).thenReturn(jobOffer);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      jobOfferService.createJobOffer(jobOffer);
+      verify(searchService, never()).indexJobOffer(any(JobOffer.class));
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+      TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    verify(searchService, times(1)).indexJobOffer(jobOffer);
+  }
+
+  @Test
+  public void createJobOffer_WithSameJobTitle_ShouldThrowBadRequestException() {
+    JobOffer jobOffer = new JobOffer();
+    jobOffer.setJobTitle(" Job Title");
+    when(repository.existsByNormalizedJobTitle("job title")).thenReturn(true);
     thrown.expect(ResponseStatusException.class);
-    thrown.expectMessage("Job offer with job title: Job Title already exists.");
+    thrown.expectMessage("Job offer with job title:  Job Title already exists.");
     JobOffer savedJobOffer = jobOfferService.createJobOffer(jobOffer);
-    verify(repository, times(1)).findByJobTitleIgnoreCase(jobOffer.getJobTitle());
-    verify(repository, times(0)).save(jobOffer);
+    verify(repository, times(1)).existsByNormalizedJobTitle("job title");
+    verify(repository, times(0)).saveAndFlush(jobOffer);
     verify(publisher, times(0)).publishEvent(any(PublishEvent.class));
   }
 
+  @Test
+  public void createJobOffer_WithConcurrentSameJobTitle_ShouldThrowBadRequestException() {
+    JobOffer jobOffer = new JobOffer();
+    jobOffer.setJobTitle("Job Title");
+    when(repository.existsByNormalizedJobTitle("job title")).thenReturn(false);
+    when(repository.saveAndFlush(jobOffer)).thenThrow(new DataIntegrityViolationException("duplicate"));
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("Job offer with job title: Job Title already exists.");
+    jobOfferService.createJobOffer(jobOffer);
+  }
+
   @Test
   public void getJobOfferById_WithValidId_ShouldReturnJobOffer() {
     JobOffer offer = new JobOffer();
@@ -92,6 +215,73 @@ public class JobOfferServiceTest {
     verify(repository, times(1)).findById(id);
   }
 
+  @Test
+  public void getJobOfferById_CalledTwice_ShouldServeSecondCallFromCache() {
+    UUID id = UUID.randomUUID();
+    when(repository.findById(id)).thenReturn(JobOffer.builder().id(id).vacancies(2).build());
+    JobOffer first = jobOfferService.getJobOfferById(id);
+    JobOffer second = jobOfferService.getJobOfferById(id);
+    assertEquals(first, second);
+    assertNotSame(first, second);
+    verify(repository, times(1)).findById(id);
+  }
+
+  @Test
+  public void getJobOfferById_AfterApplicationsCountChange_ShouldReloadJobOffer() {
+    UUID id = UUID.randomUUID();
+    JobOffer offer = JobOffer.builder().id(id).internalId(1L).build();
+    when(repository.findById(id)).thenReturn(offer);
+    jobOfferService.getJobOfferById(id);
+    jobOfferService.incrementApplicationsCount(offer, 1);
+    jobOfferService.getJobOfferById(id);
+    verify(repository, times(2)).findById(id);
+  }
+
+  @Test
+  public void getJobOfferById_WithConcurrentCalls_ShouldQueryOnce() throws Exception {
+    UUID id = UUID.randomUUID();
+    CountDownLatch release = new CountDownLatch(1);
+    when(repository.findById(id)).thenAnswer(x -> {
+      release.await(10, TimeUnit.SECONDS);
+      return JobOffer.builder().id(id).build();
+    });
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<JobOffer>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> jobOfferService.getJobOfferById(id)));
+      }
+      Counter coalesced = meterRegistry.get("singleflight.calls").tag("flight", "jobOffers")
+          .tag("result", "coalesced").counter();
+      while (coalesced.count() < 3) {
+        Thread.yield();
+      }
+      release.countDown();
+      for (Future<JobOffer> result : results) {
+        assertEquals(id, result.get(10, TimeUnit.SECONDS).getId());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(repository, times(1)).findById(id);
+  }
+
+  @Test
+  public void getJobOfferById_WithMissingIdRequestedTwice_ShouldQueryOnce() {
+    UUID id = UUID.randomUUID();
+    when(repository.findById(id)).thenReturn(null);
+    for (int i = 0; i < 2; i++) {
+      try {
+        jobOfferService.getJobOfferById(id);
+        fail();
+      } catch (ResponseStatusException e) {
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+        assertEquals(0, e.getStackTrace().length);
+      }
+    }
+    verify(repository, times(1)).findById(id);
+  }
+
   @Test
   public void getJobOfferById_WithInvalidId_ShouldThrowNotFoundException() {
     UUID id = UUID.randomUUID();
@@ -104,45 +294,196 @@ public class JobOfferServiceTest {
 
   @Test
   public void markJobOfferInactive_WithValidJobOffer_ShouldUpdateStatusToInactive() {
-    JobOffer jobOffer = new JobOffer();
-    when(repository.save(jobOffer)).thenReturn(jobOffer);
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).jobOfferStatus(JobOfferStatus.ACTIVE).build();
+    when(repository.markInactive(eq(1L), any(Date.class))).thenReturn(1);
     doNothing().when(publisher).publishEvent(any(PublishEvent.class));
     jobOfferService.markJobOfferInactive(jobOffer);
-    verify(repository, times(1)).save(jobOffer);
+    verify(repository, times(1)).markInactive(eq(1L), any(Date.class));
     verify(publisher, times(1)).publishEvent(any(PublishEvent.class));
+    verify(searchService, times(1)).indexJobOffer(argThat(x -> x.getJobOfferStatus() == JobOfferStatus.INACTIVE));
+  }
+
+  @Test
+  public void markJobOfferInactive_WithAlreadyInactiveJobOffer_ShouldNotPublishEvent() {
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).build();
+    when(repository.markInactive(eq(1L), any(Date.class))).thenReturn(0);
+    jobOfferService.markJobOfferInactive(jobOffer);
+    verify(publisher, times(0)).publishEvent(any(PublishEvent.class));
+  }
+
+  @Test
+  public void incrementApplicationsCount_WithValidJobOffer_ShouldUpdateCounter() {
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).build();
+    jobOfferService.incrementApplicationsCount(jobOffer, 3);
+    verify(repository, times(1)).addToApplicationsCount(1L, 3);
+  }
+
+  @Test
+  public void incrementApplicationsCount_WithActiveJobOffer_ShouldOnlyEvictActivePages() {
+    JobOfferPageKey activePage = new JobOfferPageKey(JobOfferStatus.ACTIVE, 10, 0, null);
+    JobOfferPageKey inactivePage = new JobOfferPageKey(JobOfferStatus.INACTIVE, 10, 0, null);
+    jobOfferPageCache.put(activePage, new EncodedPage(new byte[0], "\"active\"", null));
+    jobOfferPageCache.put(inactivePage, new EncodedPage(new byte[0], "\"inactive\"", null));
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).jobOfferStatus(JobOfferStatus.ACTIVE).build();
+    jobOfferService.incrementApplicationsCount(jobOffer, 1);
+    assertNull(jobOfferPageCache.get(activePage));
+    assertNotNull(jobOfferPageCache.get(inactivePage));
+  }
+
+  @Test
+  public void markJobOfferInactive_WithValidJobOffer_ShouldEvictPagesOfBothStatuses() {
+    JobOfferPageKey activePage = new JobOfferPageKey(JobOfferStatus.ACTIVE, 10, 0, null);
+    JobOfferPageKey inactivePage = new JobOfferPageKey(JobOfferStatus.INACTIVE, 10, 0, null);
+    jobOfferPageCache.put(activePage, new EncodedPage(new byte[0], "\"active\"", null));
+    jobOfferPageCache.put(inactivePage, new EncodedPage(new byte[0], "\"inactive\"", null));
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).jobOfferStatus(JobOfferStatus.ACTIVE).build();
+    when(repository.markInactive(eq(1L), any(Date.class))).thenReturn(1);
+    jobOfferService.markJobOfferInactive(jobOffer);
+    assertEquals(0, jobOfferPageCache.size());
+  }
+
+  @Test
+  public void claimVacancies_WithVacancyLeft_ShouldReturnRemainingVacancies() {
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).build();
+    when(repository.claimVacancies(1L, 1)).thenReturn(1);
+    when(repository.findRemainingVacancies(1L)).thenReturn(2);
+    assertEquals(2, jobOfferService.claimVacancies(jobOffer, 1));
+    verify(repository, times(1)).claimVacancies(1L, 1);
+    verify(repository, times(1)).findRemainingVacancies(1L);
+  }
+
+  @Test
+  public void claimVacancies_WithNoVacancyLeft_ShouldReturnMinusOne() {
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).build();
+    when(repository.claimVacancies(1L, 1)).thenReturn(0);
+    assertEquals(-1, jobOfferService.claimVacancies(jobOffer, 1));
+    verify(repository, times(0)).findRemainingVacancies(1L);
+  }
+
+  @Test
+  public void releaseVacancies_WithValidJobOffer_ShouldReleaseVacancy() {
+    JobOffer jobOffer = JobOffer.builder().internalId(1L).build();
+    jobOfferService.releaseVacancies(jobOffer, 1);
+    verify(repository, times(1)).releaseVacancies(1L, 1);
   }
 
   @Test
   public void getJobApplicationsByJobOfferId_WithValidInput_ShouldReturnFilteredApplications() {
-    JobOffer offer = new JobOffer();
-    offer.setApplications(getListOfJobApplications());
     UUID id = UUID.randomUUID();
-    when(repository.findById(id)).thenReturn(offer);
-    List<JobApplication> applicationList =
+    when(repository.findInternalIdById(id)).thenReturn(1L);
+    when(applicationRepository.findJobApplicationSummaries(1L, JobApplicationStatus.APPLIED,
+        OffsetPageRequest.of(10, 0))).thenReturn(getListOfJobApplications());
+    List<JobApplicationSummary> applicationList =
         jobOfferService.getJobApplicationsByJobOfferId(id, JobApplicationStatus.APPLIED, 10, 0);
-    assertEquals(2, applicationList.size());
-    verify(repository, times(1)).findById(id);
+    assertEquals(3, applicationList.size());
+    verify(repository, times(1)).findInternalIdById(id);
+    verify(repository, times(0)).findById(id);
+    verify(applicationRepository, times(1)).findJobApplicationSummaries(1L, JobApplicationStatus.APPLIED,
+        OffsetPageRequest.of(10, 0));
   }
 
   @Test
   public void getJobApplicationsByJobOfferId_WithValidInput_ShouldApplyLimitAndOffset() {
-    JobOffer offer = new JobOffer();
-    offer.setApplications(getListOfJobApplications());
     UUID id = UUID.randomUUID();
-    when(repository.findById(id)).thenReturn(offer);
-    List<JobApplication> applicationList =
+    when(repository.findInternalIdById(id)).thenReturn(1L);
+    when(applicationRepository.findJobApplicationSummaries(1L, JobApplicationStatus.APPLIED,
+        OffsetPageRequest.of(1, 1))).thenReturn(new ArrayList<>());
+    List<JobApplicationSummary> applicationList =
         jobOfferService.getJobApplicationsByJobOfferId(id, JobApplicationStatus.APPLIED, 1, 1);
-    assertEquals(1, applicationList.size());
-    verify(repository, times(1)).findById(id);
+    assertEquals(0, applicationList.size());
+    verify(applicationRepository, times(1)).findJobApplicationSummaries(1L, JobApplicationStatus.APPLIED,
+        OffsetPageRequest.of(1, 1));
+  }
+
+  @Test
+  public void getJobApplicationsByJobOfferId_WithCursor_ShouldSeekAfterCursor() {
+    UUID id = UUID.randomUUID();
+    PageCursor cursor = PageCursor.of(new Date(), 5L);
+    when(repository.findInternalIdById(id)).thenReturn(1L);
+    when(applicationRepository.findJobApplicationSummariesAfter(1L, JobApplicationStatus.HIRED,
+        cursor.getTimestamp(), 5L, OffsetPageRequest.of(10, 0))).thenReturn(getListOfJobApplications());
+    List<JobApplicationSummary> applicationList =
+        jobOfferService.getJobApplicationsByJobOfferId(id, JobApplicationStatus.HIRED, 10, cursor);
+    assertEquals(3, applicationList.size());
+    verify(applicationRepository, times(1)).findJobApplicationSummariesAfter(1L, JobApplicationStatus.HIRED,
+        cursor.getTimestamp(), 5L, OffsetPageRequest.of(10, 0));
+  }
+
+  @Test
+  public void getJobApplicationsByJobOfferId_WithInvalidId_ShouldThrowNotFoundException() {
+    UUID id = UUID.randomUUID();
+    when(repository.findInternalIdById(id)).thenReturn(null);
+    thrown.expect(ResponseStatusException.class);
+    thrown.expectMessage("No Job Offer found associated with the ID.");
+    jobOfferService.getJobApplicationsByJobOfferId(id, JobApplicationStatus.APPLIED, 10, (PageCursor) null);
+  }
+
+  @Test
+  public void getJobOffersByIds_WithMoreIdsThanAChunk_ShouldQueryInChunksAndKeepRequestOrder() {
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      ids.add(UUID.randomUUID());
+    }
+    JobOfferSummary last = JobOfferSummary.builder().id(ids.get(149)).build();
+    when(repository.findJobOfferSummariesByIdIn(ids.subList(0, 100))).thenReturn(new ArrayList<>());
+    when(repository.findJobOfferSummariesByIdIn(ids.subList(100, 150))).thenReturn(Arrays.asList(last));
+    List<JobOfferSummary> result = jobOfferService.getJobOffersByIds(ids);
+    assertEquals(150, result.size());
+    assertEquals(null, result.get(0));
+    assertEquals(last, result.get(149));
+    verify(repository, times(2)).findJobOfferSummariesByIdIn(any());
+  }
+
+  @Test
+  public void createJobOffers_WithTakenAndRepeatedTitles_ShouldRejectThemAndCreateTheRest() {
+    List<JobOffer> jobOffers = Arrays.asList(JobOffer.builder().jobTitle("Java Developer").build(),
+        JobOffer.builder().jobTitle("Taken").build(), JobOffer.builder().jobTitle(" JAVA developer").build());
+    when(repository.findNormalizedJobTitles(any())).thenReturn(Arrays.asList("taken"));
+    List<BulkItemResult> results = jobOfferService.createJobOffers(jobOffers);
+    assertEquals(BulkItemStatus.CREATED, results.get(0).getStatus());
+    assertEquals(BulkItemStatus.REJECTED, results.get(1).getStatus());
+    assertEquals(BulkItemStatus.REJECTED, results.get(2).getStatus());
+    assertEquals(2, results.get(2).getIndex());
+    verify(repository, times(1)).saveAll(Arrays.asList(jobOffers.get(0)));
+    verify(publisher, times(1)).publishEvent(any(PublishEvent.class));
+  }
+
+  @Test
+  public void createJobOffers_InTransaction_ShouldEvictAndIndexTheListOnce() {
+    List<JobOffer> jobOffers = Arrays.asList(JobOffer.builder().jobTitle("Java Developer").build(),
+        JobOffer.builder().jobTitle("Java Tester").build());
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      jobOfferService.createJobOffers(jobOffers);
+      assertEquals(2, TransactionSynchronizationManager.getSynchronizations().size());
+      verify(searchService, never()).indexJobOffer(any(JobOffer.class));
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    verify(searchService, times(1)).indexJobOffer(jobOffers.get(0));
+    verify(searchService, times(1)).indexJobOffer(jobOffers.get(1));
+  }
+
+  @Test
+  public void exportJobApplications_WithApplications_ShouldDetachEveryConsumedApplication() {
+    JobOffer jobOffer = JobOffer.builder().internalId(7L).build();
+    List<JobApplication> applications = Arrays.asList(new JobApplication(), new JobApplication());
+    when(applicationRepository.streamByJobOfferInternalId(7L)).thenReturn(applications.stream());
+    List<JobApplication> exported = new ArrayList<>();
+    jobOfferService.exportJobApplications(jobOffer, exported::add);
+    assertEquals(applications, exported);
+    verify(entityManager, times(1)).detach(applications.get(0));
+    verify(entityManager, times(1)).detach(applications.get(1));
   }
 
-  private List<JobApplication> getListOfJobApplications() {
+  private List<JobApplicationSummary> getListOfJobApplications() {
     JobApplicationStatus[] statuses =
         new JobApplicationStatus[]{JobApplicationStatus.APPLIED, JobApplicationStatus.APPLIED,
             JobApplicationStatus.HIRED};
-    List<JobApplication> applications = new ArrayList<>();
+    List<JobApplicationSummary> applications = new ArrayList<>();
     for (JobApplicationStatus status : statuses) {
-      JobApplication application = new JobApplication();
+      JobApplicationSummary application = new JobApplicationSummary();
       application.setApplicationStatus(status);
       applications.add(application);
     }
@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNull;
 
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
 import org.junit.Before;
 import org.junit.Test;
@@ -97,4 +98,28 @@ public class JobApplicationAssemblerTest {
     List<JobApplicationResource> resourceList = assembler.fromJobApplicationList(null);
     assertNull(resourceList);
   }
+
+  @Test
+  public void fromJobApplicationSummaryList_WithValidInput_ShouldReturnCorrespondingJobApplicationResourceList() {
+    JobApplicationSummary summary = JobApplicationSummary.builder()
+        .id(UUID.randomUUID())
+        .internalId(1L)
+        .candidateEmail("candidate@jobs.com")
+        .resumeText("Dummy resume")
+        .applicationStatus(JobApplicationStatus.APPLIED)
+        .createdTime(new Date())
+        .build();
+    List<JobApplicationResource> resourceList = assembler.fromJobApplicationSummaryList(Arrays.asList(summary));
+    JobApplicationResource resource = resourceList.get(0);
+    assertEquals(summary.getId(), resource.getId());
+    assertEquals(summary.getApplicationStatus(), resource.getApplicationStatus());
+    assertEquals(summary.getCandidateEmail(), resource.getCandidateEmail());
+    assertEquals(summary.getResumeText(), resource.getResumeText());
+  }
+
+  @Test
+  public void fromJobApplicationSummaryList_WithNullInput_ShouldReturnNull() {
+    List<JobApplicationResource> resourceList = assembler.fromJobApplicationSummaryList(null);
+    assertNull(resourceList);
+  }
 }
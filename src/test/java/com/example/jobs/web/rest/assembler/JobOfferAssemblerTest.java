@@ -5,6 +5,7 @@ import static org.junit.Assert.assertNull;
 
 import com.example.jobs.domain.JobOffer;
 import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobOfferSummary;
 import com.example.jobs.web.rest.resource.JobOfferResource;
 import org.junit.Before;
 import org.junit.Test;
@@ -85,6 +86,13 @@ public class JobOfferAssemblerTest {
     assertEquals(0, resource.getNumberOfApplications());
   }
 
+  @Test
+  public void fromJobOffer_WithApplicationsCount_ShouldSetNumberOfApplicationsFromCounter() {
+    jobOffer.setApplicationsCount(5);
+    JobOfferResource resource = assembler.fromJobOffer(jobOffer);
+    assertEquals(5, resource.getNumberOfApplications());
+  }
+
   @Test
   public void fromJobOfferList_WithValidInput_ShouldReturnCorrespondingListOfJobOfferResource() {
     List<JobOfferResource> resourceList = assembler.fromJobOfferList(jobOfferList);
@@ -106,6 +114,39 @@ public class JobOfferAssemblerTest {
     assertNull(resourceList);
   }
 
+  @Test
+  public void fromJobOfferSummaryList_WithValidInput_ShouldReturnCorrespondingListOfJobOfferResource() {
+    JobOfferSummary summary = JobOfferSummary.builder()
+        .id(UUID.randomUUID())
+        .internalId(1L)
+        .jobTitle("Dummy job")
+        .jobDescription("Job desc")
+        .location("Hyd")
+        .jobOfferStatus(JobOfferStatus.ACTIVE)
+        .startDate("2019-11-01")
+        .vacancies(2)
+        .applicationsCount(5)
+        .createdTime(new Date())
+        .build();
+    List<JobOfferResource> resourceList = assembler.fromJobOfferSummaryList(Arrays.asList(summary));
+    assertEquals(1, resourceList.size());
+    JobOfferResource resource = resourceList.get(0);
+    assertEquals(summary.getId(), resource.getId());
+    assertEquals(summary.getJobTitle(), resource.getJobTitle());
+    assertEquals(summary.getJobDescription(), resource.getJobDescription());
+    assertEquals(summary.getLocation(), resource.getLocation());
+    assertEquals(summary.getJobOfferStatus(), resource.getJobOfferStatus());
+    assertEquals(summary.getStartDate(), resource.getStartDate());
+    assertEquals(summary.getVacancies(), resource.getVacancies());
+    assertEquals(5, resource.getNumberOfApplications());
+  }
+
+  @Test
+  public void fromJobOfferSummaryList_WithNullInput_ShouldReturnNull() {
+    List<JobOfferResource> resourceList = assembler.fromJobOfferSummaryList(null);
+    assertNull(resourceList);
+  }
+
   @Test
   public void toJobOffer_WithValidInput_ShouldReturnCorrespondingJobOffer() {
     JobOffer jobOffer = assembler.toJobOffer(jobOfferResource);
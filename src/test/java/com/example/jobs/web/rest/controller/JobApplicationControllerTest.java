@@ -1,19 +1,26 @@
 package com.example.jobs.web.rest.controller;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
+import com.example.jobs.domain.BulkItemResult;
 import com.example.jobs.domain.JobApplication;
+import com.example.jobs.domain.enums.BulkItemStatus;
 import com.example.jobs.domain.enums.JobApplicationStatus;
+import com.example.jobs.domain.projection.EntityVersion;
 import com.example.jobs.service.JobApplicationService;
 import com.example.jobs.web.rest.assembler.JobApplicationAssembler;
 import com.example.jobs.web.rest.resource.JobApplicationResource;
+import com.example.jobs.web.rest.resource.JobApplicationStatusUpdateResource;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
@@ -21,12 +28,20 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import javax.validation.Validation;
+
 @RunWith(MockitoJUnitRunner.StrictStubs.class)
 public class JobApplicationControllerTest {
 
@@ -49,8 +64,11 @@ public class JobApplicationControllerTest {
 
   private static final String APPLICATION_URL = "/jobmanagement/v1/application/";
 
+  private static final String APPLICATIONS_URL = "/jobmanagement/v1/applications/";
+
   @Before
   public void setUp() {
+    ReflectionTestUtils.setField(controller, "validator", Validation.buildDefaultValidatorFactory().getValidator());
     mockMvc = standaloneSetup(controller).build();
 
     resource = JobApplicationResource.builder()
@@ -77,6 +95,32 @@ public class JobApplicationControllerTest {
     verify(assembler, times(1)).fromJobApplication(application);
   }
 
+  @Test
+  public void createJobApplications_WithInvalidItem_ShouldRejectOnlyThatItem() throws Exception {
+    UUID id = UUID.randomUUID();
+    UUID createdId = UUID.randomUUID();
+    JobApplicationResource invalidResource = JobApplicationResource.builder()
+        .candidateEmail("not an email")
+        .resumeText("Dummy resume")
+        .build();
+    JobApplication application = new JobApplication();
+    when(assembler.toJobApplication(resource)).thenReturn(application);
+    when(service.createJobApplications(Arrays.asList(application), id)).thenReturn(Arrays.asList(
+        BulkItemResult.builder().index(0).id(createdId).status(BulkItemStatus.CREATED).build()));
+
+    mockMvc.perform(post(APPLICATIONS_URL + id.toString()).contentType(APPLICATION_JSON_UTF8_VALUE)
+        .content(objectMapper.writeValueAsString(Arrays.asList(invalidResource, resource))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].index").value(0))
+        .andExpect(jsonPath("$[0].status").value("REJECTED"))
+        .andExpect(jsonPath("$[1].index").value(1))
+        .andExpect(jsonPath("$[1].status").value("CREATED"))
+        .andExpect(jsonPath("$[1].id").value(createdId.toString()));
+
+    verify(service, times(1)).createJobApplications(Arrays.asList(application), id);
+    verify(assembler, times(1)).toJobApplication(resource);
+  }
+
   @Test
   public void updateJobApplication_WithValidInput_ShouldUpdateTheApplication() throws Exception {
     UUID id = UUID.randomUUID();
@@ -103,6 +147,32 @@ public class JobApplicationControllerTest {
         .content(objectMapper.writeValueAsString(map))).andExpect(status().isBadRequest());
   }
 
+  @Test
+  public void updateJobApplications_WithValidInput_ShouldUpdateTheApplications() throws Exception {
+    List<UUID> ids = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+    JobApplicationStatusUpdateResource statusUpdate = JobApplicationStatusUpdateResource.builder()
+        .ids(ids)
+        .status(JobApplicationStatus.REJECTED)
+        .build();
+    when(service.updateJobApplications(ids, JobApplicationStatus.REJECTED)).thenReturn(new ArrayList<>());
+
+    mockMvc.perform(patch(APPLICATIONS_URL).contentType(APPLICATION_JSON_UTF8_VALUE)
+        .content(objectMapper.writeValueAsString(statusUpdate))).andExpect(status().isOk());
+
+    verify(service, times(1)).updateJobApplications(ids, JobApplicationStatus.REJECTED);
+  }
+
+  @Test
+  public void updateJobApplications_WithoutIds_ShouldThrowBadRequestException() throws Exception {
+    JobApplicationStatusUpdateResource statusUpdate = JobApplicationStatusUpdateResource.builder()
+        .ids(new ArrayList<>())
+        .status(JobApplicationStatus.REJECTED)
+        .build();
+
+    mockMvc.perform(patch(APPLICATIONS_URL).contentType(APPLICATION_JSON_UTF8_VALUE)
+        .content(objectMapper.writeValueAsString(statusUpdate))).andExpect(status().isBadRequest());
+  }
+
   @Test
   public void getJobApplicationById_WithValidInput_ShouldReturnTheApplicationDetails() throws Exception {
     UUID id = UUID.randomUUID();
@@ -116,5 +186,33 @@ public class JobApplicationControllerTest {
     verify(assembler, times(1)).fromJobApplication(application);
   }
 
+  @Test
+  public void getJobApplicationById_WithCurrentETag_ShouldReturnNotModifiedWithoutLoadingApplication()
+      throws Exception {
+    UUID id = UUID.randomUUID();
+    Date updatedTime = new Date();
+    when(service.getJobApplicationVersion(id)).thenReturn(new EntityVersion(id, 3L, updatedTime));
+
+    mockMvc.perform(get(APPLICATION_URL + id.toString()).header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-3\""))
+        .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, updatedTime.getTime() / 1000 * 1000));
+
+    verify(service, never()).getJobApplicationById(id);
+  }
+
+  @Test
+  public void getJobApplicationById_WithOutdatedETag_ShouldReturnTheApplicationWithCurrentETag() throws Exception {
+    UUID id = UUID.randomUUID();
+    JobApplication application = JobApplication.builder().id(id).version(4L).build();
+    when(service.getJobApplicationVersion(id)).thenReturn(new EntityVersion(id, 4L, new Date()));
+    when(service.getJobApplicationById(id)).thenReturn(application);
+    when(assembler.fromJobApplication(application)).thenReturn(new JobApplicationResource());
+
+    mockMvc.perform(get(APPLICATION_URL + id.toString()).header(HttpHeaders.IF_NONE_MATCH, "\"" + id + "-3\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-4\""));
+  }
+
 
 }
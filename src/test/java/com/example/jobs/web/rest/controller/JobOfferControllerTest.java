@@ -1,34 +1,57 @@
 package com.example.jobs.web.rest.controller;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
+import com.example.jobs.cache.BoundedCache;
 import com.example.jobs.domain.JobApplication;
 import com.example.jobs.domain.JobOffer;
+import com.example.jobs.domain.PageCursor;
+import com.example.jobs.domain.SearchCursor;
 import com.example.jobs.domain.enums.JobApplicationStatus;
 import com.example.jobs.domain.enums.JobOfferStatus;
+import com.example.jobs.domain.projection.JobApplicationSummary;
+import com.example.jobs.domain.projection.JobOfferSearchPage;
+import com.example.jobs.domain.projection.JobOfferSearchResult;
+import com.example.jobs.domain.projection.JobOfferSummary;
+import com.example.jobs.service.JobOfferSearchService;
 import com.example.jobs.service.JobOfferService;
 import com.example.jobs.web.rest.assembler.JobApplicationAssembler;
 import com.example.jobs.web.rest.assembler.JobOfferAssembler;
+import com.example.jobs.web.rest.resource.JobApplicationResource;
 import com.example.jobs.web.rest.resource.JobOfferResource;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RunWith(MockitoJUnitRunner.StrictStubs.class)
 public class JobOfferControllerTest {
@@ -42,6 +65,9 @@ public class JobOfferControllerTest {
   @Mock
   private JobApplicationAssembler jobApplicationAssembler;
 
+  @Mock
+  private JobOfferSearchService jobOfferSearchService;
+
   @InjectMocks
   private JobOfferController controller;
 
@@ -57,10 +83,15 @@ public class JobOfferControllerTest {
 
   private static final String APPLICATIONS = "/applications";
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private JobOfferResource resource;
 
   @Before
   public void setUp() {
+    ReflectionTestUtils.setField(controller, "objectMapper", objectMapper);
+    ReflectionTestUtils.setField(controller, "jobOfferPageCache",
+        new BoundedCache<>("jobOfferPages", 100, 60000, new SimpleMeterRegistry()));
     mockMvc = standaloneSetup(controller).build();
 
     resource = JobOfferResource.builder()
@@ -75,15 +106,95 @@ public class JobOfferControllerTest {
 
   @Test
   public void getAllJobOffers_WithValidInput_ShouldReturnListOfJobOffers() throws Exception {
-    List<JobOffer> jobOffers = Arrays.asList(new JobOffer());
+    List<JobOfferSummary> jobOffers = Arrays.asList(new JobOfferSummary());
     List<JobOfferResource> jobOfferResourceList = Arrays.asList(new JobOfferResource());
     when(jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0)).thenReturn(jobOffers);
-    when(jobOfferAssembler.fromJobOfferList(jobOffers)).thenReturn(jobOfferResourceList);
+    when(jobOfferAssembler.fromJobOfferSummaryList(jobOffers)).thenReturn(jobOfferResourceList);
 
     mockMvc.perform(get(GET_JOB_OFFERS_URL)).andExpect(status().isOk());
 
     verify(jobOfferService, times(1)).getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0);
-    verify(jobOfferAssembler, times(1)).fromJobOfferList(jobOffers);
+    verify(jobOfferAssembler, times(1)).fromJobOfferSummaryList(jobOffers);
+  }
+
+  @Test
+  public void getAllJobOffers_CalledTwice_ShouldServeSecondCallFromPageCache() throws Exception {
+    List<JobOfferSummary> jobOffers = Arrays.asList(JobOfferSummary.builder().id(UUID.randomUUID()).build());
+    List<JobOfferResource> jobOfferResourceList = Arrays.asList(resource);
+    when(jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0)).thenReturn(jobOffers);
+    when(jobOfferAssembler.fromJobOfferSummaryList(jobOffers)).thenReturn(jobOfferResourceList);
+
+    String first = mockMvc.perform(get(GET_JOB_OFFERS_URL)).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    String second = mockMvc.perform(get(GET_JOB_OFFERS_URL)).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertEquals(objectMapper.writeValueAsString(jobOfferResourceList), first);
+    assertEquals(first, second);
+    verify(jobOfferService, times(1)).getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0);
+  }
+
+  @Test
+  public void getAllJobOffers_WithCursor_ShouldSeekAfterCursor() throws Exception {
+    PageCursor cursor = PageCursor.of(new Date(), 1L);
+    List<JobOfferSummary> jobOffers = new ArrayList<>();
+    when(jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, cursor)).thenReturn(jobOffers);
+    when(jobOfferAssembler.fromJobOfferSummaryList(jobOffers)).thenReturn(new ArrayList<>());
+
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "?cursor=" + cursor.encode())).andExpect(status().isOk())
+        .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+
+    verify(jobOfferService, times(1)).getAllJobOffers(JobOfferStatus.ACTIVE, 10, cursor);
+  }
+
+  @Test
+  public void getAllJobOffers_WithFullPage_ShouldReturnNextCursor() throws Exception {
+    JobOfferSummary jobOffer = JobOfferSummary.builder().internalId(7L).createdTime(new Date()).build();
+    List<JobOfferSummary> jobOffers = Arrays.asList(jobOffer);
+    when(jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 1, 0)).thenReturn(jobOffers);
+    when(jobOfferAssembler.fromJobOfferSummaryList(jobOffers)).thenReturn(Arrays.asList(new JobOfferResource()));
+
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "?limit=1")).andExpect(status().isOk())
+        .andExpect(header().string(NEXT_CURSOR_HEADER,
+            PageCursor.of(jobOffer.getCreatedTime(), jobOffer.getInternalId()).encode()));
+  }
+
+  @Test
+  public void getAllJobOffers_WithInvalidCursor_ShouldThrowBadRequestException() throws Exception {
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void searchJobOffers_WithNextCursor_ShouldReturnJobOffersAndNextCursor() throws Exception {
+    JobOfferSummary first = JobOfferSummary.builder().internalId(3L).build();
+    JobOfferSummary second = JobOfferSummary.builder().internalId(8L).build();
+    List<JobOfferSearchResult> results = Arrays.asList(new JobOfferSearchResult(first, 2.5),
+        new JobOfferSearchResult(second, 1.25));
+    SearchCursor nextCursor = SearchCursor.of(1.25, 8L, 40);
+    when(jobOfferSearchService.searchJobOffers("java berlin", JobOfferStatus.ACTIVE, 2, null))
+        .thenReturn(new JobOfferSearchPage(results, nextCursor));
+    when(jobOfferAssembler.fromJobOfferSummaryList(Arrays.asList(first, second)))
+        .thenReturn(Arrays.asList(resource, resource));
+
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "/search?q=java berlin&limit=2")).andExpect(status().isOk())
+        .andExpect(header().string(NEXT_CURSOR_HEADER, nextCursor.encode()));
+  }
+
+  @Test
+  public void searchJobOffers_WithCursor_ShouldSearchAfterCursor() throws Exception {
+    SearchCursor cursor = SearchCursor.of(0.1 + 0.2, 4L, 40);
+    when(jobOfferSearchService.searchJobOffers("java", JobOfferStatus.INACTIVE, 10, cursor))
+        .thenReturn(new JobOfferSearchPage(new ArrayList<>(), null));
+    when(jobOfferAssembler.fromJobOfferSummaryList(new ArrayList<>())).thenReturn(new ArrayList<>());
+
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "/search?q=java&status=INACTIVE&cursor=" + cursor.encode()))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  public void searchJobOffers_WithInvalidCursor_ShouldThrowBadRequestException() throws Exception {
+    mockMvc.perform(get(GET_JOB_OFFERS_URL + "/search?q=java&cursor=invalid")).andExpect(status().isBadRequest());
   }
 
   @Test
@@ -115,15 +226,57 @@ public class JobOfferControllerTest {
     verify(jobOfferAssembler, times(1)).fromJobOffer(jobOffer);
   }
 
+  @Test
+  public void getJobOfferById_WithCurrentETag_ShouldReturnNotModifiedWithoutBody() throws Exception {
+    UUID id = UUID.randomUUID();
+    JobOffer jobOffer = JobOffer.builder().id(id).version(2L).updatedTime(new Date()).build();
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+
+    mockMvc.perform(get(JOB_OFFER_URL + id.toString()).header(HttpHeaders.IF_NONE_MATCH, "W/\"" + id + "-2\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"" + id + "-2\""));
+
+    verify(jobOfferAssembler, never()).fromJobOffer(any());
+  }
+
+  @Test
+  public void getAllJobOffers_WithCurrentETag_ShouldReturnNotModifiedWithoutBody() throws Exception {
+    List<JobOfferSummary> jobOffers = Arrays.asList(
+        JobOfferSummary.builder().id(UUID.randomUUID()).version(1L).build());
+    when(jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0)).thenReturn(jobOffers);
+    String etag = EntityTags.ofAll(jobOffers, JobOfferSummary::getId, JobOfferSummary::getVersion);
+
+    mockMvc.perform(get(GET_JOB_OFFERS_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+    verify(jobOfferAssembler, never()).fromJobOfferSummaryList(any());
+  }
+
+  @Test
+  public void getAllJobOffers_WithChangedJobOffer_ShouldReturnNewETag() throws Exception {
+    UUID id = UUID.randomUUID();
+    List<JobOfferSummary> before = Arrays.asList(JobOfferSummary.builder().id(id).version(1L).build());
+    List<JobOfferSummary> after = Arrays.asList(JobOfferSummary.builder().id(id).version(2L).build());
+    when(jobOfferService.getAllJobOffers(JobOfferStatus.ACTIVE, 10, 0)).thenReturn(after);
+    when(jobOfferAssembler.fromJobOfferSummaryList(after)).thenReturn(Arrays.asList(new JobOfferResource()));
+    String etag = EntityTags.ofAll(before, JobOfferSummary::getId, JobOfferSummary::getVersion);
+
+    mockMvc.perform(get(GET_JOB_OFFERS_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG,
+            EntityTags.ofAll(after, JobOfferSummary::getId, JobOfferSummary::getVersion)));
+  }
+
   @Test
   public void getJobApplicationsByJobOfferId_WithValidInput_ShouldReturnListOfApplications() throws Exception {
     UUID id = UUID.randomUUID();
     int limit = 10;
     int offset = 0;
     JobApplicationStatus status = JobApplicationStatus.APPLIED;
-    List<JobApplication> applications = new ArrayList<>();
+    List<JobApplicationSummary> applications = new ArrayList<>();
     when(jobOfferService.getJobApplicationsByJobOfferId(id, status, limit, offset)).thenReturn(applications);
-    when(jobApplicationAssembler.fromJobApplicationList(applications)).thenReturn(new ArrayList<>());
+    when(jobApplicationAssembler.fromJobApplicationSummaryList(applications)).thenReturn(new ArrayList<>());
 
     mockMvc.perform(
         get(JOB_OFFER_URL + id.toString() + APPLICATIONS + "?applicationStatus=" + status.toString() + "&limit=" +
@@ -131,8 +284,91 @@ public class JobOfferControllerTest {
         .andExpect(status().isOk());
 
     verify(jobOfferService, times(1)).getJobApplicationsByJobOfferId(id, status, limit, offset);
-    verify(jobApplicationAssembler, times(1)).fromJobApplicationList(applications);
+    verify(jobApplicationAssembler, times(1)).fromJobApplicationSummaryList(applications);
+  }
+
+  @Test
+  public void getJobApplicationsByJobOfferId_WithCursor_ShouldReturnNextCursor() throws Exception {
+    UUID id = UUID.randomUUID();
+    PageCursor cursor = PageCursor.of(new Date(), 3L);
+    JobApplicationSummary application = JobApplicationSummary.builder().internalId(4L).createdTime(new Date())
+        .build();
+    List<JobApplicationSummary> applications = Arrays.asList(application);
+    when(jobOfferService.getJobApplicationsByJobOfferId(id, JobApplicationStatus.APPLIED, 1, cursor))
+        .thenReturn(applications);
+    when(jobApplicationAssembler.fromJobApplicationSummaryList(applications)).thenReturn(new ArrayList<>());
+
+    mockMvc.perform(get(JOB_OFFER_URL + id.toString() + APPLICATIONS + "?limit=1&cursor=" + cursor.encode()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(NEXT_CURSOR_HEADER,
+            PageCursor.of(application.getCreatedTime(), application.getInternalId()).encode()));
+
+    verify(jobOfferService, times(1)).getJobApplicationsByJobOfferId(id, JobApplicationStatus.APPLIED, 1, cursor);
   }
 
+  @Test
+  public void getJobOffersByIds_WithMissingId_ShouldMarkItNotFound() throws Exception {
+    UUID found = UUID.randomUUID();
+    UUID missing = UUID.randomUUID();
+    JobOfferSummary summary = JobOfferSummary.builder().id(found).build();
+    when(jobOfferService.getJobOffersByIds(Arrays.asList(missing, found))).thenReturn(Arrays.asList(null, summary));
+    when(jobOfferAssembler.fromJobOfferSummary(null)).thenReturn(null);
+    when(jobOfferAssembler.fromJobOfferSummary(summary)).thenReturn(resource);
+
+    String content = mockMvc.perform(get(GET_JOB_OFFERS_URL + "/batch?ids=" + missing + "," + found))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+    assertEquals("[{\"id\":\"" + missing + "\",\"found\":false},{\"id\":\"" + found + "\",\"found\":true,"
+        + "\"item\":" + objectMapper.writeValueAsString(resource) + "}]", content);
+  }
+
+  @Test
+  public void exportJobApplications_AsNdjson_ShouldStreamOneResourcePerLine() throws Exception {
+    JobOffer jobOffer = new JobOffer();
+    UUID id = UUID.randomUUID();
+    JobApplication application = JobApplication.builder().id(UUID.randomUUID()).candidateEmail("abc@jobs.com")
+        .build();
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    when(jobApplicationAssembler.fromJobApplication(application)).thenReturn(JobApplicationResource.builder()
+        .id(application.getId()).candidateEmail(application.getCandidateEmail()).build());
+    doAnswer(invocation -> {
+      Consumer<JobApplication> consumer = invocation.getArgument(1);
+      consumer.accept(application);
+      consumer.accept(application);
+      return null;
+    }).when(jobOfferService).exportJobApplications(eq(jobOffer), any());
+
+    MvcResult result = mockMvc.perform(get(JOB_OFFER_URL + id.toString() + APPLICATIONS + "/export"))
+        .andExpect(request().asyncStarted()).andReturn();
+    String content = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/x-ndjson"))
+        .andReturn().getResponse().getContentAsString();
+
+    String line = "{\"id\":\"" + application.getId() + "\",\"candidateEmail\":\"abc@jobs.com\"}\n";
+    assertEquals(line + line, content);
+  }
+
+  @Test
+  public void exportJobApplications_AsCsv_ShouldQuoteFieldsWithSeparators() throws Exception {
+    JobOffer jobOffer = new JobOffer();
+    UUID id = UUID.randomUUID();
+    JobApplication application = JobApplication.builder().id(UUID.randomUUID()).candidateEmail("abc@jobs.com")
+        .applicationStatus(JobApplicationStatus.HIRED).resumeText("Java, \"Spring\"\nBerlin").build();
+    when(jobOfferService.getJobOfferById(id)).thenReturn(jobOffer);
+    doAnswer(invocation -> {
+      invocation.<Consumer<JobApplication>>getArgument(1).accept(application);
+      return null;
+    }).when(jobOfferService).exportJobApplications(eq(jobOffer), any());
+
+    MvcResult result = mockMvc.perform(get(JOB_OFFER_URL + id.toString() + APPLICATIONS + "/export?format=CSV"))
+        .andExpect(request().asyncStarted()).andReturn();
+    String content = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertEquals("id,candidateEmail,applicationStatus,resumeText\r\n" + application.getId()
+        + ",abc@jobs.com,HIRED,\"Java, \"\"Spring\"\"\nBerlin\"\r\n", content);
+  }
 
 }